@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.parse.Binarizer;
+import com.google.zxing.parse.BinaryBitmap;
+import com.google.zxing.parse.LuminanceSource;
+import com.google.zxing.parse.PlanarYUVLuminanceSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shares the binarization of one frame between all the {@link BinaryBitmap}s built from it, so
+ * that readers and decode attempts that look at the same pixels the same way binarize them once.
+ * Results are keyed by the source view, compared with {@link LuminanceSource#isSameView}, and by
+ * binarizer type:
+ * <ul>
+ *   <li>Black matrices are shared between binarizers of the same class. The matrix of a view
+ *   rotated by 90 degrees is derived by rotating the bits of a cached matrix instead of
+ *   binarizing again; the block grid then sits at a different corner, which 2D readers do not
+ *   care about.</li>
+ *   <li>Black rows are shared between binarizers that compute them the same way, such as
+ *   {@link HybridBinarizer} and {@link GlobalHistogramBinarizer}. Rows that could not be
+ *   binarized are remembered as well, which is what most rows of an empty frame are.</li>
+ * </ul>
+ * <p>
+ * Several threads may use a cache at once. Matrices it returns stay valid, and must not be
+ * modified, until {@link #clear()}, which is meant to be called once the frame is done.
+ */
+public final class BinarizationCache {
+
+  private static final BitArray NOT_FOUND = new BitArray(0);
+
+  private final List<Entry> matrices = new ArrayList<>();
+  private final List<Entry> rows = new ArrayList<>();
+  /**
+   * Matrices of previous frames, to copy or rotate the next ones into. Every cached matrix belongs
+   * to the cache.
+   */
+  private final List<BitMatrix> spares = new ArrayList<>();
+
+  /**
+   * @see BinaryBitmap#getBlackMatrix()
+   */
+  public BitMatrix getBlackMatrix(Binarizer binarizer) throws NotFoundException {
+    LuminanceSource source = binarizer.getLuminanceSource();
+    Class<?> type = matrixType(binarizer);
+    BitMatrix unrotated = null;
+    boolean clockwise = false;
+    BitMatrix rotated = null;
+    synchronized (this) {
+      for (Entry entry : matrices) {
+        if (entry.type != type) {
+          continue;
+        }
+        if (entry.source.isSameView(source)) {
+          return entry.matrix;
+        }
+        if (unrotated == null && canRotate(source) && canRotate(entry.source)) {
+          LuminanceSource counterClockwise = entry.source.rotateCounterClockwise();
+          if (counterClockwise.isSameView(source)) {
+            unrotated = entry.matrix;
+          } else if (counterClockwise.rotateCounterClockwise().rotateCounterClockwise().isSameView(source)) {
+            unrotated = entry.matrix;
+            clockwise = true;
+          }
+        }
+      }
+      if (unrotated != null) {
+        rotated = takeSpare(unrotated.getHeight(), unrotated.getWidth());
+      }
+    }
+    if (unrotated != null) {
+      // Cached matrices do not change until clear(), so they can be rotated outside the lock.
+      unrotated.rotate90(clockwise, rotated);
+      return put(source, type, rotated, false);
+    }
+    BitMatrix matrix = binarizer.getBlackMatrix();
+    // The binarizer may reuse its matrix for the next frame, so keep a copy.
+    return put(source, type, matrix, true);
+  }
+
+  /**
+   * @see BinaryBitmap#getBlackRow(int, BitArray)
+   */
+  public BitArray getBlackRow(Binarizer binarizer, int y, BitArray row) throws NotFoundException {
+    BitArray blackRow = tryGetBlackRow(binarizer, y, row);
+    if (blackRow == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return blackRow;
+  }
+
+  /**
+   * @see BinaryBitmap#tryGetBlackRow(int, BitArray)
+   */
+  public BitArray tryGetBlackRow(Binarizer binarizer, int y, BitArray row) {
+    LuminanceSource source = binarizer.getLuminanceSource();
+    Class<?> type = rowType(binarizer);
+    Entry rowsEntry = null;
+    synchronized (this) {
+      for (Entry entry : rows) {
+        if (entry.type == type && entry.source.isSameView(source)) {
+          rowsEntry = entry;
+          break;
+        }
+      }
+      if (rowsEntry == null) {
+        rowsEntry = new Entry(source, type, null);
+        rowsEntry.rows = new BitArray[source.getHeight()];
+        rows.add(rowsEntry);
+      }
+      BitArray cached = rowsEntry.rows[y];
+      if (cached == NOT_FOUND) {
+        return null;
+      }
+      if (cached != null) {
+        return copy(cached, row);
+      }
+    }
+    BitArray blackRow = binarizer.tryGetBlackRow(y, row);
+    if (blackRow == null) {
+      synchronized (this) {
+        rowsEntry.rows[y] = NOT_FOUND;
+      }
+      return null;
+    }
+    // Readers modify the rows they get, reversing them for instance, so keep a copy.
+    BitArray copy = copy(blackRow, null);
+    synchronized (this) {
+      rowsEntry.rows[y] = copy;
+    }
+    return blackRow;
+  }
+
+  /**
+   * Forgets everything cached so far. The matrices returned until now must not be used anymore.
+   */
+  public synchronized void clear() {
+    for (Entry entry : matrices) {
+      spares.add(entry.matrix);
+    }
+    matrices.clear();
+    rows.clear();
+  }
+
+  private synchronized BitMatrix put(LuminanceSource source, Class<?> type, BitMatrix matrix, boolean copy) {
+    for (Entry entry : matrices) {
+      if (entry.type == type && entry.source.isSameView(source)) {
+        // Another thread got there first.
+        if (!copy) {
+          spares.add(matrix);
+        }
+        return entry.matrix;
+      }
+    }
+    if (copy) {
+      BitMatrix spare = takeSpare(matrix.getWidth(), matrix.getHeight());
+      spare.copyFrom(matrix);
+      matrix = spare;
+    }
+    matrices.add(new Entry(source, type, matrix));
+    return matrix;
+  }
+
+  private BitMatrix takeSpare(int width, int height) {
+    for (int i = spares.size() - 1; i >= 0; i--) {
+      BitMatrix spare = spares.get(i);
+      if (spare.getWidth() == width && spare.getHeight() == height) {
+        spares.remove(i);
+        return spare;
+      }
+    }
+    // Different sizes would pile up otherwise.
+    spares.clear();
+    return new BitMatrix(width, height);
+  }
+
+  private static BitArray copy(BitArray from, BitArray to) {
+    int size = from.getSize();
+    if (to == null || to.getSize() < size) {
+      to = new BitArray(size);
+    }
+    int[] bits = from.getBitArray();
+    int[] toBits = to.getBitArray();
+    System.arraycopy(bits, 0, toBits, 0, bits.length);
+    for (int i = bits.length; i < toBits.length; i++) {
+      toBits[i] = 0;
+    }
+    return to;
+  }
+
+  /**
+   * Camera frames can be rotated although they say they cannot, see
+   * {@link PlanarYUVLuminanceSource#isRotateSupported()}.
+   */
+  private static boolean canRotate(LuminanceSource source) {
+    return source.isRotateSupported() || source instanceof PlanarYUVLuminanceSource;
+  }
+
+  /**
+   * {@link ParallelHybridBinarizer} builds the same matrix as {@link HybridBinarizer}.
+   */
+  private static Class<?> matrixType(Binarizer binarizer) {
+    return binarizer instanceof ParallelHybridBinarizer ? HybridBinarizer.class : binarizer.getClass();
+  }
+
+  /**
+   * None of the subclasses of {@link GlobalHistogramBinarizer} changes how it binarizes a row.
+   */
+  private static Class<?> rowType(Binarizer binarizer) {
+    return binarizer instanceof GlobalHistogramBinarizer ? GlobalHistogramBinarizer.class : binarizer.getClass();
+  }
+
+  private static final class Entry {
+
+    final LuminanceSource source;
+    final Class<?> type;
+    final BitMatrix matrix;
+    BitArray[] rows;
+
+    Entry(LuminanceSource source, Class<?> type, BitMatrix matrix) {
+      this.source = source;
+      this.type = type;
+      this.matrix = matrix;
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.parse.LuminanceSource;
+
+/**
+ * Scratch buffers a {@link HybridBinarizer} can reuse from one frame to the next instead of
+ * allocating them per frame: the block black points, the thresholds of one row of blocks, the output
+ * {@link BitMatrix} and, for sources that cannot be read in place, a copy of the luminance data.
+ * <p>
+ * A context is meant to be owned by one decoding thread. The matrix a binarizer returns from a
+ * context is overwritten by the next binarizer that uses the same context, so it must not be kept
+ * past the decode of its frame. Not thread-safe.
+ */
+public final class BinarizerContext {
+
+  private int[] blackPoints;
+  private int[] blockRow;
+  private BitMatrix matrix;
+  private byte[] luminances;
+  private byte[] row;
+
+  /**
+   * @return an array of at least {@code size} black points; the contents are undefined
+   */
+  int[] getBlackPoints(int size) {
+    if (blackPoints == null || blackPoints.length < size) {
+      blackPoints = new int[size];
+    }
+    return blackPoints;
+  }
+
+  /**
+   * @return an array of at least {@code size} ints for the thresholds of a row of blocks; the
+   *         contents are undefined
+   */
+  int[] getBlockRow(int size) {
+    if (blockRow == null || blockRow.length < size) {
+      blockRow = new int[size];
+    }
+    return blockRow;
+  }
+
+  /**
+   * @return an all-white matrix of the given size
+   */
+  BitMatrix getBlackMatrix(int width, int height) {
+    if (matrix == null || matrix.getWidth() != width || matrix.getHeight() != height) {
+      matrix = new BitMatrix(width, height);
+    } else {
+      matrix.clear();
+    }
+    return matrix;
+  }
+
+  /**
+   * Copies the luminance of {@code source} row by row into a reused array, laid out the way
+   * {@link LuminanceSource#getMatrix()} lays it out.
+   */
+  byte[] getLuminances(LuminanceSource source) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    if (luminances == null || luminances.length < width * height) {
+      luminances = new byte[width * height];
+    }
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    for (int y = 0; y < height; y++) {
+      row = source.getRow(y, row);
+      System.arraycopy(row, 0, luminances, y * width, width);
+    }
+    return luminances;
+  }
+
+}
@@ -133,6 +133,86 @@ public final class BitArray implements Cloneable {
     return result > size ? size : result;
   }
 
+  /**
+   * @param from last bit to check, which must be less than size
+   * @return index of last bit that is set, at or before the given index, or -1 if none are set
+   * @see #getNextSet(int)
+   */
+  public int getPreviousSet(int from) {
+    if (from < 0) {
+      return -1;
+    }
+    int bitsOffset = from / 32;
+    int currentBits = bits[bitsOffset];
+    // mask off greater bits first
+    currentBits &= (2 << (from & 0x1F)) - 1;
+    while (currentBits == 0) {
+      if (--bitsOffset < 0) {
+        return -1;
+      }
+      currentBits = bits[bitsOffset];
+    }
+    return (bitsOffset * 32) + 31 - Integer.numberOfLeadingZeros(currentBits);
+  }
+
+  /**
+   * @param from last bit to check, which must be less than size
+   * @return index of last bit that is unset, at or before the given index, or -1 if none are unset
+   * @see #getNextUnset(int)
+   */
+  public int getPreviousUnset(int from) {
+    if (from < 0) {
+      return -1;
+    }
+    int bitsOffset = from / 32;
+    int currentBits = ~bits[bitsOffset];
+    // mask off greater bits first
+    currentBits &= (2 << (from & 0x1F)) - 1;
+    while (currentBits == 0) {
+      if (--bitsOffset < 0) {
+        return -1;
+      }
+      currentBits = ~bits[bitsOffset];
+    }
+    return (bitsOffset * 32) + 31 - Integer.numberOfLeadingZeros(currentBits);
+  }
+
+  /**
+   * Finds every bit that differs from the one before it, 32 bits at a time: these are where the
+   * runs of set and unset bits start. The bit before bit 0 counts as unset, so bit 0 is listed
+   * if it is set.
+   *
+   * @param transitions array to write the indices into, in increasing order
+   * @param offset position in transitions to start writing
+   * @return number of indices written, or -1 if they do not all fit
+   */
+  public int getTransitions(int[] transitions, int offset) {
+    int count = offset;
+    int max = transitions.length;
+    int carry = 0;
+    int numInts = (size + 31) / 32;
+    for (int i = 0; i < numInts; i++) {
+      int currentBits = bits[i];
+      // Bit j of the shifted value is bit j - 1 of the array
+      int changes = currentBits ^ ((currentBits << 1) | carry);
+      carry = currentBits >>> 31;
+      int firstBit = i * 32;
+      while (changes != 0) {
+        int transition = firstBit + Integer.numberOfTrailingZeros(changes);
+        if (transition >= size) {
+          // Only the last int holds bits beyond size
+          return count - offset;
+        }
+        if (count == max) {
+          return -1;
+        }
+        transitions[count++] = transition;
+        changes &= changes - 1; // clear the lowest one
+      }
+    }
+    return count - offset;
+  }
+
   /**
    * Sets a block of 32 bits, starting at bit i.
    *
@@ -288,35 +368,37 @@ public final class BitArray implements Cloneable {
   }
 
   /**
-   * Reverses all bits in the array.
+   * Reverses all bits in the array, in place.
    */
   public void reverse() {
-    int[] newBits = new int[bits.length];
-    // reverse all int's first
+    if (size == 0) {
+      return;
+    }
+    int[] bits = this.bits;
+    // reverse all int's first, swapping them from both ends
     int len = (size - 1) / 32;
     int oldBitsLen = len + 1;
-    for (int i = 0; i < oldBitsLen; i++) {
-      long x = bits[i];
-      x = ((x >>  1) & 0x55555555L) | ((x & 0x55555555L) <<  1);
-      x = ((x >>  2) & 0x33333333L) | ((x & 0x33333333L) <<  2);
-      x = ((x >>  4) & 0x0f0f0f0fL) | ((x & 0x0f0f0f0fL) <<  4);
-      x = ((x >>  8) & 0x00ff00ffL) | ((x & 0x00ff00ffL) <<  8);
-      x = ((x >> 16) & 0x0000ffffL) | ((x & 0x0000ffffL) << 16);
-      newBits[len - i] = (int) x;
+    for (int i = 0, j = len; i <= j; i++, j--) {
+      int x = Integer.reverse(bits[i]);
+      bits[i] = Integer.reverse(bits[j]);
+      bits[j] = x;
     }
     // now correct the int's if the bit size isn't a multiple of 32
     if (size != oldBitsLen * 32) {
       int leftOffset = oldBitsLen * 32 - size;
-      int currentInt = newBits[0] >>> leftOffset;
+      int currentInt = bits[0] >>> leftOffset;
       for (int i = 1; i < oldBitsLen; i++) {
-        int nextInt = newBits[i];
+        int nextInt = bits[i];
         currentInt |= nextInt << (32 - leftOffset);
-        newBits[i - 1] = currentInt;
+        bits[i - 1] = currentInt;
         currentInt = nextInt >>> leftOffset;
       }
-      newBits[oldBitsLen - 1] = currentInt;
+      bits[oldBitsLen - 1] = currentInt;
+    }
+    // ints past the last one hold no bits, as in a new array
+    for (int i = oldBitsLen; i < bits.length; i++) {
+      bits[i] = 0;
     }
-    bits = newBits;
   }
 
   private static int[] makeArray(int size) {
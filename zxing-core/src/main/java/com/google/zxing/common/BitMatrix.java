@@ -162,6 +162,13 @@ public final class BitMatrix implements Cloneable {
     return ((bits[offset] >>> (x & 0x1f)) & 1) != 0;
   }
 
+  /**
+   * Copies the bits of a matrix of the same size into this one.
+   */
+  void copyFrom(BitMatrix other) {
+    System.arraycopy(other.bits, 0, bits, 0, bits.length);
+  }
+
   /**
    * <p>Sets the given bit to true.</p>
    *
@@ -173,6 +180,18 @@ public final class BitMatrix implements Cloneable {
     bits[offset] |= 1 << (x & 0x1f);
   }
 
+  /**
+   * Sets the bits of a block of 32 bits in row y, starting at column x, that are set in
+   * {@code newBits}. The other bits keep their value.
+   *
+   * @param x first column, a multiple of 32
+   * @param y row
+   * @param newBits the bits to set; the least-significant bit corresponds to column x
+   */
+  void orBulk(int x, int y, int newBits) {
+    bits[y * rowSize + (x / 32)] |= newBits;
+  }
+
   public void unset(int x, int y) {
     int offset = y * rowSize + (x / 32);
     bits[offset] &= ~(1 << (x & 0x1f));
@@ -200,13 +219,10 @@ public final class BitMatrix implements Cloneable {
         || rowSize != mask.getRowSize()) {
       throw new IllegalArgumentException("input matrix dimensions do not match");
     }
-    BitArray rowArray = new BitArray(width);
-    for (int y = 0; y < height; y++) {
-      int offset = y * rowSize;
-      int[] row = mask.getRow(y, rowArray).getBitArray();
-      for (int x = 0; x < rowSize; x++) {
-        bits[offset + x] ^= row[x];
-      }
+    // Same row size, so the rows line up word for word
+    int[] maskBits = mask.bits;
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] ^= maskBits[i];
     }
   }
 
@@ -259,12 +275,11 @@ public final class BitMatrix implements Cloneable {
   public BitArray getRow(int y, BitArray row) {
     if (row == null || row.getSize() < width) {
       row = new BitArray(width);
-    } else {
-      row.clear();
     }
-    int offset = y * rowSize;
-    for (int x = 0; x < rowSize; x++) {
-      row.setBulk(x * 32, bits[offset + x]);
+    int[] rowBits = row.getBitArray();
+    System.arraycopy(bits, y * rowSize, rowBits, 0, rowSize);
+    for (int x = rowSize; x < rowBits.length; x++) {
+      rowBits[x] = 0;
     }
     return row;
   }
@@ -295,6 +310,76 @@ public final class BitMatrix implements Cloneable {
     }
   }
 
+  /**
+   * @return a new {@code BitMatrix} holding this one rotated by 90 degrees counterclockwise, the
+   *         way {@link com.google.zxing.parse.LuminanceSource#rotateCounterClockwise()} rotates
+   */
+  public BitMatrix rotateCounterClockwise() {
+    return rotate90(false);
+  }
+
+  /**
+   * @return a new {@code BitMatrix} holding this one rotated by 90 degrees clockwise
+   */
+  public BitMatrix rotateClockwise() {
+    return rotate90(true);
+  }
+
+  private BitMatrix rotate90(boolean clockwise) {
+    BitMatrix rotated = new BitMatrix(height, width);
+    rotate90(clockwise, rotated);
+    return rotated;
+  }
+
+  /**
+   * Rotates this matrix by 90 degrees into {@code rotated}, overwriting all of its bits, so that a
+   * matrix of an earlier frame can be reused. Transposes the matrix 32x32 bits at a time. Reading
+   * the rows bottom up first turns the transpose into a clockwise rotation; writing them bottom up,
+   * a counterclockwise one.
+   *
+   * @param rotated a matrix {@code height} wide and {@code width} high
+   */
+  void rotate90(boolean clockwise, BitMatrix rotated) {
+    int[] block = new int[32];
+    for (int top = 0, word = 0; top < height; top += 32, word++) {
+      for (int column = 0; column < rowSize; column++) {
+        int any = 0;
+        for (int i = 0; i < 32; i++) {
+          int y = top + i;
+          int bitsRow = y < height ? (clockwise ? height - 1 - y : y) : -1;
+          block[i] = bitsRow < 0 ? 0 : bits[bitsRow * rowSize + column];
+          any |= block[i];
+        }
+        if (any != 0) {
+          transpose32(block);
+        }
+        for (int j = 0; j < 32; j++) {
+          int x = column * 32 + j;
+          if (x >= width) {
+            break;
+          }
+          int rotatedRow = clockwise ? x : width - 1 - x;
+          rotated.bits[rotatedRow * rotated.rowSize + word] = block[j];
+        }
+      }
+    }
+  }
+
+  /**
+   * Transposes a 32x32 block in place, so that bit j of {@code block[i]} becomes bit i of
+   * {@code block[j]}, by swapping ever smaller off-diagonal sub-blocks.
+   */
+  private static void transpose32(int[] block) {
+    int mask = 0x0000FFFF;
+    for (int j = 16; j != 0; j >>>= 1, mask ^= mask << j) {
+      for (int k = 0; k < 32; k = ((k | j) + 1) & ~j) {
+        int t = ((block[k] >>> j) ^ block[k | j]) & mask;
+        block[k] ^= t << j;
+        block[k | j] ^= t;
+      }
+    }
+  }
+
   /**
    * This is useful in detecting the enclosing rectangle of a 'pure' barcode.
    *
@@ -50,6 +50,15 @@ public class GlobalHistogramBinarizer extends Binarizer {
   // Applies simple sharpening to the row data to improve performance of the 1D Readers.
   @Override
   public BitArray getBlackRow(int y, BitArray row) throws NotFoundException {
+    BitArray blackRow = tryGetBlackRow(y, row);
+    if (blackRow == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return blackRow;
+  }
+
+  @Override
+  public BitArray tryGetBlackRow(int y, BitArray row) {
     LuminanceSource source = getLuminanceSource();
     int width = source.getWidth();
     if (row == null || row.getSize() < width) {
@@ -65,6 +74,9 @@ public class GlobalHistogramBinarizer extends Binarizer {
       localBuckets[(localLuminances[x] & 0xff) >> LUMINANCE_SHIFT]++;
     }
     int blackPoint = estimateBlackPoint(localBuckets);
+    if (blackPoint < 0) {
+      return null;
+    }
 
     if (width < 3) {
       // Special case for very small images
@@ -111,6 +123,9 @@ public class GlobalHistogramBinarizer extends Binarizer {
       }
     }
     int blackPoint = estimateBlackPoint(localBuckets);
+    if (blackPoint < 0) {
+      throw NotFoundException.getNotFoundInstance();
+    }
 
     // We delay reading the entire image luminance until the black point estimation succeeds.
     // Although we end up reading four rows twice, it is consistent with our motto of
@@ -143,7 +158,10 @@ public class GlobalHistogramBinarizer extends Binarizer {
     }
   }
 
-  private static int estimateBlackPoint(int[] buckets) throws NotFoundException {
+  /**
+   * @return the black point, or -1 if there is too little contrast to pick one
+   */
+  private static int estimateBlackPoint(int[] buckets) {
     // Find the tallest peak in the histogram.
     int numBuckets = buckets.length;
     int maxBucketCount = 0;
@@ -179,10 +197,10 @@ public class GlobalHistogramBinarizer extends Binarizer {
       secondPeak = temp;
     }
 
-    // If there is too little contrast in the image to pick a meaningful black point, throw rather
+    // If there is too little contrast in the image to pick a meaningful black point, give up rather
     // than waste time trying to decode the image, and risk false positives.
     if (secondPeak - firstPeak <= numBuckets / 16) {
-      throw NotFoundException.getNotFoundInstance();
+      return -1;
     }
 
     // Find a valley between them that is low and closer to the white peak.
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2009 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.parse.Binarizer;
+import com.google.zxing.parse.LuminanceSource;
+import com.google.zxing.NotFoundException;
+
+/**
+ * This class implements a local thresholding algorithm, which while slower than the
+ * GlobalHistogramBinarizer, is fairly efficient for what it does. It is designed for
+ * high frequency images of barcodes with black data on white backgrounds. For this application,
+ * it does a much better job than a global blackpoint with severe shadows and gradients.
+ * However it tends to produce artifacts on lower frequency images and is therefore not
+ * a good general purpose binarizer for uses outside ZXing.
+ *
+ * This class extends GlobalHistogramBinarizer, using the older histogram approach for 1D readers,
+ * and the newer local approach for 2D readers. 1D decoding using a per-row histogram is already
+ * inherently local, and only fails for horizontal gradients. We can revisit that problem later,
+ * but for now it was not a win to use local blocks for 1D.
+ *
+ * This Binarizer is the default for the unit tests and the recommended class for library users.
+ *
+ * @author dswitkin@google.com (Daniel Switkin)
+ */
+public final class HybridBinarizer extends GlobalHistogramBinarizer {
+
+  // This class uses 5x5 blocks to compute local luminance, where each block is 8x8 pixels.
+  // So this is the smallest dimension in each axis we can accept.
+  static final int BLOCK_SIZE_POWER = 3;
+  static final int BLOCK_SIZE = 1 << BLOCK_SIZE_POWER; // ...0100...00
+  static final int BLOCK_SIZE_MASK = BLOCK_SIZE - 1;   // ...0011...11
+  static final int MINIMUM_DIMENSION = BLOCK_SIZE * 5;
+  private static final int MIN_DYNAMIC_RANGE = 24;
+
+  private final BinarizerContext context;
+  private BitMatrix matrix;
+
+  public HybridBinarizer(LuminanceSource source) {
+    this(source, null);
+  }
+
+  /**
+   * @param context scratch buffers to reuse instead of allocating new ones, or {@code null}. The
+   *                matrix returned by {@link #getBlackMatrix()} then belongs to the context and
+   *                is overwritten by the next binarizer using it.
+   */
+  public HybridBinarizer(LuminanceSource source, BinarizerContext context) {
+    super(source);
+    this.context = context;
+  }
+
+  /**
+   * Calculates the final BitMatrix once for all requests. This could be called once from the
+   * constructor instead, but there are some advantages to doing it lazily, such as making
+   * profiling easier, and not doing heavy lifting when callers don't expect it.
+   */
+  @Override
+  public BitMatrix getBlackMatrix() throws NotFoundException {
+    if (matrix != null) {
+      return matrix;
+    }
+    LuminanceSource source = getLuminanceSource();
+    int width = source.getWidth();
+    int height = source.getHeight();
+    if (width >= MINIMUM_DIMENSION && height >= MINIMUM_DIMENSION) {
+      // Read the pixels in place when the source allows it.
+      byte[] luminances = source.getDataArray();
+      int offset;
+      int stride;
+      if (luminances != null) {
+        offset = source.getDataOffset();
+        stride = source.getDataStride();
+      } else {
+        luminances = context != null ? context.getLuminances(source) : source.getMatrix();
+        offset = 0;
+        stride = width;
+      }
+      int subWidth = width >> BLOCK_SIZE_POWER;
+      if ((width & BLOCK_SIZE_MASK) != 0) {
+        subWidth++;
+      }
+      int subHeight = height >> BLOCK_SIZE_POWER;
+      if ((height & BLOCK_SIZE_MASK) != 0) {
+        subHeight++;
+      }
+      int[] blackPoints = context != null
+          ? context.getBlackPoints(subWidth * subHeight) : new int[subWidth * subHeight];
+      calculateBlackPoints(luminances, offset, stride, subWidth, 0, subHeight, width, height, blackPoints);
+      resolveLowContrastBlocks(subWidth, subHeight, blackPoints);
+
+      int[] scratch = context != null ? context.getBlockRow(2 * subWidth + 1) : new int[2 * subWidth + 1];
+      BitMatrix newMatrix = context != null ? context.getBlackMatrix(width, height) : new BitMatrix(width, height);
+      calculateThresholdForBlock(luminances, offset, stride, subWidth, subHeight, 0, subHeight, width, height,
+          blackPoints, scratch, newMatrix);
+      matrix = newMatrix;
+    } else {
+      // If the image is too small, fall back to the global histogram approach.
+      matrix = super.getBlackMatrix();
+    }
+    return matrix;
+  }
+
+  @Override
+  public Binarizer createBinarizer(LuminanceSource source) {
+    return new HybridBinarizer(source);
+  }
+
+  /**
+   * For each block in the image, calculate the average black point using a 5x5 grid
+   * of the blocks around it. Also handles the corner cases (fractional blocks are computed based
+   * on the last pixels in the row/column which are also used in the previous block).
+   * <p>
+   * The 5x5 sums come from prefix sums over the column sums of the five block rows in use, which
+   * only change when the grid moves down. Each row of blocks is then thresholded pixel row by pixel
+   * row, 32 pixels to a word of the matrix.
+   *
+   * @param fromY   first row of blocks to threshold
+   * @param toY     end of the rows of blocks to threshold, exclusive
+   * @param scratch at least {@code 2 * subWidth + 1} ints
+   */
+  static void calculateThresholdForBlock(byte[] luminances,
+                                         int offset,
+                                         int stride,
+                                         int subWidth,
+                                         int subHeight,
+                                         int fromY,
+                                         int toY,
+                                         int width,
+                                         int height,
+                                         int[] blackPoints,
+                                         int[] scratch,
+                                         BitMatrix matrix) {
+    int maxYOffset = height - BLOCK_SIZE;
+    // scratch[0, subWidth] holds the prefix sums, scratch[subWidth + 1, 2 * subWidth] the thresholds.
+    int thresholds = subWidth + 1;
+    int lastTop = -1;
+    for (int y = fromY; y < toY; y++) {
+      int yoffset = y << BLOCK_SIZE_POWER;
+      if (yoffset > maxYOffset) {
+        yoffset = maxYOffset;
+      }
+      int top = cap(y, subHeight - 3);
+      if (top != lastTop) {
+        int sum = 0;
+        scratch[0] = 0;
+        for (int x = 0, blackRow = (top - 2) * subWidth; x < subWidth; x++, blackRow++) {
+          sum += blackPoints[blackRow] + blackPoints[blackRow + subWidth] + blackPoints[blackRow + 2 * subWidth] +
+              blackPoints[blackRow + 3 * subWidth] + blackPoints[blackRow + 4 * subWidth];
+          scratch[x + 1] = sum;
+        }
+        lastTop = top;
+      }
+      for (int x = 0; x < subWidth; x++) {
+        int left = cap(x, subWidth - 3);
+        scratch[thresholds + x] = (scratch[left + 3] - scratch[left - 2]) / 25;
+      }
+      for (int yy = 0; yy < BLOCK_SIZE; yy++) {
+        thresholdRow(luminances, offset + (yoffset + yy) * stride, width, scratch, thresholds, yoffset + yy,
+            matrix);
+      }
+    }
+  }
+
+  private static int cap(int value, int max) {
+    return value < 2 ? 2 : value > max ? max : value;
+  }
+
+  /**
+   * Applies the thresholds of a row of blocks to one row of pixels. The block thresholds start at
+   * {@code thresholds[first]}; blocks start at multiples of {@link #BLOCK_SIZE}, except that the
+   * last one ends at the edge of the image and may overlap the one before it.
+   */
+  private static void thresholdRow(byte[] luminances,
+                                   int rowOffset,
+                                   int width,
+                                   int[] thresholds,
+                                   int first,
+                                   int y,
+                                   BitMatrix matrix) {
+    int fullBlocks = width >> BLOCK_SIZE_POWER;
+    for (int block = 0; block < fullBlocks;) {
+      int x = block << BLOCK_SIZE_POWER;
+      int word = 0;
+      for (int shift = 0; shift < 32 && block < fullBlocks; shift += BLOCK_SIZE, block++) {
+        int threshold = thresholds[first + block];
+        for (int i = 0, offset = rowOffset + (block << BLOCK_SIZE_POWER); i < BLOCK_SIZE; i++, offset++) {
+          // Comparison needs to be <= so that black == 0 pixels are black even if the threshold is 0:
+          // pixel - threshold - 1 is negative exactly then, so its sign bit is the pixel's bit.
+          word |= (((luminances[offset] & 0xFF) - threshold - 1) >>> 31) << (shift + i);
+        }
+      }
+      if (word != 0) {
+        matrix.orBulk(x, y, word);
+      }
+    }
+    if ((width & BLOCK_SIZE_MASK) != 0) {
+      int threshold = thresholds[first + fullBlocks];
+      for (int x = width - BLOCK_SIZE, offset = rowOffset + x; x < width; x++, offset++) {
+        if ((luminances[offset] & 0xFF) <= threshold) {
+          matrix.set(x, y);
+        }
+      }
+    }
+  }
+
+  /**
+   * Calculates a single black point for each block of pixels and saves it away, row-major in
+   * {@code blackPoints}. See the following thread for a discussion of this algorithm:
+   *  http://groups.google.com/group/zxing/browse_thread/thread/d06efa2c35a7ddc0
+   * <p>
+   * Blocks with too little contrast are estimated from their neighbors, which needs the black
+   * points of the blocks above them. They are stored as the complement of their minimum for
+   * {@link #resolveLowContrastBlocks(int, int, int[])}, so that rows of blocks can be calculated
+   * in any order.
+   *
+   * @param fromY first row of blocks to calculate
+   * @param toY   end of the rows of blocks to calculate, exclusive
+   */
+  static void calculateBlackPoints(byte[] luminances,
+                                   int dataOffset,
+                                   int stride,
+                                   int subWidth,
+                                   int fromY,
+                                   int toY,
+                                   int width,
+                                   int height,
+                                   int[] blackPoints) {
+    int maxYOffset = height - BLOCK_SIZE;
+    int maxXOffset = width - BLOCK_SIZE;
+    for (int y = fromY; y < toY; y++) {
+      int yoffset = y << BLOCK_SIZE_POWER;
+      if (yoffset > maxYOffset) {
+        yoffset = maxYOffset;
+      }
+      for (int x = 0; x < subWidth; x++) {
+        int xoffset = x << BLOCK_SIZE_POWER;
+        if (xoffset > maxXOffset) {
+          xoffset = maxXOffset;
+        }
+        int sum = 0;
+        int min = 0xFF;
+        int max = 0;
+        for (int yy = 0, offset = dataOffset + yoffset * stride + xoffset; yy < BLOCK_SIZE; yy++, offset += stride) {
+          for (int xx = 0; xx < BLOCK_SIZE; xx++) {
+            int pixel = luminances[offset + xx] & 0xFF;
+            sum += pixel;
+            // still looking for good contrast
+            if (pixel < min) {
+              min = pixel;
+            }
+            if (pixel > max) {
+              max = pixel;
+            }
+          }
+          // short-circuit min/max tests once dynamic range is met
+          if (max - min > MIN_DYNAMIC_RANGE) {
+            // finish the rest of the rows quickly
+            for (yy++, offset += stride; yy < BLOCK_SIZE; yy++, offset += stride) {
+              for (int xx = 0; xx < BLOCK_SIZE; xx++) {
+                sum += luminances[offset + xx] & 0xFF;
+              }
+            }
+          }
+        }
+
+        // The default estimate is the average of the values in the block.
+        int average = sum >> (BLOCK_SIZE_POWER * 2);
+        if (max - min <= MIN_DYNAMIC_RANGE) {
+          // Estimated from the neighbors once all blocks are known.
+          average = ~min;
+        }
+        blackPoints[y * subWidth + x] = average;
+      }
+    }
+  }
+
+  /**
+   * Replaces the complemented minimums {@link #calculateBlackPoints} leaves for blocks with too
+   * little contrast by their black points, in order, as each can depend on the one above it.
+   */
+  static void resolveLowContrastBlocks(int subWidth, int subHeight, int[] blackPoints) {
+    for (int y = 0; y < subHeight; y++) {
+      for (int x = 0; x < subWidth; x++) {
+        int min = ~blackPoints[y * subWidth + x];
+        if (min < 0) {
+          continue;
+        }
+        // If variation within the block is low, assume this is a block with only light or only
+        // dark pixels. In that case we do not want to use the average, as it would divide this
+        // low contrast area into black and white pixels, essentially creating data out of noise.
+        //
+        // The default assumption is that the block is light/background. Since no estimate for
+        // the level of dark pixels exists locally, use half the min for the block.
+        int average = min / 2;
+
+        if (y > 0 && x > 0) {
+          // Correct the "white background" assumption for blocks that have neighbors by comparing
+          // the pixels in this block to the previously calculated black points. This is based on
+          // the fact that dark barcode symbology is always surrounded by some amount of light
+          // background for which reasonable black point estimates were made. The bp estimated at
+          // the boundaries is used for the interior.
+
+          // The (min < bp) is arbitrary but works better than other heuristics that were tried.
+          int above = (y - 1) * subWidth + x;
+          int averageNeighborBlackPoint =
+              (blackPoints[above] + (2 * blackPoints[above + subWidth - 1]) + blackPoints[above - 1]) / 4;
+          if (min < averageNeighborBlackPoint) {
+            average = averageNeighborBlackPoint;
+          }
+        }
+        blackPoints[y * subWidth + x] = average;
+      }
+    }
+  }
+
+}
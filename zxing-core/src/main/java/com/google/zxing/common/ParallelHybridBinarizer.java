@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.parse.Binarizer;
+import com.google.zxing.parse.LuminanceSource;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A {@link HybridBinarizer} that splits the image into horizontal stripes of blocks and
+ * binarizes them on a fork/join pool. It produces exactly the same {@link BitMatrix} as
+ * {@link HybridBinarizer}; use it for large still images, such as photos, where binarization
+ * dominates the decode time. Preview frames are better served by decoding several of them at once.
+ * <p>
+ * The block black points of all stripes are calculated in parallel. The few blocks with too little
+ * contrast, which are estimated from the blocks above them, are then resolved in order before the
+ * stripes are thresholded in parallel.
+ */
+public final class ParallelHybridBinarizer extends GlobalHistogramBinarizer {
+
+  /**
+   * Rows of blocks per task; 128 pixel rows.
+   */
+  private static final int STRIPE_BLOCK_ROWS = 16;
+
+  private final ForkJoinPool pool;
+  private BitMatrix matrix;
+
+  /**
+   * Binarizes on the {@link SharedForkJoinPool}.
+   */
+  public ParallelHybridBinarizer(LuminanceSource source) {
+    this(source, SharedForkJoinPool.getDefault());
+  }
+
+  public ParallelHybridBinarizer(LuminanceSource source, ForkJoinPool pool) {
+    super(source);
+    this.pool = pool;
+  }
+
+  @Override
+  public BitMatrix getBlackMatrix() throws NotFoundException {
+    if (matrix != null) {
+      return matrix;
+    }
+    LuminanceSource source = getLuminanceSource();
+    int width = source.getWidth();
+    int height = source.getHeight();
+    if (width < HybridBinarizer.MINIMUM_DIMENSION || height < HybridBinarizer.MINIMUM_DIMENSION) {
+      // If the image is too small, fall back to the global histogram approach.
+      matrix = super.getBlackMatrix();
+      return matrix;
+    }
+    byte[] luminances = source.getDataArray();
+    int offset;
+    int stride;
+    if (luminances != null) {
+      offset = source.getDataOffset();
+      stride = source.getDataStride();
+    } else {
+      luminances = source.getMatrix();
+      offset = 0;
+      stride = width;
+    }
+    Stripes stripes = new Stripes(luminances, offset, stride, width, height);
+    if (stripes.subHeight < 2 * STRIPE_BLOCK_ROWS || pool.getParallelism() < 2) {
+      stripes.calculateBlackPoints(0, stripes.subHeight);
+      HybridBinarizer.resolveLowContrastBlocks(stripes.subWidth, stripes.subHeight, stripes.blackPoints);
+      stripes.calculateThresholdForBlock(0, stripes.subHeight);
+    } else {
+      SharedForkJoinPool.invoke(pool, new StripeTask(stripes, false, 0, stripes.subHeight));
+      HybridBinarizer.resolveLowContrastBlocks(stripes.subWidth, stripes.subHeight, stripes.blackPoints);
+      // A partial last row of blocks overlaps the pixel rows of the one above it, so it must not be
+      // thresholded at the same time.
+      int parallelRows = (height & HybridBinarizer.BLOCK_SIZE_MASK) != 0 ? stripes.subHeight - 1 : stripes.subHeight;
+      SharedForkJoinPool.invoke(pool, new StripeTask(stripes, true, 0, parallelRows));
+      stripes.calculateThresholdForBlock(parallelRows, stripes.subHeight);
+    }
+    matrix = stripes.matrix;
+    return matrix;
+  }
+
+  @Override
+  public Binarizer createBinarizer(LuminanceSource source) {
+    return new ParallelHybridBinarizer(source, pool);
+  }
+
+  /**
+   * The state the stripes of one image share. Stripes write disjoint black points and disjoint
+   * rows of the matrix.
+   */
+  private static final class Stripes {
+
+    final byte[] luminances;
+    final int offset;
+    final int stride;
+    final int width;
+    final int height;
+    final int subWidth;
+    final int subHeight;
+    final int[] blackPoints;
+    final BitMatrix matrix;
+
+    Stripes(byte[] luminances, int offset, int stride, int width, int height) {
+      this.luminances = luminances;
+      this.offset = offset;
+      this.stride = stride;
+      this.width = width;
+      this.height = height;
+      subWidth = (width + HybridBinarizer.BLOCK_SIZE_MASK) >> HybridBinarizer.BLOCK_SIZE_POWER;
+      subHeight = (height + HybridBinarizer.BLOCK_SIZE_MASK) >> HybridBinarizer.BLOCK_SIZE_POWER;
+      blackPoints = new int[subWidth * subHeight];
+      matrix = new BitMatrix(width, height);
+    }
+
+    void calculateBlackPoints(int fromY, int toY) {
+      HybridBinarizer.calculateBlackPoints(luminances, offset, stride, subWidth, fromY, toY, width, height,
+          blackPoints);
+    }
+
+    void calculateThresholdForBlock(int fromY, int toY) {
+      HybridBinarizer.calculateThresholdForBlock(luminances, offset, stride, subWidth, subHeight, fromY, toY,
+          width, height, blackPoints, new int[2 * subWidth + 1], matrix);
+    }
+  }
+
+  private static final class StripeTask extends RecursiveAction {
+
+    private final Stripes stripes;
+    private final boolean threshold;
+    private final int fromY;
+    private final int toY;
+
+    StripeTask(Stripes stripes, boolean threshold, int fromY, int toY) {
+      this.stripes = stripes;
+      this.threshold = threshold;
+      this.fromY = fromY;
+      this.toY = toY;
+    }
+
+    @Override
+    protected void compute() {
+      if (toY - fromY <= STRIPE_BLOCK_ROWS) {
+        if (threshold) {
+          stripes.calculateThresholdForBlock(fromY, toY);
+        } else {
+          stripes.calculateBlackPoints(fromY, toY);
+        }
+        return;
+      }
+      int middle = (fromY + toY) >>> 1;
+      invokeAll(new StripeTask(stripes, threshold, fromY, middle),
+          new StripeTask(stripes, threshold, middle, toY));
+    }
+  }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The fork/join pool that {@link ParallelHybridBinarizer}, the QR Code decoder and the multiple QR
+ * Code reader share unless they are given one, so that the process holds a single set of worker
+ * threads however many of them it uses.
+ */
+public final class SharedForkJoinPool {
+
+  private static ForkJoinPool defaultPool;
+
+  private SharedForkJoinPool() {
+  }
+
+  /**
+   * @return the shared pool, with one thread per processor, created on first use
+   */
+  public static synchronized ForkJoinPool getDefault() {
+    if (defaultPool == null) {
+      defaultPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+    return defaultPool;
+  }
+
+  /**
+   * Runs a task on {@code pool}, unless this is called from a task of a fork/join pool; the task
+   * then runs in that pool instead. A worker that waited for a task of another pool would be
+   * blocked, unable to help with its own pool's work meanwhile.
+   *
+   * @param pool the pool to run the task on from outside of any fork/join pool
+   * @param task the task to run
+   * @return the result of the task
+   */
+  public static <T> T invoke(ForkJoinPool pool, ForkJoinTask<T> task) {
+    if (ForkJoinTask.inForkJoinPool()) {
+      return task.invoke();
+    }
+    return pool.invoke(task);
+  }
+
+}
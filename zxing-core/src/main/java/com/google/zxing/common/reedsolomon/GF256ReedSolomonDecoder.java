@@ -0,0 +1,302 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common.reedsolomon;
+
+/**
+ * <p>Implements Reed-Solomon decoding over a field of 256 elements, like
+ * {@link ReedSolomonDecoder}, but on primitive arrays: codewords are corrected in place in the
+ * {@code byte[]} they were read into, and the syndromes, error locator and error evaluator live in
+ * scratch arrays that are reused from one call to the next. Nothing is allocated once the scratch
+ * arrays have grown to the largest number of error-correction codewords seen.</p>
+ *
+ * <p>The error locator is found with the Berlekamp-Massey algorithm instead of the Euclidean
+ * algorithm, its roots by Chien's search over the positions of the codewords only, and the error
+ * magnitudes with Forney's formula. A block whose syndromes are all zero is returned right after
+ * computing them, which is what most blocks of a well-read code are.</p>
+ *
+ * <p>Corrects the same codewords as {@link ReedSolomonDecoder}, and fails on the same ones.</p>
+ *
+ * <p>This class is not thread-safe. Each thread must allocate its own object.</p>
+ */
+public final class GF256ReedSolomonDecoder {
+
+  private static final int ORDER = 255;
+
+  /**
+   * Powers of the generator, twice over so that the sum of two logs needs no modulo.
+   */
+  private final int[] expTable = new int[2 * ORDER];
+  private final int[] logTable = new int[ORDER + 1];
+  private final int generatorBase;
+  private final ReedSolomonDecoder fallback;
+
+  private int[] syndromes = new int[0];
+  private int[] locator = new int[1];
+  private int[] previous = new int[1];
+  private int[] saved = new int[1];
+  private int[] evaluator = new int[0];
+  private int[] errorPositions = new int[0];
+
+  /**
+   * @param field a field of 256 elements, such as {@link GenericGF#QR_CODE_FIELD_256}
+   */
+  public GF256ReedSolomonDecoder(GenericGF field) {
+    if (field.getSize() != ORDER + 1) {
+      throw new IllegalArgumentException("Not a field of 256 elements: " + field);
+    }
+    for (int i = 0; i < ORDER; i++) {
+      expTable[i] = field.exp(i);
+      expTable[i + ORDER] = expTable[i];
+      logTable[expTable[i]] = i;
+    }
+    generatorBase = field.getGeneratorBase();
+    fallback = new ReedSolomonDecoder(field);
+  }
+
+  /**
+   * <p>Decodes given set of received codewords, which include both data and error-correction
+   * codewords. Really, this means it uses Reed-Solomon to detect and correct errors, in-place,
+   * in the input.</p>
+   *
+   * @param received data and error-correction codewords
+   * @param twoS number of error-correction codewords available
+   * @return the number of codewords corrected
+   * @throws ReedSolomonException if decoding fails for any reason
+   */
+  public int decode(byte[] received, int twoS) throws ReedSolomonException {
+    ensureCapacity(twoS);
+    if (!computeSyndromes(received, twoS)) {
+      return 0;
+    }
+    int numErrors = runBerlekampMassey(twoS);
+    if (numErrors < 0 || 2 * numErrors > twoS) {
+      return decodeBeyondCapacity(received, twoS);
+    }
+    findErrorPositions(received.length, numErrors);
+    computeEvaluator(numErrors);
+    for (int e = 0; e < numErrors; e++) {
+      int position = errorPositions[e];
+      received[received.length - 1 - position] ^= findErrorMagnitude(position, numErrors);
+    }
+    return numErrors;
+  }
+
+  private void ensureCapacity(int twoS) {
+    if (syndromes.length < twoS) {
+      syndromes = new int[twoS];
+      locator = new int[twoS + 1];
+      previous = new int[twoS + 1];
+      saved = new int[twoS + 1];
+      evaluator = new int[twoS];
+      errorPositions = new int[twoS];
+    }
+  }
+
+  /**
+   * Evaluates the received polynomial, whose first codeword is the coefficient of the highest
+   * power, at the roots of the generator polynomial.
+   *
+   * @return {@code false} if all syndromes are zero, meaning there is no error
+   */
+  private boolean computeSyndromes(byte[] received, int twoS) {
+    int[] expTable = this.expTable;
+    int[] logTable = this.logTable;
+    boolean error = false;
+    for (int i = 0; i < twoS; i++) {
+      int logPoint = i + generatorBase;
+      int value = 0;
+      for (byte codeword : received) {
+        // Horner's method: value = value * point + codeword
+        if (value != 0) {
+          value = expTable[logTable[value] + logPoint];
+        }
+        value ^= codeword & 0xFF;
+      }
+      syndromes[i] = value;
+      error |= value != 0;
+    }
+    return error;
+  }
+
+  /**
+   * Finds the shortest linear feedback shift register that generates the syndromes. Its
+   * connection polynomial, lowest power first in {@link #locator}, is the error locator: its
+   * roots are the inverses of the error locations.
+   *
+   * @return the number of errors, which is the degree of the error locator, or -1 if the degree
+   *         is lower than the length of the shift register
+   */
+  private int runBerlekampMassey(int twoS) {
+    int[] expTable = this.expTable;
+    int[] logTable = this.logTable;
+    int[] locator = this.locator;
+    int[] previous = this.previous;
+    int[] syndromes = this.syndromes;
+    for (int i = 0; i <= twoS; i++) {
+      locator[i] = 0;
+      previous[i] = 0;
+    }
+    locator[0] = 1;
+    previous[0] = 1;
+    int length = 0;
+    int shift = 1;
+    int previousDiscrepancy = 1;
+    for (int n = 0; n < twoS; n++) {
+      int discrepancy = syndromes[n];
+      for (int i = 1; i <= length; i++) {
+        if (locator[i] != 0 && syndromes[n - i] != 0) {
+          discrepancy ^= expTable[logTable[locator[i]] + logTable[syndromes[n - i]]];
+        }
+      }
+      if (discrepancy == 0) {
+        shift++;
+        continue;
+      }
+      // locator -= discrepancy / previousDiscrepancy * x^shift * previous
+      int logScale = logTable[discrepancy] + ORDER - logTable[previousDiscrepancy];
+      if (2 * length <= n) {
+        System.arraycopy(locator, 0, saved, 0, twoS + 1);
+        addScaled(locator, previous, logScale, shift, twoS);
+        length = n + 1 - length;
+        int[] swap = this.previous;
+        this.previous = saved;
+        saved = swap;
+        previous = this.previous;
+        previousDiscrepancy = discrepancy;
+        shift = 1;
+      } else {
+        addScaled(locator, previous, logScale, shift, twoS);
+        shift++;
+      }
+    }
+    int degree = twoS;
+    while (degree > 0 && locator[degree] == 0) {
+      degree--;
+    }
+    return degree == length ? length : -1;
+  }
+
+  /**
+   * More errors than twoS / 2 can be corrected only sometimes: the shortest shift register that
+   * generates the syndromes is then not unique, or not an error locator at all, and the Euclidean
+   * algorithm may find a different one than Berlekamp-Massey. Let {@link ReedSolomonDecoder}
+   * decide such blocks, so that both decoders always agree. Well-read codes never get here.
+   */
+  private int decodeBeyondCapacity(byte[] received, int twoS) throws ReedSolomonException {
+    int[] codewords = new int[received.length];
+    for (int i = 0; i < received.length; i++) {
+      codewords[i] = received[i] & 0xFF;
+    }
+    fallback.decode(codewords, twoS);
+    int corrected = 0;
+    for (int i = 0; i < received.length; i++) {
+      if (received[i] != (byte) codewords[i]) {
+        received[i] = (byte) codewords[i];
+        corrected++;
+      }
+    }
+    return corrected;
+  }
+
+  private void addScaled(int[] to, int[] from, int logScale, int shift, int twoS) {
+    for (int i = 0; i + shift <= twoS; i++) {
+      if (from[i] != 0) {
+        to[i + shift] ^= expTable[(logTable[from[i]] + logScale) % ORDER];
+      }
+    }
+  }
+
+  /**
+   * Chien's search: tries every position of a codeword, as a power of the generator, for a root
+   * of the error locator.
+   */
+  private void findErrorPositions(int numCodewords, int numErrors) throws ReedSolomonException {
+    int[] expTable = this.expTable;
+    int[] logTable = this.logTable;
+    int[] locator = this.locator;
+    int found = 0;
+    for (int position = 0; position < numCodewords && found < numErrors; position++) {
+      // The locator at the inverse of the position
+      int logInverse = position == 0 ? 0 : ORDER - position;
+      int value = locator[0];
+      for (int i = 1; i <= numErrors; i++) {
+        if (locator[i] != 0) {
+          value ^= expTable[(logTable[locator[i]] + i * logInverse) % ORDER];
+        }
+      }
+      if (value == 0) {
+        errorPositions[found++] = position;
+      }
+    }
+    if (found != numErrors) {
+      // Some roots are not powers of the generator, or point past the received codewords.
+      throw new ReedSolomonException("Error locator degree does not match number of roots");
+    }
+  }
+
+  /**
+   * The error evaluator is the product of the syndrome polynomial and the error locator, modulo
+   * x^twoS. Only its terms below x^numErrors can be nonzero.
+   */
+  private void computeEvaluator(int numErrors) {
+    int[] expTable = this.expTable;
+    int[] logTable = this.logTable;
+    for (int i = 0; i < numErrors; i++) {
+      int value = 0;
+      for (int j = 0; j <= Math.min(i, numErrors); j++) {
+        int a = syndromes[i - j];
+        int b = locator[j];
+        if (a != 0 && b != 0) {
+          value ^= expTable[logTable[a] + logTable[b]];
+        }
+      }
+      evaluator[i] = value;
+    }
+  }
+
+  /**
+   * Forney's formula: the error at location X is X^(1 - b) * evaluator(1/X) / locator'(1/X),
+   * where b is the generator base.
+   */
+  private int findErrorMagnitude(int position, int numErrors) throws ReedSolomonException {
+    int[] expTable = this.expTable;
+    int[] logTable = this.logTable;
+    int logInverse = position == 0 ? 0 : ORDER - position;
+    int numerator = 0;
+    for (int i = 0; i < numErrors; i++) {
+      if (evaluator[i] != 0) {
+        numerator ^= expTable[(logTable[evaluator[i]] + i * logInverse) % ORDER];
+      }
+    }
+    // The formal derivative only keeps the odd powers, each lowered by one.
+    int denominator = 0;
+    for (int i = 1; i <= numErrors; i += 2) {
+      if (locator[i] != 0) {
+        denominator ^= expTable[(logTable[locator[i]] + (i - 1) * logInverse) % ORDER];
+      }
+    }
+    if (denominator == 0) {
+      throw new ReedSolomonException("Error locator has a repeated root");
+    }
+    if (numerator == 0) {
+      return 0;
+    }
+    int logMagnitude = logTable[numerator] + ORDER - logTable[denominator] + (1 - generatorBase) * position;
+    return expTable[logMagnitude % ORDER];
+  }
+
+}
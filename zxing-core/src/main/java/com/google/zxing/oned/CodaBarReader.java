@@ -17,14 +17,10 @@
 package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
-import com.google.zxing.parse.DecodeHintType;
-import com.google.zxing.NotFoundException;
+import com.google.zxing.parse.DecodeConfig;
 import com.google.zxing.parse.Result;
 import com.google.zxing.parse.ResultPoint;
-import com.google.zxing.common.BitArray;
 
-import java.util.Arrays;
-import java.util.Map;
 
 /**
  * <p>Decodes Codabar barcodes.</p>
@@ -77,18 +73,22 @@ public final class CodaBarReader extends OneDReader {
   }
 
   @Override
-  public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints) throws NotFoundException {
+  public Result tryDecodeRow(int rowNumber, RunLengthRow row, DecodeConfig config) {
 
-    Arrays.fill(counters, 0);
-    setCounters(row);
+    if (!setCounters(row)) {
+      return null;
+    }
     int startOffset = findStartPattern();
+    if (startOffset < 0) {
+      return null;
+    }
     int nextStart = startOffset;
 
     decodeRowResult.setLength(0);
     do {
       int charOffset = toNarrowWidePattern(nextStart);
       if (charOffset == -1) {
-        throw NotFoundException.getNotFoundInstance();
+        return null;
       }
       // Hack: We store the position in the alphabet table into a
       // StringBuilder, so that we can access the decoded patterns in
@@ -113,10 +113,12 @@ public final class CodaBarReader extends OneDReader {
     // otherwise this is probably a false positive. The exception is if we are
     // at the end of the row. (I.e. the barcode barely fits.)
     if (nextStart < counterLength && trailingWhitespace < lastPatternSize / 2) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
-    validatePattern(startOffset);
+    if (!validatePattern(startOffset)) {
+      return null;
+    }
 
     // Translate character table offsets to actual characters.
     for (int i = 0; i < decodeRowResult.length(); i++) {
@@ -125,20 +127,20 @@ public final class CodaBarReader extends OneDReader {
     // Ensure a valid start and end character
     char startchar = decodeRowResult.charAt(0);
     if (!arrayContains(STARTEND_ENCODING, startchar)) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
     char endchar = decodeRowResult.charAt(decodeRowResult.length() - 1);
     if (!arrayContains(STARTEND_ENCODING, endchar)) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     // remove stop/start characters character and check if a long enough string is contained
     if (decodeRowResult.length() <= MIN_CHARACTER_LENGTH) {
       // Almost surely a false positive ( start + stop + at least 1 character)
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
-    if (hints == null || !hints.containsKey(DecodeHintType.RETURN_CODABAR_START_END)) {
+    if (!config.isReturnCodabarStartEnd()) {
       decodeRowResult.deleteCharAt(decodeRowResult.length() - 1);
       decodeRowResult.deleteCharAt(0);
     }
@@ -161,7 +163,7 @@ public final class CodaBarReader extends OneDReader {
         BarcodeFormat.CODABAR);
   }
 
-  private void validatePattern(int start) throws NotFoundException {
+  private boolean validatePattern(int start) {
     // First, sum up the total size of our four categories of stripe sizes;
     int[] sizes = {0, 0, 0, 0};
     int[] counts = {0, 0, 0, 0};
@@ -210,7 +212,7 @@ public final class CodaBarReader extends OneDReader {
         int category = (j & 1) + (pattern & 1) * 2;
         int size = counters[pos + j];
         if (size < mins[category] || size > maxes[category]) {
-          throw NotFoundException.getNotFoundInstance();
+          return false;
         }
         pattern >>= 1;
       }
@@ -219,48 +221,32 @@ public final class CodaBarReader extends OneDReader {
       }
       pos += 8;
     }
+    return true;
   }
 
   /**
-   * Records the size of all runs of white and black pixels, starting with white.
+   * Records the size of all runs of white and black pixels, starting with the first white one.
    * This is just like recordPattern, except it records all the counters, and
    * uses our builtin "counters" member for storage.
-   * @param row row to count from
+   * @param row runs of the row to count from
+   * @return false if the row has no white pixel
    */
-  private void setCounters(BitArray row) throws NotFoundException {
-    counterLength = 0;
-    // Start from the first white bit.
-    int i = row.getNextUnset(0);
-    int end = row.getSize();
-    if (i >= end) {
-      throw NotFoundException.getNotFoundInstance();
-    }
-    boolean isWhite = true;
-    int count = 0;
-    while (i < end) {
-      if (row.get(i) != isWhite) {
-        count++;
-      } else {
-        counterAppend(count);
-        count = 1;
-        isWhite = !isWhite;
-      }
-      i++;
+  private boolean setCounters(RunLengthRow row) {
+    int numRuns = row.getNumRuns();
+    // Start from the first white bit: skip the leading black run, if any.
+    int firstWhite = row.getRuns()[0] == 0 ? 2 : 0;
+    if (firstWhite >= numRuns) {
+      return false;
     }
-    counterAppend(count);
-  }
-
-  private void counterAppend(int e) {
-    counters[counterLength] = e;
-    counterLength++;
+    counterLength = numRuns - firstWhite;
     if (counterLength >= counters.length) {
-      int[] temp = new int[counterLength * 2];
-      System.arraycopy(counters, 0, temp, 0, counterLength);
-      counters = temp;
+      counters = new int[counterLength * 2];
     }
+    System.arraycopy(row.getRuns(), firstWhite, counters, 0, counterLength);
+    return true;
   }
 
-  private int findStartPattern() throws NotFoundException {
+  private int findStartPattern() {
     for (int i = 1; i < counterLength; i += 2) {
       int charOffset = toNarrowWidePattern(i);
       if (charOffset != -1 && arrayContains(STARTEND_ENCODING, ALPHABET[charOffset])) {
@@ -275,7 +261,36 @@ public final class CodaBarReader extends OneDReader {
         }
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return -1;
+  }
+
+  @Override
+  protected int findStartGuardDirections(RunLengthRow row) {
+    int numRuns = row.getNumRuns();
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
+    // Like findStartPattern() on the counters, which start with the first white run. A window
+    // reads right to left as the reverse of its pattern, and its whitespace is after it; the
+    // exception is the last black run before the last white one.
+    int first = runs[0] == 0 ? 3 : 1;
+    int directions = 0;
+    for (int run = first; run + 7 < numRuns && directions != BOTH_DIRECTIONS; run += 2) {
+      int pattern = toPattern(runs, run);
+      int halfWidth = (runStarts[run + 7] - runStarts[run]) / 2;
+      if (isStartEnd(pattern) && (run == first || runs[run - 1] >= halfWidth)) {
+        directions |= LEFT_TO_RIGHT;
+      }
+      int end = run + 6;
+      if (isStartEnd(Integer.reverse(pattern) >>> 25) && (end + 3 >= numRuns || runs[end + 1] >= halfWidth)) {
+        directions |= RIGHT_TO_LEFT;
+      }
+    }
+    return directions;
+  }
+
+  private static boolean isStartEnd(int pattern) {
+    int charOffset = toCharOffset(pattern);
+    return charOffset != -1 && arrayContains(STARTEND_ENCODING, ALPHABET[charOffset]);
   }
 
   static boolean arrayContains(char[] array, char key) {
@@ -291,12 +306,15 @@ public final class CodaBarReader extends OneDReader {
 
   // Assumes that counters[position] is a bar.
   private int toNarrowWidePattern(int position) {
-    int end = position + 7;
-    if (end >= counterLength) {
+    if (position + 7 >= counterLength) {
       return -1;
     }
+    return toCharOffset(toPattern(counters, position));
+  }
 
-    int[] theCounters = counters;
+  // The 7 wide and narrow elements from theCounters[position], a bar, as a pattern.
+  private static int toPattern(int[] theCounters, int position) {
+    int end = position + 7;
 
     int maxBar = 0;
     int minBar = Integer.MAX_VALUE;
@@ -333,7 +351,10 @@ public final class CodaBarReader extends OneDReader {
         pattern |= bitmask;
       }
     }
+    return pattern;
+  }
 
+  private static int toCharOffset(int pattern) {
     for (int i = 0; i < CHARACTER_ENCODINGS.length; i++) {
       if (CHARACTER_ENCODINGS[i] == pattern) {
         return i;
@@ -18,16 +18,13 @@ package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
 import com.google.zxing.ChecksumException;
-import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.parse.DecodeConfig;
 import com.google.zxing.FormatException;
-import com.google.zxing.NotFoundException;
 import com.google.zxing.parse.Result;
 import com.google.zxing.parse.ResultPoint;
-import com.google.zxing.common.BitArray;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * <p>Decodes Code 128 barcodes.</p>
@@ -166,54 +163,88 @@ public final class Code128Reader extends OneDReader {
   private static final int CODE_START_C = 105;
   private static final int CODE_STOP = 106;
 
-  private static int[] findStartPattern(BitArray row) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
+  @Override
+  protected int findStartGuardDirections(RunLengthRow row) {
+    int numRuns = row.getNumRuns();
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
+    int[] counters = new int[6];
+    int patternLength = counters.length;
+    int directions = 0;
+
+    // Read right to left, a window ends on a black run rather than starting on one, needs a
+    // black run before it, and its whitespace is after it
+    for (int run = 1; run < numRuns && directions != BOTH_DIRECTIONS; run += 2) {
+      if ((directions & LEFT_TO_RIGHT) == 0 && run + patternLength < numRuns) {
+        System.arraycopy(runs, run, counters, 0, patternLength);
+        int patternStart = runStarts[run];
+        int patternEnd = runStarts[run + patternLength];
+        if (isStartPattern(counters) &&
+            (run == 1 || runs[run - 1] >= (patternEnd - patternStart) / 2)) {
+          directions |= LEFT_TO_RIGHT;
+        }
+      }
+      if ((directions & RIGHT_TO_LEFT) == 0 && run > patternLength) {
+        for (int i = 0; i < patternLength; i++) {
+          counters[i] = runs[run - i];
+        }
+        int patternStart = runStarts[run + 1 - patternLength];
+        int patternEnd = runStarts[run + 1];
+        if (isStartPattern(counters) && isQuietAfter(row, run, (patternEnd - patternStart) / 2)) {
+          directions |= RIGHT_TO_LEFT;
+        }
+      }
+    }
+    return directions;
+  }
 
-    int counterPosition = 0;
+  private static boolean isStartPattern(int[] counters) {
+    for (int startCode = CODE_START_A; startCode <= CODE_START_C; startCode++) {
+      if (patternMatchVariance(counters, CODE_PATTERNS[startCode], MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int[] findStartPattern(RunLengthRow row) {
+    int numRuns = row.getNumRuns();
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
     int[] counters = new int[6];
-    int patternStart = rowOffset;
-    boolean isWhite = false;
     int patternLength = counters.length;
 
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) != isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          float bestVariance = MAX_AVG_VARIANCE;
-          int bestMatch = -1;
-          for (int startCode = CODE_START_A; startCode <= CODE_START_C; startCode++) {
-            float variance = patternMatchVariance(counters, CODE_PATTERNS[startCode],
-                MAX_INDIVIDUAL_VARIANCE);
-            if (variance < bestVariance) {
-              bestVariance = variance;
-              bestMatch = startCode;
-            }
-          }
-          // Look for whitespace before start pattern, >= 50% of width of start pattern
-          if (bestMatch >= 0 &&
-              row.isRange(Math.max(0, patternStart - (i - patternStart) / 2), patternStart, false)) {
-            return new int[]{patternStart, i, bestMatch};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, counterPosition - 1);
-          counters[counterPosition - 1] = 0;
-          counters[counterPosition] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
+    // Windows start on a black run, and their last run must end before the row does
+    for (int run = 1; run + patternLength < numRuns; run += 2) {
+      System.arraycopy(runs, run, counters, 0, patternLength);
+      float bestVariance = MAX_AVG_VARIANCE;
+      int bestMatch = -1;
+      for (int startCode = CODE_START_A; startCode <= CODE_START_C; startCode++) {
+        float variance = patternMatchVariance(counters, CODE_PATTERNS[startCode],
+            MAX_INDIVIDUAL_VARIANCE);
+        if (variance < bestVariance) {
+          bestVariance = variance;
+          bestMatch = startCode;
         }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
+      }
+      int patternStart = runStarts[run];
+      int patternEnd = runStarts[run + patternLength];
+      // Look for whitespace before start pattern, >= 50% of width of start pattern
+      if (bestMatch >= 0 &&
+          row.getRow().isRange(Math.max(0, patternStart - (patternEnd - patternStart) / 2), patternStart, false)) {
+        return new int[]{patternStart, patternEnd, bestMatch};
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return null;
   }
 
-  private static int decodeCode(BitArray row, int[] counters, int rowOffset)
-      throws NotFoundException {
-    recordPattern(row, rowOffset, counters);
+  /**
+   * @return the code read at {@code rowOffset}, or -1 if there is none
+   */
+  private static int decodeCode(RunLengthRow row, int[] counters, int rowOffset) {
+    if (!recordPattern(row, rowOffset, counters)) {
+      return -1;
+    }
     float bestVariance = MAX_AVG_VARIANCE; // worst variance we'll accept
     int bestMatch = -1;
     for (int d = 0; d < CODE_PATTERNS.length; d++) {
@@ -224,20 +255,19 @@ public final class Code128Reader extends OneDReader {
         bestMatch = d;
       }
     }
-    if (bestMatch >= 0) {
-      return bestMatch;
-    } else {
-      throw NotFoundException.getNotFoundInstance();
-    }
+    return bestMatch;
   }
 
   @Override
-  public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
-      throws NotFoundException, FormatException, ChecksumException {
+  public Result tryDecodeRow(int rowNumber, RunLengthRow row, DecodeConfig config)
+      throws FormatException, ChecksumException {
 
-    boolean convertFNC1 = hints != null && hints.containsKey(DecodeHintType.ASSUME_GS1);
+    boolean convertFNC1 = config.isAssumeGS1();
 
     int[] startPatternInfo = findStartPattern(row);
+    if (startPatternInfo == null) {
+      return null;
+    }
     int startCode = startPatternInfo[2];
 
     List<Byte> rawCodes = new ArrayList<>(20);
@@ -285,6 +315,9 @@ public final class Code128Reader extends OneDReader {
 
       // Decode another code from image
       code = decodeCode(row, counters, nextStart);
+      if (code < 0) {
+        return null;
+      }
 
       rawCodes.add((byte) code);
 
@@ -485,11 +518,11 @@ public final class Code128Reader extends OneDReader {
     // Check for ample whitespace following pattern, but, to do this we first need to remember that
     // we fudged decoding CODE_STOP since it actually has 7 bars, not 6. There is a black bar left
     // to read off. Would be slightly better to properly read. Here we just skip it:
-    nextStart = row.getNextUnset(nextStart);
-    if (!row.isRange(nextStart,
+    nextStart = row.getRow().getNextUnset(nextStart);
+    if (!row.getRow().isRange(nextStart,
                      Math.min(row.getSize(), nextStart + (nextStart - lastStart) / 2),
                      false)) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     // Pull out from sum the value of the penultimate check code
@@ -503,7 +536,7 @@ public final class Code128Reader extends OneDReader {
     int resultLength = result.length();
     if (resultLength == 0) {
       // false positive
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     // Only bother if the result had at least one character, and if the checksum digit happened to
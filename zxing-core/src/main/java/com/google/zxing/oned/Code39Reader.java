@@ -18,15 +18,12 @@ package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
 import com.google.zxing.ChecksumException;
-import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.parse.DecodeConfig;
 import com.google.zxing.FormatException;
-import com.google.zxing.NotFoundException;
 import com.google.zxing.parse.Result;
 import com.google.zxing.parse.ResultPoint;
-import com.google.zxing.common.BitArray;
 
 import java.util.Arrays;
-import java.util.Map;
 
 /**
  * <p>Decodes Code 39 barcodes. Supports "Full ASCII Code 39" if USE_CODE_39_EXTENDED_MODE is set.</p>
@@ -52,6 +49,8 @@ public final class Code39Reader extends OneDReader {
   };
 
   static final int ASTERISK_ENCODING = 0x094;
+  // The asterisk read right to left: its 9 elements, so the bits of its pattern, come in reverse
+  private static final int REVERSED_ASTERISK_ENCODING = Integer.reverse(ASTERISK_ENCODING) >>> 23;
 
   private final boolean usingCheckDigit;
   private final boolean extendedMode;
@@ -95,8 +94,8 @@ public final class Code39Reader extends OneDReader {
   }
 
   @Override
-  public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
-      throws NotFoundException, ChecksumException, FormatException {
+  public Result tryDecodeRow(int rowNumber, RunLengthRow row, DecodeConfig config)
+      throws ChecksumException, FormatException {
 
     int[] theCounters = counters;
     Arrays.fill(theCounters, 0);
@@ -104,26 +103,34 @@ public final class Code39Reader extends OneDReader {
     result.setLength(0);
 
     int[] start = findAsteriskPattern(row, theCounters);
+    if (start == null) {
+      return null;
+    }
     // Read off white space
-    int nextStart = row.getNextSet(start[1]);
+    int nextStart = row.getRow().getNextSet(start[1]);
     int end = row.getSize();
 
     char decodedChar;
     int lastStart;
     do {
-      recordPattern(row, nextStart, theCounters);
+      if (!recordPattern(row, nextStart, theCounters)) {
+        return null;
+      }
       int pattern = toNarrowWidePattern(theCounters);
       if (pattern < 0) {
-        throw NotFoundException.getNotFoundInstance();
+        return null;
       }
       decodedChar = patternToChar(pattern);
+      if (decodedChar == 0) {
+        return null;
+      }
       result.append(decodedChar);
       lastStart = nextStart;
       for (int counter : theCounters) {
         nextStart += counter;
       }
       // Read off white space
-      nextStart = row.getNextSet(nextStart);
+      nextStart = row.getRow().getNextSet(nextStart);
     } while (decodedChar != '*');
     result.setLength(result.length() - 1); // remove asterisk
 
@@ -136,7 +143,7 @@ public final class Code39Reader extends OneDReader {
     // If 50% of last pattern size, following last pattern, is not whitespace, fail
     // (but if it's whitespace to the very end of the image, that's OK)
     if (nextStart != end && (whiteSpaceAfterEnd * 2) < lastPatternSize) {
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     if (usingCheckDigit) {
@@ -153,7 +160,7 @@ public final class Code39Reader extends OneDReader {
 
     if (result.length() == 0) {
       // false positive
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     String resultString;
@@ -175,38 +182,50 @@ public final class Code39Reader extends OneDReader {
 
   }
 
-  private static int[] findAsteriskPattern(BitArray row, int[] counters) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
+  @Override
+  protected int findStartGuardDirections(RunLengthRow row) {
+    int numRuns = row.getNumRuns();
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
+    int[] theCounters = counters;
+    int patternLength = theCounters.length;
+    int directions = 0;
 
-    int counterPosition = 0;
-    int patternStart = rowOffset;
-    boolean isWhite = false;
+    // A window reads right to left as the reverse of its pattern. Read that way, it needs a run
+    // before it rather than after it, and its whitespace is after it.
+    for (int run = 1; run + patternLength <= numRuns && directions != BOTH_DIRECTIONS; run += 2) {
+      System.arraycopy(runs, run, theCounters, 0, patternLength);
+      int pattern = toNarrowWidePattern(theCounters);
+      int end = run + patternLength;
+      int halfWidth = (runStarts[end] - runStarts[run]) / 2;
+      if (pattern == ASTERISK_ENCODING && end < numRuns && (run == 1 || runs[run - 1] >= halfWidth)) {
+        directions |= LEFT_TO_RIGHT;
+      } else if (pattern == REVERSED_ASTERISK_ENCODING && (run > 1 || runs[0] > 0) &&
+          isQuietAfter(row, end - 1, halfWidth)) {
+        directions |= RIGHT_TO_LEFT;
+      }
+    }
+    return directions;
+  }
+
+  private static int[] findAsteriskPattern(RunLengthRow row, int[] counters) {
+    int numRuns = row.getNumRuns();
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
     int patternLength = counters.length;
 
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) != isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          // Look for whitespace before start pattern, >= 50% of width of start pattern
-          if (toNarrowWidePattern(counters) == ASTERISK_ENCODING &&
-              row.isRange(Math.max(0, patternStart - ((i - patternStart) / 2)), patternStart, false)) {
-            return new int[]{patternStart, i};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, counterPosition - 1);
-          counters[counterPosition - 1] = 0;
-          counters[counterPosition] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
-        }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
+    // Windows start on a black run, and their last run must end before the row does
+    for (int run = 1; run + patternLength < numRuns; run += 2) {
+      System.arraycopy(runs, run, counters, 0, patternLength);
+      int patternStart = runStarts[run];
+      int patternEnd = runStarts[run + patternLength];
+      // Look for whitespace before start pattern, >= 50% of width of start pattern
+      if (toNarrowWidePattern(counters) == ASTERISK_ENCODING &&
+          row.getRow().isRange(Math.max(0, patternStart - ((patternEnd - patternStart) / 2)), patternStart, false)) {
+        return new int[]{patternStart, patternEnd};
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return null;
   }
 
   // For efficiency, returns -1 on failure. Not throwing here saved as many as 700 exceptions
@@ -254,7 +273,8 @@ public final class Code39Reader extends OneDReader {
     return -1;
   }
 
-  private static char patternToChar(int pattern) throws NotFoundException {
+  // Like toNarrowWidePattern, returns 0 on failure rather than throwing.
+  private static char patternToChar(int pattern) {
     for (int i = 0; i < CHARACTER_ENCODINGS.length; i++) {
       if (CHARACTER_ENCODINGS[i] == pattern) {
         return ALPHABET_STRING.charAt(i);
@@ -263,7 +283,7 @@ public final class Code39Reader extends OneDReader {
     if (pattern == ASTERISK_ENCODING) {
       return '*';
     }
-    throw NotFoundException.getNotFoundInstance();
+    return 0;
   }
 
   private static String decodeExtended(CharSequence encoded) throws FormatException {
@@ -18,15 +18,12 @@ package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
 import com.google.zxing.ChecksumException;
-import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.parse.DecodeConfig;
 import com.google.zxing.FormatException;
-import com.google.zxing.NotFoundException;
 import com.google.zxing.parse.Result;
 import com.google.zxing.parse.ResultPoint;
-import com.google.zxing.common.BitArray;
 
 import java.util.Arrays;
-import java.util.Map;
 
 /**
  * <p>Decodes Code 93 barcodes.</p>
@@ -63,12 +60,15 @@ public final class Code93Reader extends OneDReader {
   }
 
   @Override
-  public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
-      throws NotFoundException, ChecksumException, FormatException {
+  public Result tryDecodeRow(int rowNumber, RunLengthRow row, DecodeConfig config)
+      throws ChecksumException, FormatException {
 
     int[] start = findAsteriskPattern(row);
+    if (start == null) {
+      return null;
+    }
     // Read off white space
-    int nextStart = row.getNextSet(start[1]);
+    int nextStart = row.getRow().getNextSet(start[1]);
     int end = row.getSize();
 
     int[] theCounters = counters;
@@ -79,19 +79,24 @@ public final class Code93Reader extends OneDReader {
     char decodedChar;
     int lastStart;
     do {
-      recordPattern(row, nextStart, theCounters);
+      if (!recordPattern(row, nextStart, theCounters)) {
+        return null;
+      }
       int pattern = toPattern(theCounters);
       if (pattern < 0) {
-        throw NotFoundException.getNotFoundInstance();
+        return null;
       }
       decodedChar = patternToChar(pattern);
+      if (decodedChar == 0) {
+        return null;
+      }
       result.append(decodedChar);
       lastStart = nextStart;
       for (int counter : theCounters) {
         nextStart += counter;
       }
       // Read off white space
-      nextStart = row.getNextSet(nextStart);
+      nextStart = row.getRow().getNextSet(nextStart);
     } while (decodedChar != '*');
     result.deleteCharAt(result.length() - 1); // remove asterisk
 
@@ -101,13 +106,13 @@ public final class Code93Reader extends OneDReader {
     }
 
     // Should be at least one more black module
-    if (nextStart == end || !row.get(nextStart)) {
-      throw NotFoundException.getNotFoundInstance();
+    if (nextStart == end || !row.getRow().get(nextStart)) {
+      return null;
     }
 
     if (result.length() < 2) {
       // false positive -- need at least 2 checksum digits
-      throw NotFoundException.getNotFoundInstance();
+      return null;
     }
 
     checkChecksums(result);
@@ -128,38 +133,50 @@ public final class Code93Reader extends OneDReader {
 
   }
 
-  private int[] findAsteriskPattern(BitArray row) throws NotFoundException {
-    int width = row.getSize();
-    int rowOffset = row.getNextSet(0);
-
-    Arrays.fill(counters, 0);
+  @Override
+  protected int findStartGuardDirections(RunLengthRow row) {
+    int numRuns = row.getNumRuns();
+    int[] runs = row.getRuns();
     int[] theCounters = counters;
-    int patternStart = rowOffset;
-    boolean isWhite = false;
     int patternLength = theCounters.length;
+    int directions = 0;
 
-    int counterPosition = 0;
-    for (int i = rowOffset; i < width; i++) {
-      if (row.get(i) != isWhite) {
-        theCounters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          if (toPattern(theCounters) == ASTERISK_ENCODING) {
-            return new int[]{patternStart, i};
-          }
-          patternStart += theCounters[0] + theCounters[1];
-          System.arraycopy(theCounters, 2, theCounters, 0, counterPosition - 1);
-          theCounters[counterPosition - 1] = 0;
-          theCounters[counterPosition] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
+    // Read right to left, a window ends on a black run rather than starting on one, and needs
+    // a black run before it
+    for (int run = 1; run < numRuns && directions != BOTH_DIRECTIONS; run += 2) {
+      if ((directions & LEFT_TO_RIGHT) == 0 && run + patternLength < numRuns) {
+        System.arraycopy(runs, run, theCounters, 0, patternLength);
+        if (toPattern(theCounters) == ASTERISK_ENCODING) {
+          directions |= LEFT_TO_RIGHT;
+        }
+      }
+      if ((directions & RIGHT_TO_LEFT) == 0 && run > patternLength) {
+        for (int i = 0; i < patternLength; i++) {
+          theCounters[i] = runs[run - i];
         }
-        theCounters[counterPosition] = 1;
-        isWhite = !isWhite;
+        if (toPattern(theCounters) == ASTERISK_ENCODING) {
+          directions |= RIGHT_TO_LEFT;
+        }
+      }
+    }
+    return directions;
+  }
+
+  private int[] findAsteriskPattern(RunLengthRow row) {
+    int numRuns = row.getNumRuns();
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
+    int[] theCounters = counters;
+    int patternLength = theCounters.length;
+
+    // Windows start on a black run, and their last run must end before the row does
+    for (int run = 1; run + patternLength < numRuns; run += 2) {
+      System.arraycopy(runs, run, theCounters, 0, patternLength);
+      if (toPattern(theCounters) == ASTERISK_ENCODING) {
+        return new int[]{runStarts[run], runStarts[run + patternLength]};
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return null;
   }
 
   private static int toPattern(int[] counters) {
@@ -185,13 +202,15 @@ public final class Code93Reader extends OneDReader {
     return pattern;
   }
 
-  private static char patternToChar(int pattern) throws NotFoundException {
+  // Returns 0 on failure rather than throwing: most patterns read off a row without a barcode
+  // are not characters.
+  private static char patternToChar(int pattern) {
     for (int i = 0; i < CHARACTER_ENCODINGS.length; i++) {
       if (CHARACTER_ENCODINGS[i] == pattern) {
         return ALPHABET[i];
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return 0;
   }
 
   private static String decodeExtended(CharSequence encoded) throws FormatException {
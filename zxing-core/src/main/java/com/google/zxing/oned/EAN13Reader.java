@@ -17,8 +17,6 @@
 package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
-import com.google.zxing.NotFoundException;
-import com.google.zxing.common.BitArray;
 
 /**
  * <p>Implements decoding of the EAN-13 format.</p>
@@ -69,9 +67,9 @@ public final class EAN13Reader extends UPCEANReader {
   }
 
   @Override
-  protected int decodeMiddle(BitArray row,
+  protected int decodeMiddle(RunLengthRow row,
                              int[] startRange,
-                             StringBuilder resultString) throws NotFoundException {
+                             StringBuilder resultString) {
     int[] counters = decodeMiddleCounters;
     counters[0] = 0;
     counters[1] = 0;
@@ -84,6 +82,9 @@ public final class EAN13Reader extends UPCEANReader {
 
     for (int x = 0; x < 6 && rowOffset < end; x++) {
       int bestMatch = decodeDigit(row, counters, rowOffset, L_AND_G_PATTERNS);
+      if (bestMatch < 0) {
+        return -1;
+      }
       resultString.append((char) ('0' + bestMatch % 10));
       for (int counter : counters) {
         rowOffset += counter;
@@ -93,13 +94,21 @@ public final class EAN13Reader extends UPCEANReader {
       }
     }
 
-    determineFirstDigit(resultString, lgPatternFound);
+    if (!determineFirstDigit(resultString, lgPatternFound)) {
+      return -1;
+    }
 
     int[] middleRange = findGuardPattern(row, rowOffset, true, MIDDLE_PATTERN);
+    if (middleRange == null) {
+      return -1;
+    }
     rowOffset = middleRange[1];
 
     for (int x = 0; x < 6 && rowOffset < end; x++) {
       int bestMatch = decodeDigit(row, counters, rowOffset, L_PATTERNS);
+      if (bestMatch < 0) {
+        return -1;
+      }
       resultString.append((char) ('0' + bestMatch));
       for (int counter : counters) {
         rowOffset += counter;
@@ -122,17 +131,16 @@ public final class EAN13Reader extends UPCEANReader {
    * @param resultString string to insert decoded first digit into
    * @param lgPatternFound int whose bits indicates the pattern of odd/even L/G patterns used to
    *  encode digits
-   * @throws NotFoundException if first digit cannot be determined
+   * @return false if first digit cannot be determined
    */
-  private static void determineFirstDigit(StringBuilder resultString, int lgPatternFound)
-      throws NotFoundException {
+  private static boolean determineFirstDigit(StringBuilder resultString, int lgPatternFound) {
     for (int d = 0; d < 10; d++) {
       if (lgPatternFound == FIRST_DIGIT_ENCODINGS[d]) {
         resultString.insert(0, (char) ('0' + d));
-        return;
+        return true;
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return false;
   }
 
 }
@@ -17,8 +17,6 @@
 package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
-import com.google.zxing.NotFoundException;
-import com.google.zxing.common.BitArray;
 
 /**
  * <p>Implements decoding of the EAN-8 format.</p>
@@ -34,9 +32,9 @@ public final class EAN8Reader extends UPCEANReader {
   }
 
   @Override
-  protected int decodeMiddle(BitArray row,
+  protected int decodeMiddle(RunLengthRow row,
                              int[] startRange,
-                             StringBuilder result) throws NotFoundException {
+                             StringBuilder result) {
     int[] counters = decodeMiddleCounters;
     counters[0] = 0;
     counters[1] = 0;
@@ -47,6 +45,9 @@ public final class EAN8Reader extends UPCEANReader {
 
     for (int x = 0; x < 4 && rowOffset < end; x++) {
       int bestMatch = decodeDigit(row, counters, rowOffset, L_PATTERNS);
+      if (bestMatch < 0) {
+        return -1;
+      }
       result.append((char) ('0' + bestMatch));
       for (int counter : counters) {
         rowOffset += counter;
@@ -54,10 +55,16 @@ public final class EAN8Reader extends UPCEANReader {
     }
 
     int[] middleRange = findGuardPattern(row, rowOffset, true, MIDDLE_PATTERN);
+    if (middleRange == null) {
+      return -1;
+    }
     rowOffset = middleRange[1];
 
     for (int x = 0; x < 4 && rowOffset < end; x++) {
       int bestMatch = decodeDigit(row, counters, rowOffset, L_PATTERNS);
+      if (bestMatch < 0) {
+        return -1;
+      }
       result.append((char) ('0' + bestMatch));
       for (int counter : counters) {
         rowOffset += counter;
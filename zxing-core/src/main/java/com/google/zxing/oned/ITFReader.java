@@ -17,14 +17,11 @@
 package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
-import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.parse.DecodeConfig;
 import com.google.zxing.FormatException;
-import com.google.zxing.NotFoundException;
 import com.google.zxing.parse.Result;
 import com.google.zxing.parse.ResultPoint;
-import com.google.zxing.common.BitArray;
 
-import java.util.Map;
 
 /**
  * <p>Implements decoding of the ITF format, or Interleaved Two of Five.</p>
@@ -98,22 +95,26 @@ public final class ITFReader extends OneDReader {
   };
 
   @Override
-  public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
-      throws FormatException, NotFoundException {
+  public Result tryDecodeRow(int rowNumber, RunLengthRow row, DecodeConfig config)
+      throws FormatException {
 
     // Find out where the Middle section (payload) starts & ends
     int[] startRange = decodeStart(row);
+    if (startRange == null) {
+      return null;
+    }
     int[] endRange = decodeEnd(row);
+    if (endRange == null) {
+      return null;
+    }
 
     StringBuilder result = new StringBuilder(20);
-    decodeMiddle(row, startRange[1], endRange[0], result);
+    if (!decodeMiddle(row, startRange[1], endRange[0], result)) {
+      return null;
+    }
     String resultString = result.toString();
 
-    int[] allowedLengths = null;
-    if (hints != null) {
-      allowedLengths = (int[]) hints.get(DecodeHintType.ALLOWED_LENGTHS);
-
-    }
+    int[] allowedLengths = config.getAllowedLengths();
     if (allowedLengths == null) {
       allowedLengths = DEFAULT_ALLOWED_LENGTHS;
     }
@@ -151,12 +152,12 @@ public final class ITFReader extends OneDReader {
    * @param row          row of black/white values to search
    * @param payloadStart offset of start pattern
    * @param resultString {@link StringBuilder} to append decoded chars to
-   * @throws NotFoundException if decoding could not complete successfully
+   * @return false if decoding could not complete successfully
    */
-  private static void decodeMiddle(BitArray row,
-                                   int payloadStart,
-                                   int payloadEnd,
-                                   StringBuilder resultString) throws NotFoundException {
+  private static boolean decodeMiddle(RunLengthRow row,
+                                      int payloadStart,
+                                      int payloadEnd,
+                                      StringBuilder resultString) {
 
     // Digits are interleaved in pairs - 5 black lines for one digit, and the
     // 5
@@ -170,7 +171,9 @@ public final class ITFReader extends OneDReader {
     while (payloadStart < payloadEnd) {
 
       // Get 10 runs of black/white.
-      recordPattern(row, payloadStart, counterDigitPair);
+      if (!recordPattern(row, payloadStart, counterDigitPair)) {
+        return false;
+      }
       // Split them into each array
       for (int k = 0; k < 5; k++) {
         int twoK = 2 * k;
@@ -179,168 +182,178 @@ public final class ITFReader extends OneDReader {
       }
 
       int bestMatch = decodeDigit(counterBlack);
+      if (bestMatch < 0) {
+        return false;
+      }
       resultString.append((char) ('0' + bestMatch));
       bestMatch = decodeDigit(counterWhite);
+      if (bestMatch < 0) {
+        return false;
+      }
       resultString.append((char) ('0' + bestMatch));
 
       for (int counterDigit : counterDigitPair) {
         payloadStart += counterDigit;
       }
     }
+    return true;
   }
 
   /**
    * Identify where the start of the middle / payload section starts.
    *
-   * @param row row of black/white values to search
+   * @param row runs of black/white values to search
    * @return Array, containing index of start of 'start block' and end of
-   *         'start block'
+   *         'start block', or null if not found
    */
-  private int[] decodeStart(BitArray row) throws NotFoundException {
-    int endStart = skipWhiteSpace(row);
-    int[] startPattern = findGuardPattern(row, endStart, START_PATTERN);
-
-    // Determine the width of a narrow line in pixels. We can do this by
-    // getting the width of the start pattern and dividing by 4 because its
-    // made up of 4 narrow lines.
-    this.narrowLineWidth = (startPattern[1] - startPattern[0]) / 4;
+  private int[] decodeStart(RunLengthRow row) {
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
+    int numRuns = row.getNumRuns();
+    int[] counters = new int[START_PATTERN.length];
+    int patternLength = counters.length;
+
+    // Windows start on a black run, and their last run must end before the row does
+    for (int run = 1; run + patternLength < numRuns; run += 2) {
+      System.arraycopy(runs, run, counters, 0, patternLength);
+      if (patternMatchVariance(counters, START_PATTERN, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+        int[] startPattern = {runStarts[run], runStarts[run + patternLength]};
+
+        // Determine the width of a narrow line in pixels. We can do this by
+        // getting the width of the start pattern and dividing by 4 because its
+        // made up of 4 narrow lines.
+        this.narrowLineWidth = (startPattern[1] - startPattern[0]) / 4;
+
+        if (!validateQuietZone(runs[run - 1], startPattern[0])) {
+          return null;
+        }
 
-    validateQuietZone(row, startPattern[0]);
+        return startPattern;
+      }
+    }
+    return null;
+  }
 
-    return startPattern;
+  @Override
+  protected int findStartGuardDirections(RunLengthRow row) {
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
+    int numRuns = row.getNumRuns();
+    int size = row.getSize();
+    int[] counters = new int[START_PATTERN.length];
+    int patternLength = counters.length;
+    int directions = 0;
+
+    // The start pattern reads the same both ways. Read right to left, a window ends on a black
+    // run rather than starting on one, needs a black run before it, and its quiet zone is after
+    // it. Left to right, decodeStart() gives up if the first window that matches has no quiet zone.
+    int searching = BOTH_DIRECTIONS;
+    for (int run = 1; run < numRuns && searching != 0; run += 2) {
+      if ((searching & LEFT_TO_RIGHT) != 0 && run + patternLength < numRuns) {
+        System.arraycopy(runs, run, counters, 0, patternLength);
+        if (patternMatchVariance(counters, START_PATTERN, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+          searching &= ~LEFT_TO_RIGHT;
+          int quietCount = (runStarts[run + patternLength] - runStarts[run]) / 4 * 10;
+          if (runs[run - 1] >= Math.min(quietCount, runStarts[run])) {
+            directions |= LEFT_TO_RIGHT;
+          }
+        }
+      }
+      if ((searching & RIGHT_TO_LEFT) != 0 && run > patternLength) {
+        int start = run + 1 - patternLength;
+        System.arraycopy(runs, start, counters, 0, patternLength);
+        if (patternMatchVariance(counters, START_PATTERN, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+          int quietCount = (runStarts[run + 1] - runStarts[start]) / 4 * 10;
+          int quietZone = run + 1 < numRuns ? runs[run + 1] : 0;
+          if (quietZone >= Math.min(quietCount, size - runStarts[run + 1])) {
+            directions |= RIGHT_TO_LEFT;
+            searching &= ~RIGHT_TO_LEFT;
+          }
+        }
+      }
+    }
+    return directions;
   }
 
   /**
    * The start & end patterns must be pre/post fixed by a quiet zone. This
-   * zone must be at least 10 times the width of a narrow line.  Scan back until
-   * we either get to the start of the barcode or match the necessary number of
-   * quiet zone pixels.
-   *
-   * Note: Its assumed the row is reversed when using this method to find
-   * quiet zone after the end pattern.
+   * zone must be at least 10 times the width of a narrow line, or reach
+   * the edge of the row.
    *
    * ref: http://www.barcode-1.net/i25code.html
    *
-   * @param row bit array representing the scanned barcode.
-   * @param startPattern index into row of the start or end pattern.
-   * @throws NotFoundException if the quiet zone cannot be found
+   * @param quietZone width of the white run next to the pattern, on the side of the quiet zone
+   * @param available number of pixels between the pattern and the edge of the row on that side
+   * @return false if the quiet zone cannot be found
    */
-  private void validateQuietZone(BitArray row, int startPattern) throws NotFoundException {
+  private boolean validateQuietZone(int quietZone, int available) {
 
     int quietCount = this.narrowLineWidth * 10;  // expect to find this many pixels of quiet zone
 
     // if there are not so many pixel at all let's try as many as possible
-    quietCount = quietCount < startPattern ? quietCount : startPattern;
+    quietCount = quietCount < available ? quietCount : available;
 
-    for (int i = startPattern - 1; quietCount > 0 && i >= 0; i--) {
-      if (row.get(i)) {
-        break;
-      }
-      quietCount--;
-    }
-    if (quietCount != 0) {
-      // Unable to find the necessary number of quiet zone pixels.
-      throw NotFoundException.getNotFoundInstance();
-    }
-  }
-
-  /**
-   * Skip all whitespace until we get to the first black line.
-   *
-   * @param row row of black/white values to search
-   * @return index of the first black line.
-   * @throws NotFoundException Throws exception if no black lines are found in the row
-   */
-  private static int skipWhiteSpace(BitArray row) throws NotFoundException {
-    int width = row.getSize();
-    int endStart = row.getNextSet(0);
-    if (endStart == width) {
-      throw NotFoundException.getNotFoundInstance();
-    }
-
-    return endStart;
+    // Unable to find the necessary number of quiet zone pixels otherwise.
+    return quietZone >= quietCount;
   }
 
   /**
    * Identify where the end of the middle / payload section ends.
    *
-   * @param row row of black/white values to search
+   * @param row runs of black/white values to search
    * @return Array, containing index of start of 'end block' and end of 'end
-   *         block'
+   *         block', or null if not found
    */
-  private int[] decodeEnd(BitArray row) throws NotFoundException {
-
-    // For convenience, reverse the row and then
-    // search from 'the start' for the end block
-    row.reverse();
-    try {
-      int endStart = skipWhiteSpace(row);
-      int[] endPattern;
-      try {
-        endPattern = findGuardPattern(row, endStart, END_PATTERN_REVERSED[0]);
-      } catch (NotFoundException nfe) {
-        endPattern = findGuardPattern(row, endStart, END_PATTERN_REVERSED[1]);
+  private int[] decodeEnd(RunLengthRow row) {
+    int endRun = findEndPattern(row, END_PATTERN_REVERSED[0]);
+    if (endRun < 0) {
+      endRun = findEndPattern(row, END_PATTERN_REVERSED[1]);
+      if (endRun < 0) {
+        return null;
       }
-
-      // The start & end patterns must be pre/post fixed by a quiet zone. This
-      // zone must be at least 10 times the width of a narrow line.
-      // ref: http://www.barcode-1.net/i25code.html
-      validateQuietZone(row, endPattern[0]);
-
-      // Now recalculate the indices of where the 'endblock' starts & stops to
-      // accommodate
-      // the reversed nature of the search
-      int temp = endPattern[0];
-      endPattern[0] = row.getSize() - endPattern[1];
-      endPattern[1] = row.getSize() - temp;
-
-      return endPattern;
-    } finally {
-      // Put the row back the right way.
-      row.reverse();
     }
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
+    int[] endPattern = {runStarts[endRun - END_PATTERN_REVERSED[0].length + 1], runStarts[endRun + 1]};
+
+    // The start & end patterns must be pre/post fixed by a quiet zone. This
+    // zone must be at least 10 times the width of a narrow line.
+    // ref: http://www.barcode-1.net/i25code.html
+    if (!validateQuietZone(endRun + 1 < row.getNumRuns() ? runs[endRun + 1] : 0, row.getSize() - endPattern[1])) {
+      return null;
+    }
+
+    return endPattern;
   }
 
   /**
-   * @param row       row of black/white values to search
-   * @param rowOffset position to start search
+   * Searches for the end pattern from the right end of the row, as if the row were reversed.
+   *
+   * @param row       runs of black/white values to search
    * @param pattern   pattern of counts of number of black and white pixels that are
-   *                  being searched for as a pattern
-   * @return start/end horizontal offset of guard pattern, as an array of two
-   *         ints
-   * @throws NotFoundException if pattern is not found
+   *                  being searched for, from right to left
+   * @return index of the run holding the last bar of the end pattern, or -1 if not found
    */
-  private static int[] findGuardPattern(BitArray row,
-                                        int rowOffset,
-                                        int[] pattern) throws NotFoundException {
+  private static int findEndPattern(RunLengthRow row, int[] pattern) {
+    int[] runs = row.getRuns();
+    int numRuns = row.getNumRuns();
     int patternLength = pattern.length;
     int[] counters = new int[patternLength];
-    int width = row.getSize();
-    boolean isWhite = false;
-
-    int counterPosition = 0;
-    int patternStart = rowOffset;
-    for (int x = rowOffset; x < width; x++) {
-      if (row.get(x) != isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
-            return new int[]{patternStart, x};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, counterPosition - 1);
-          counters[counterPosition - 1] = 0;
-          counters[counterPosition] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
-        }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
+
+    // Windows end on a black run, and their first run must start after the row does:
+    // run 0 is white, and empty if the row starts black
+    int lastRun = (numRuns & 0x01) == 0 ? numRuns - 1 : numRuns - 2;
+    for (int run = lastRun;
+         run - patternLength >= 1 || (run - patternLength == 0 && runs[0] > 0);
+         run -= 2) {
+      for (int i = 0; i < patternLength; i++) {
+        counters[i] = runs[run - i];
+      }
+      if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+        return run;
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return -1;
   }
 
   /**
@@ -348,10 +361,9 @@ public final class ITFReader extends OneDReader {
    * digit.
    *
    * @param counters the counts of runs of observed black/white/black/... values
-   * @return The decoded digit
-   * @throws NotFoundException if digit cannot be decoded
+   * @return The decoded digit, or -1 if it cannot be decoded
    */
-  private static int decodeDigit(int[] counters) throws NotFoundException {
+  private static int decodeDigit(int[] counters) {
     float bestVariance = MAX_AVG_VARIANCE; // worst variance we'll accept
     int bestMatch = -1;
     int max = PATTERNS.length;
@@ -366,11 +378,7 @@ public final class ITFReader extends OneDReader {
         bestMatch = -1;
       }
     }
-    if (bestMatch >= 0) {
-      return bestMatch % 10;
-    } else {
-      throw NotFoundException.getNotFoundInstance();
-    }
+    return bestMatch >= 0 ? bestMatch % 10 : -1;
   }
 
 }
@@ -17,12 +17,11 @@
 package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
+import com.google.zxing.parse.DecodeConfig;
 import com.google.zxing.parse.DecodeHintType;
-import com.google.zxing.NotFoundException;
 import com.google.zxing.parse.Reader;
 import com.google.zxing.ReaderException;
 import com.google.zxing.parse.Result;
-import com.google.zxing.common.BitArray;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -37,20 +36,30 @@ public final class MultiFormatOneDReader extends OneDReader {
   private static final OneDReader[] EMPTY_ONED_ARRAY = new OneDReader[0];
 
   private final OneDReader[] readers;
+  private final int[] readerDirections;
 
   public MultiFormatOneDReader(Map<DecodeHintType,?> hints) {
-    @SuppressWarnings("unchecked")
-    Collection<BarcodeFormat> possibleFormats = hints == null ? null :
-        (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
-    boolean useCode39CheckDigit = hints != null &&
-        hints.get(DecodeHintType.ASSUME_CODE_39_CHECK_DIGIT) != null;
+    this(DecodeConfig.of(hints));
+  }
+
+  /**
+   * @param config the hints, built once for all the images they are used for
+   * @return a reader of the formats in {@code config}
+   */
+  public static MultiFormatOneDReader withConfig(DecodeConfig config) {
+    return new MultiFormatOneDReader(config);
+  }
+
+  private MultiFormatOneDReader(DecodeConfig config) {
+    Collection<BarcodeFormat> possibleFormats = config.getPossibleFormats();
+    boolean useCode39CheckDigit = config.isAssumeCode39CheckDigit();
     Collection<OneDReader> readers = new ArrayList<>();
     if (possibleFormats != null) {
       if (possibleFormats.contains(BarcodeFormat.EAN_13) ||
           possibleFormats.contains(BarcodeFormat.UPC_A) ||
           possibleFormats.contains(BarcodeFormat.EAN_8) ||
           possibleFormats.contains(BarcodeFormat.UPC_E)) {
-        readers.add(new MultiFormatUPCEANReader(hints));
+        readers.add(MultiFormatUPCEANReader.withConfig(config));
       }
       if (possibleFormats.contains(BarcodeFormat.CODE_39)) {
         readers.add(new Code39Reader(useCode39CheckDigit));
@@ -75,7 +84,7 @@ public final class MultiFormatOneDReader extends OneDReader {
 //      }
     }
     if (readers.isEmpty()) {
-      readers.add(new MultiFormatUPCEANReader(hints));
+      readers.add(MultiFormatUPCEANReader.withConfig(config));
       readers.add(new Code39Reader());
       readers.add(new CodaBarReader());
       readers.add(new Code93Reader());
@@ -85,21 +94,72 @@ public final class MultiFormatOneDReader extends OneDReader {
 //      readers.add(new RSSExpandedReader());
     }
     this.readers = readers.toArray(EMPTY_ONED_ARRAY);
+    readerDirections = new int[this.readers.length];
   }
 
   @Override
-  public Result decodeRow(int rowNumber,
-                          BitArray row,
-                          Map<DecodeHintType,?> hints) throws NotFoundException {
+  public Result tryDecodeRow(int rowNumber,
+                             RunLengthRow row,
+                             DecodeConfig config) {
+    // Every reader walks the same runs
     for (OneDReader reader : readers) {
       try {
-        return reader.decodeRow(rowNumber, row, hints);
+        Result result = reader.tryDecodeRow(rowNumber, row, config);
+        if (result != null) {
+          return result;
+        }
       } catch (ReaderException re) {
         // continue
       }
     }
+    return null;
+  }
 
-    throw NotFoundException.getNotFoundInstance();
+  @Override
+  Result tryDecodeRowBothWays(int rowNumber,
+                              RunLengthRow row,
+                              int allDirections,
+                              DecodeConfig config,
+                              DecodeConfig reversedConfig) {
+    // Only the readers that found a start guard a way decode the row that way: all of them left
+    // to right before any of them right to left.
+    int[] directions = readerDirections;
+    for (int i = 0; i < readers.length; i++) {
+      if ((directions[i] & LEFT_TO_RIGHT) != 0) {
+        Result result = readers[i].tryDecodeRowQuietly(rowNumber, row, config);
+        if (result != null) {
+          return result;
+        }
+      }
+    }
+    if ((allDirections & RIGHT_TO_LEFT) == 0) {
+      return null;
+    }
+    row.reverse();
+    for (int i = 0; i < readers.length; i++) {
+      if ((directions[i] & RIGHT_TO_LEFT) != 0) {
+        Result result = readers[i].tryDecodeRowQuietly(rowNumber, row, reversedConfig);
+        if (result != null) {
+          return result;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Also remembers the directions of each reader, for
+   * {@link #tryDecodeRowBothWays(int, RunLengthRow, int, DecodeConfig, DecodeConfig)} on the same
+   * row.
+   */
+  @Override
+  protected int findStartGuardDirections(RunLengthRow row) {
+    int directions = 0;
+    for (int i = 0; i < readers.length; i++) {
+      readerDirections[i] = readers[i].findStartGuardDirections(row);
+      directions |= readerDirections[i];
+    }
+    return directions;
   }
 
   @Override
@@ -17,12 +17,11 @@
 package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
+import com.google.zxing.parse.DecodeConfig;
 import com.google.zxing.parse.DecodeHintType;
-import com.google.zxing.NotFoundException;
 import com.google.zxing.parse.Reader;
 import com.google.zxing.ReaderException;
 import com.google.zxing.parse.Result;
-import com.google.zxing.common.BitArray;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -40,11 +39,19 @@ public final class MultiFormatUPCEANReader extends OneDReader {
   private static final UPCEANReader[] EMPTY_READER_ARRAY = new UPCEANReader[0];
 
   private final UPCEANReader[] readers;
+  private final boolean canReturnUPCA;
+  private final int minSymbolModules;
 
   public MultiFormatUPCEANReader(Map<DecodeHintType,?> hints) {
-    @SuppressWarnings("unchecked")
-    Collection<BarcodeFormat> possibleFormats = hints == null ? null :
-        (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
+    this(DecodeConfig.of(hints));
+  }
+
+  static MultiFormatUPCEANReader withConfig(DecodeConfig config) {
+    return new MultiFormatUPCEANReader(config);
+  }
+
+  private MultiFormatUPCEANReader(DecodeConfig config) {
+    Collection<BarcodeFormat> possibleFormats = config.getPossibleFormats();
     Collection<UPCEANReader> readers = new ArrayList<>();
     if (possibleFormats != null) {
       if (possibleFormats.contains(BarcodeFormat.EAN_13)) {
@@ -66,17 +73,57 @@ public final class MultiFormatUPCEANReader extends OneDReader {
       readers.add(new UPCEReader());
     }
     this.readers = readers.toArray(EMPTY_READER_ARRAY);
+    // Don't return UPC-A if UPC-A was not a requested format
+    canReturnUPCA = possibleFormats == null || possibleFormats.contains(BarcodeFormat.UPC_A);
+    int minSymbolModules = Integer.MAX_VALUE;
+    for (UPCEANReader reader : this.readers) {
+      minSymbolModules = Math.min(minSymbolModules, getSymbolModules(reader.getBarcodeFormat()));
+    }
+    this.minSymbolModules = minSymbolModules;
+  }
+
+  /**
+   * @return width of a symbol of the given format in modules, from the start of its start guard
+   *  to the end of its end guard
+   */
+  private static int getSymbolModules(BarcodeFormat format) {
+    switch (format) {
+      case EAN_8:
+        return 67;
+      case UPC_E:
+        return 51;
+      default:
+        return 95; // EAN-13 and UPC-A
+    }
   }
 
   @Override
-  public Result decodeRow(int rowNumber,
-                          BitArray row,
-                          Map<DecodeHintType,?> hints) throws NotFoundException {
+  protected int findStartGuardDirections(RunLengthRow row) {
+    // All the readers share the start guard
+    return UPCEANReader.findStartGuardPatternDirections(row);
+  }
+
+  @Override
+  public Result tryDecodeRow(int rowNumber,
+                             RunLengthRow row,
+                             DecodeConfig config) {
     // Compute this location once and reuse it on multiple implementations
     int[] startGuardPattern = UPCEANReader.findStartGuardPattern(row);
+    if (startGuardPattern == null) {
+      return null;
+    }
+    // The start guard is 3 modules wide. If not even half of the shortest expected symbol fits
+    // in the rest of the row, none of the readers can reach an end guard: skip them all.
+    int guardWidth = startGuardPattern[1] - startGuardPattern[0];
+    if (startGuardPattern[0] + guardWidth * minSymbolModules / 6 > row.getSize()) {
+      return null;
+    }
     for (UPCEANReader reader : readers) {
       try {
-        Result result = reader.decodeRow(rowNumber, row, startGuardPattern, hints);
+        Result result = reader.tryDecodeRow(rowNumber, row, startGuardPattern, config);
+        if (result == null) {
+          continue;
+        }
         // Special case: a 12-digit code encoded in UPC-A is identical to a "0"
         // followed by those 12 digits encoded as EAN-13. Each will recognize such a code,
         // UPC-A as a 12-digit string and EAN-13 as a 13-digit string starting with "0".
@@ -92,11 +139,7 @@ public final class MultiFormatUPCEANReader extends OneDReader {
         boolean ean13MayBeUPCA =
             result.getBarcodeFormat() == BarcodeFormat.EAN_13 &&
                 result.getText().charAt(0) == '0';
-        @SuppressWarnings("unchecked")
-        Collection<BarcodeFormat> possibleFormats =
-            hints == null ? null : (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
-        boolean canReturnUPCA = possibleFormats == null || possibleFormats.contains(BarcodeFormat.UPC_A);
-  
+
         if (ean13MayBeUPCA && canReturnUPCA) {
           // Transfer the metadata across
           Result resultUPCA = new Result(result.getText().substring(1),
@@ -111,8 +154,7 @@ public final class MultiFormatUPCEANReader extends OneDReader {
         // continue
       }
     }
-
-    throw NotFoundException.getNotFoundInstance();
+    return null;
   }
 
   @Override
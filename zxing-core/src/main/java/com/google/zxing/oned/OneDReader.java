@@ -0,0 +1,445 @@
+/*
+ * Copyright 2008 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.parse.BinaryBitmap;
+import com.google.zxing.ChecksumException;
+import com.google.zxing.parse.DecodeConfig;
+import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.FormatException;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.parse.Reader;
+import com.google.zxing.ReaderException;
+import com.google.zxing.parse.Result;
+import com.google.zxing.parse.ResultMetadataType;
+import com.google.zxing.parse.ResultPoint;
+import com.google.zxing.common.BitArray;
+
+import java.util.Map;
+
+/**
+ * Encapsulates functionality and implementation that is common to all families
+ * of one-dimensional barcodes.
+ *
+ * @author dswitkin@google.com (Daniel Switkin)
+ * @author Sean Owen
+ */
+public abstract class OneDReader implements Reader {
+
+  /**
+   * A start guard was found in the row read left to right, the way it was scanned.
+   */
+  protected static final int LEFT_TO_RIGHT = 0x01;
+
+  /**
+   * A start guard was found in the row read right to left, the way an upside down barcode reads.
+   */
+  protected static final int RIGHT_TO_LEFT = 0x02;
+
+  protected static final int BOTH_DIRECTIONS = LEFT_TO_RIGHT | RIGHT_TO_LEFT;
+
+  @Override
+  public Result decode(BinaryBitmap image) throws NotFoundException, FormatException {
+    return decode(image, null);
+  }
+
+  @Override
+  public Result decode(BinaryBitmap image,
+                       Map<DecodeHintType,?> hints) throws NotFoundException, FormatException {
+    Result result = tryDecode(image, hints);
+    if (result == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return result;
+  }
+
+  /**
+   * <p>Like {@link #decode(BinaryBitmap, Map)}, but returns {@code null} instead of throwing when
+   * no barcode is found. The rows are tried without throwing an exception for each row that holds
+   * no barcode, so this is what scanning loops should call.</p>
+   *
+   * @param image image of barcode to decode
+   * @param hints optional hints
+   * @return the decoded barcode, or {@code null} if none is found
+   */
+  public Result tryDecode(BinaryBitmap image, Map<DecodeHintType,?> hints) {
+    return tryDecodeWithConfig(image, DecodeConfig.of(hints));
+  }
+
+  /**
+   * <p>Like {@link #tryDecode(BinaryBitmap, Map)}, with the hints already read into a config.</p>
+   *
+   * @param image image of barcode to decode
+   * @param config the hints, built once for all the frames they are used for
+   * @return the decoded barcode, or {@code null} if none is found
+   */
+  public Result tryDecodeWithConfig(BinaryBitmap image, DecodeConfig config) {
+    Result result = doDecode(image, config);
+    if (result == null) {
+      // Note that we don't try rotation without the try harder flag, even if rotation was supported.
+      if (config.isTryHarder() && image.isRotateSupported()) {
+        BinaryBitmap rotatedImage = image.rotateCounterClockwise();
+        result = doDecode(rotatedImage, config);
+        if (result == null) {
+          return null;
+        }
+        // Record that we found it rotated 90 degrees CCW / 270 degrees CW
+        Map<ResultMetadataType,?> metadata = result.getResultMetadata();
+        int orientation = 270;
+        if (metadata != null && metadata.containsKey(ResultMetadataType.ORIENTATION)) {
+          // But if we found it reversed in doDecode(), add in that result here:
+          orientation = (orientation +
+              (Integer) metadata.get(ResultMetadataType.ORIENTATION)) % 360;
+        }
+        result.putMetadata(ResultMetadataType.ORIENTATION, orientation);
+        // Update result points
+        ResultPoint[] points = result.getResultPoints();
+        if (points != null) {
+          int height = rotatedImage.getHeight();
+          for (int i = 0; i < points.length; i++) {
+            points[i] = new ResultPoint(height - points[i].getY() - 1, points[i].getX());
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void reset() {
+    // do nothing
+  }
+
+  /**
+   * We're going to examine rows from the middle outward, searching alternately above and below the
+   * middle, and farther out each time. rowStep is the number of rows between each successive
+   * attempt above and below the middle. So we'd scan row middle, then middle - rowStep, then
+   * middle + rowStep, then middle - (2 * rowStep), etc.
+   * rowStep is bigger as the image is taller, but is always at least 1. We've somewhat arbitrarily
+   * decided that moving up and down by about 1/16 of the image is pretty good; we try more of the
+   * image if "trying harder".
+   *
+   * @param image The image to decode
+   * @param config Any hints that were requested
+   * @return The contents of the decoded barcode, or {@code null} if none is found
+   */
+  private Result doDecode(BinaryBitmap image,
+                          DecodeConfig config) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    BitArray row = new BitArray(width);
+    RunLengthRow runs = new RunLengthRow();
+
+    boolean tryHarder = config.isTryHarder();
+    int rowStep = Math.max(1, height >> (tryHarder ? 8 : 5));
+    int maxLines;
+    if (tryHarder) {
+      maxLines = height; // Look at the whole image, not just the center
+    } else {
+      maxLines = 15; // 15 rows spaced 1/32 apart is roughly the middle half of the image
+    }
+
+    DecodeConfig rowConfig = config;
+    DecodeConfig reversedConfig = config.withoutResultPointCallback();
+
+    int middle = height / 2;
+    for (int x = 0; x < maxLines; x++) {
+
+      // Scanning from the middle out. Determine which row we're looking at next:
+      int rowStepsAboveOrBelow = (x + 1) / 2;
+      boolean isAbove = (x & 0x01) == 0; // i.e. is x even?
+      int rowNumber = middle + rowStep * (isAbove ? rowStepsAboveOrBelow : -rowStepsAboveOrBelow);
+      if (rowNumber < 0 || rowNumber >= height) {
+        // Oops, if we run off the top or bottom, stop
+        break;
+      }
+
+      // Estimate black point for this row and load it:
+      BitArray blackRow = image.tryGetBlackRow(rowNumber, row);
+      if (blackRow == null) {
+        continue;
+      }
+      row = blackRow;
+
+      // Measure the runs once, for all the readers that walk them, and both ways
+      runs.setRow(row);
+      int directions = findStartGuardDirections(runs);
+      Result result = tryDecodeRowBothWays(rowNumber, runs, directions, rowConfig, reversedConfig);
+      if ((directions & LEFT_TO_RIGHT) != 0) {
+        // We will only ever draw result points *once* in the life of this method, for the first
+        // row actually read left to right, since we want to avoid drawing the wrong points after
+        // flipping the row, and, don't want to clutter with noise from every single row scan --
+        // just the scans that start on the center line.
+        rowConfig = reversedConfig;
+      }
+      if (result == null) {
+        continue; // just couldn't decode this row
+      }
+      // We found our barcode
+      if (runs.isReversed()) {
+        // But it was upside down, so note that
+        result.putMetadata(ResultMetadataType.ORIENTATION, 180);
+        // And remember to flip the result points horizontally.
+        ResultPoint[] points = result.getResultPoints();
+        if (points != null) {
+          points[0] = new ResultPoint(width - points[0].getX() - 1, points[0].getY());
+          points[1] = new ResultPoint(width - points[1].getX() - 1, points[1].getY());
+        }
+      }
+      return result;
+    }
+
+    return null;
+  }
+
+  /**
+   * Decodes a row read left to right and, if that finds nothing, read right to left, which is how
+   * an upside down barcode reads. The row is only decoded the ways
+   * {@link #findStartGuardDirections(RunLengthRow)} found a start guard, in one pass over the runs.
+   * To be read right to left the row is reversed in place, which {@link RunLengthRow#isReversed()}
+   * then tells.
+   *
+   * @param rowNumber row number from top of the row
+   * @param row the runs of black/white pixels of the row
+   * @param directions what {@link #findStartGuardDirections(RunLengthRow)} returned for the row
+   * @param config decode hints for the row read left to right
+   * @param reversedConfig decode hints for the row read right to left
+   * @return {@link Result} containing encoded string and start/end of barcode, or {@code null} if
+   *         none is found either way
+   */
+  Result tryDecodeRowBothWays(int rowNumber,
+                              RunLengthRow row,
+                              int directions,
+                              DecodeConfig config,
+                              DecodeConfig reversedConfig) {
+    if ((directions & LEFT_TO_RIGHT) != 0) {
+      Result result = tryDecodeRowQuietly(rowNumber, row, config);
+      if (result != null) {
+        return result;
+      }
+    }
+    if ((directions & RIGHT_TO_LEFT) != 0) {
+      row.reverse();
+      return tryDecodeRowQuietly(rowNumber, row, reversedConfig);
+    }
+    return null;
+  }
+
+  /**
+   * Like {@link #tryDecodeRow(int, RunLengthRow, DecodeConfig)}, but also returns {@code null} for a
+   * potential barcode that fails its checksum or format.
+   */
+  final Result tryDecodeRowQuietly(int rowNumber, RunLengthRow row, DecodeConfig config) {
+    try {
+      return tryDecodeRow(rowNumber, row, config);
+    } catch (ReaderException re) {
+      return null;
+    }
+  }
+
+  /**
+   * <p>Looks for the start guard of this format, or the first character which plays its part, in
+   * the row read left to right and read right to left, in one pass over its runs. The row is only
+   * decoded the ways this returns, so it must report every start guard that
+   * {@link #tryDecodeRow(int, RunLengthRow, DecodeConfig)} would find; it may report some that it would
+   * not.</p>
+   *
+   * <p>This implementation reports both ways, so that the row is always decoded both ways.</p>
+   *
+   * @param row the runs of black/white pixels of the row
+   * @return {@link #LEFT_TO_RIGHT} and/or {@link #RIGHT_TO_LEFT}, or 0 if neither way has one
+   */
+  protected int findStartGuardDirections(RunLengthRow row) {
+    return BOTH_DIRECTIONS;
+  }
+
+  /**
+   * Whether at least {@code max} white pixels, or the rest of the row, follow run {@code run}: the
+   * quiet zone before a pattern read right to left which ends with that run.
+   *
+   * @param row the runs of black/white pixels of the row
+   * @param run index of the last run of the pattern, which must be black
+   * @param max white pixels wanted
+   * @return whether that many pixels, or the rest of the row if it has fewer, are all white
+   */
+  static boolean isQuietAfter(RunLengthRow row, int run, int max) {
+    // The run after a black one is white; if it is the last one, the row ends white
+    return run + 2 >= row.getNumRuns() || row.getRuns()[run + 1] >= max;
+  }
+
+  /**
+   * Records the size of successive runs of white and black pixels in a row, starting at a given point.
+   * The values are recorded in the given array, and the number of runs recorded is equal to the size
+   * of the array. If the row starts on a white pixel at the given start point, then the first count
+   * recorded is the run of white pixels starting from that point; likewise it is the count of a run
+   * of black pixels if the row begin on a black pixels at that point.
+   *
+   * @param row row to count from
+   * @param start offset into row to start at
+   * @param counters array into which to record counts
+   * @throws NotFoundException if counters cannot be filled entirely from row before running out
+   *  of pixels
+   */
+  protected static void recordPattern(BitArray row,
+                                      int start,
+                                      int[] counters) throws NotFoundException {
+    int numCounters = counters.length;
+    int end = row.getSize();
+    if (start >= end) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    boolean black = row.get(start);
+    int counterPosition = 0;
+    int i = start;
+    // Skip to the end of each run a word of the row at a time
+    while (counterPosition < numCounters && i < end) {
+      int next = black ? row.getNextUnset(i) : row.getNextSet(i);
+      counters[counterPosition++] = next - i;
+      i = next;
+      black = !black;
+    }
+    // If we filled up our counters, possibly running off the side of the image while filling
+    // the last one, OK. Otherwise, a problem.
+    if (counterPosition < numCounters) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+  }
+
+  /**
+   * Like {@link #recordPattern(BitArray, int, int[])}, but copies the counts from the runs of the
+   * row instead of counting pixels.
+   *
+   * @param row runs of the row to count from
+   * @param start offset into row to start at
+   * @param counters array into which to record counts
+   * @return false if counters cannot be filled entirely from row before running out of pixels
+   */
+  protected static boolean recordPattern(RunLengthRow row,
+                                         int start,
+                                         int[] counters) {
+    int numCounters = counters.length;
+    if (start >= row.getSize()) {
+      return false;
+    }
+    int run = row.getRunAt(start);
+    // The last counter may run off the side of the image, but must start in it
+    if (run + numCounters > row.getNumRuns()) {
+      return false;
+    }
+    int[] runs = row.getRuns();
+    counters[0] = row.getRunStarts()[run + 1] - start;
+    System.arraycopy(runs, run + 1, counters, 1, numCounters - 1);
+    return true;
+  }
+
+  protected static void recordPatternInReverse(BitArray row, int start, int[] counters)
+      throws NotFoundException {
+    int numTransitionsLeft = counters.length;
+    boolean last = row.get(start);
+    while (numTransitionsLeft >= 0) {
+      // Skip back to the last pixel of the previous run
+      start = last ? row.getPreviousUnset(start - 1) : row.getPreviousSet(start - 1);
+      if (start < 0) {
+        throw NotFoundException.getNotFoundInstance();
+      }
+      numTransitionsLeft--;
+      last = !last;
+    }
+    recordPattern(row, start + 1, counters);
+  }
+
+  /**
+   * Determines how closely a set of observed counts of runs of black/white values matches a given
+   * target pattern. This is reported as the ratio of the total variance from the expected pattern
+   * proportions across all pattern elements, to the length of the pattern.
+   *
+   * @param counters observed counters
+   * @param pattern expected pattern
+   * @param maxIndividualVariance The most any counter can differ before we give up
+   * @return ratio of total variance between counters and pattern compared to total pattern size
+   */
+  protected static float patternMatchVariance(int[] counters,
+                                              int[] pattern,
+                                              float maxIndividualVariance) {
+    int numCounters = counters.length;
+    int total = 0;
+    int patternLength = 0;
+    for (int i = 0; i < numCounters; i++) {
+      total += counters[i];
+      patternLength += pattern[i];
+    }
+    if (total < patternLength) {
+      // If we don't even have one pixel per unit of bar width, assume this is too small
+      // to reliably match, so fail:
+      return Float.POSITIVE_INFINITY;
+    }
+
+    float unitBarWidth = (float) total / patternLength;
+    maxIndividualVariance *= unitBarWidth;
+
+    float totalVariance = 0.0f;
+    for (int x = 0; x < numCounters; x++) {
+      int counter = counters[x];
+      float scaledPattern = pattern[x] * unitBarWidth;
+      float variance = counter > scaledPattern ? counter - scaledPattern : scaledPattern - counter;
+      if (variance > maxIndividualVariance) {
+        return Float.POSITIVE_INFINITY;
+      }
+      totalVariance += variance;
+    }
+    return totalVariance / total;
+  }
+
+  /**
+   * <p>Attempts to decode a one-dimensional barcode format given a single row of
+   * an image.</p>
+   *
+   * @param rowNumber row number from top of the row
+   * @param row the black/white pixel data of the row
+   * @param hints decode hints
+   * @return {@link Result} containing encoded string and start/end of barcode
+   * @throws NotFoundException if no potential barcode is found
+   * @throws ChecksumException if a potential barcode is found but does not pass its checksum
+   * @throws FormatException if a potential barcode is found but format is invalid
+   */
+  public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    Result result = tryDecodeRow(rowNumber, new RunLengthRow(row), DecodeConfig.of(hints));
+    if (result == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return result;
+  }
+
+  /**
+   * <p>Like {@link #decodeRow(int, BitArray, Map)}, but with the runs of the row already measured,
+   * so that several readers trying the same row measure them only once. A row that holds no
+   * barcode, which is what nearly every row is, is reported by returning {@code null} rather than
+   * by throwing.</p>
+   *
+   * @param rowNumber row number from top of the row
+   * @param row the runs of black/white pixels of the row
+   * @param config decode hints
+   * @return {@link Result} containing encoded string and start/end of barcode, or {@code null} if
+   *         no potential barcode is found
+   * @throws ChecksumException if a potential barcode is found but does not pass its checksum
+   * @throws FormatException if a potential barcode is found but format is invalid
+   */
+  public abstract Result tryDecodeRow(int rowNumber, RunLengthRow row, DecodeConfig config)
+      throws ChecksumException, FormatException;
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.common.BitArray;
+
+import java.util.Arrays;
+
+/**
+ * <p>A row of black/white pixels as the widths of its runs of white and black pixels, measured
+ * once so that every one-dimensional reader can walk bars and spaces instead of testing the
+ * {@link BitArray} a pixel at a time.</p>
+ *
+ * <p>Runs alternate in color, starting with white: even runs are white and odd runs are black.
+ * Run 0 is empty when the row starts with a black pixel; no other run is empty.</p>
+ *
+ * <p>The runs describe the row as it was when {@link #setRow(BitArray)} was called, and must be
+ * measured again after the row changes, except by {@link #reverse()}.</p>
+ */
+public final class RunLengthRow {
+
+  private BitArray row;
+  private int[] runs;
+  private int[] runStarts;
+  private int numRuns;
+  private boolean reversed;
+
+  public RunLengthRow() {
+    runs = new int[64];
+    runStarts = new int[65];
+  }
+
+  public RunLengthRow(BitArray row) {
+    this();
+    setRow(row);
+  }
+
+  /**
+   * Measures the runs of a row, replacing those of the previous one.
+   *
+   * @param row row to measure
+   */
+  public void setRow(BitArray row) {
+    this.row = row;
+    reversed = false;
+    int size = row.getSize();
+    if (size == 0) {
+      runStarts[0] = 0;
+      numRuns = 0;
+      return;
+    }
+    // Runs after run 0 start where a pixel differs from the one before it. Pixel 0 is listed if
+    // it is black, which leaves run 0 empty.
+    int numTransitions = row.getTransitions(runStarts, 1);
+    // The size follows the start of the last run
+    while (numTransitions < 0 || numTransitions + 2 > runStarts.length) {
+      int length = 2 * runStarts.length;
+      runs = new int[length - 1];
+      runStarts = new int[length];
+      numTransitions = row.getTransitions(runStarts, 1);
+    }
+    int[] runs = this.runs;
+    int[] runStarts = this.runStarts;
+    int numRuns = numTransitions + 1;
+    runStarts[0] = 0;
+    runStarts[numRuns] = size;
+    for (int i = 0; i < numRuns; i++) {
+      runs[i] = runStarts[i + 1] - runStarts[i];
+    }
+    this.numRuns = numRuns;
+  }
+
+  /**
+   * Reverses the row in place, and the runs with it, which are mirrored rather than measured again.
+   */
+  public void reverse() {
+    row.reverse();
+    reversed = !reversed;
+    int numRuns = this.numRuns;
+    if (numRuns == 0) {
+      return;
+    }
+    int[] runs = this.runs;
+    for (int i = 0, j = numRuns - 1; i < j; i++, j--) {
+      int run = runs[i];
+      runs[i] = runs[j];
+      runs[j] = run;
+    }
+    // An empty run 0 is now last, and goes; a black run now first needs an empty run 0 before it
+    if (runs[numRuns - 1] == 0) {
+      numRuns--;
+    }
+    if ((this.numRuns & 0x01) == 0) {
+      if (numRuns + 2 > runStarts.length) {
+        runStarts = new int[2 * runStarts.length];
+        runs = Arrays.copyOf(runs, runStarts.length - 1);
+        this.runs = runs;
+      }
+      System.arraycopy(runs, 0, runs, 1, numRuns);
+      runs[0] = 0;
+      numRuns++;
+    }
+    int[] runStarts = this.runStarts;
+    int start = 0;
+    for (int i = 0; i < numRuns; i++) {
+      runStarts[i] = start;
+      start += runs[i];
+    }
+    runStarts[numRuns] = start;
+    this.numRuns = numRuns;
+  }
+
+  /**
+   * @return true if the row has been reversed since it was measured
+   */
+  public boolean isReversed() {
+    return reversed;
+  }
+
+  /**
+   * @return the row the runs were measured from
+   */
+  public BitArray getRow() {
+    return row;
+  }
+
+  /**
+   * @return size of the row in pixels
+   */
+  public int getSize() {
+    return runStarts[numRuns];
+  }
+
+  public int getNumRuns() {
+    return numRuns;
+  }
+
+  /**
+   * @return widths of the runs; only the first {@link #getNumRuns()} are meaningful
+   */
+  public int[] getRuns() {
+    return runs;
+  }
+
+  /**
+   * @return pixel offset where each run starts, followed by the size of the row; only the first
+   *  {@link #getNumRuns()} + 1 are meaningful
+   */
+  public int[] getRunStarts() {
+    return runStarts;
+  }
+
+  /**
+   * @param x pixel offset in the row, which must be in the row
+   * @return index of the run holding that pixel
+   */
+  public int getRunAt(int x) {
+    // Last run starting at or before x: the empty run 0 is never picked, since run 1 starts at 0 too
+    int low = 0;
+    int high = numRuns - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (runStarts[mid] <= x) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+}
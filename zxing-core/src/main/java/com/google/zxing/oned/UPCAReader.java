@@ -19,11 +19,11 @@ package com.google.zxing.oned;
 import com.google.zxing.parse.BarcodeFormat;
 import com.google.zxing.parse.BinaryBitmap;
 import com.google.zxing.ChecksumException;
+import com.google.zxing.parse.DecodeConfig;
 import com.google.zxing.parse.DecodeHintType;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
 import com.google.zxing.parse.Result;
-import com.google.zxing.common.BitArray;
 
 import java.util.Map;
 
@@ -38,18 +38,18 @@ public final class UPCAReader extends UPCEANReader {
   private final UPCEANReader ean13Reader = new EAN13Reader();
 
   @Override
-  public Result decodeRow(int rowNumber,
-                          BitArray row,
-                          int[] startGuardRange,
-                          Map<DecodeHintType,?> hints)
-      throws NotFoundException, FormatException, ChecksumException {
-    return maybeReturnResult(ean13Reader.decodeRow(rowNumber, row, startGuardRange, hints));
+  public Result tryDecodeRow(int rowNumber,
+                             RunLengthRow row,
+                             int[] startGuardRange,
+                             DecodeConfig config)
+      throws FormatException, ChecksumException {
+    return maybeReturnResult(ean13Reader.tryDecodeRow(rowNumber, row, startGuardRange, config));
   }
 
   @Override
-  public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
-      throws NotFoundException, FormatException, ChecksumException {
-    return maybeReturnResult(ean13Reader.decodeRow(rowNumber, row, hints));
+  public Result tryDecodeRow(int rowNumber, RunLengthRow row, DecodeConfig config)
+      throws FormatException, ChecksumException {
+    return maybeReturnResult(ean13Reader.tryDecodeRow(rowNumber, row, config));
   }
 
   @Override
@@ -69,12 +69,14 @@ public final class UPCAReader extends UPCEANReader {
   }
 
   @Override
-  protected int decodeMiddle(BitArray row, int[] startRange, StringBuilder resultString)
-      throws NotFoundException {
+  protected int decodeMiddle(RunLengthRow row, int[] startRange, StringBuilder resultString) {
     return ean13Reader.decodeMiddle(row, startRange, resultString);
   }
 
   private static Result maybeReturnResult(Result result) throws FormatException {
+    if (result == null) {
+      return null;
+    }
     String text = result.getText();
     if (text.charAt(0) == '0') {
       Result upcaResult = new Result(text.substring(1), null, result.getResultPoints(), BarcodeFormat.UPC_A);
@@ -17,17 +17,13 @@
 package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
-import com.google.zxing.NotFoundException;
 import com.google.zxing.parse.Result;
 import com.google.zxing.parse.ResultMetadataType;
 import com.google.zxing.parse.ResultPoint;
-import com.google.zxing.common.BitArray;
 
 import java.util.EnumMap;
 import java.util.Map;
 
-import static com.google.zxing.uitls.MathUitl.stringToInt;
-
 /**
  * @see UPCEANExtension5Support
  */
@@ -36,11 +32,14 @@ final class UPCEANExtension2Support {
   private final int[] decodeMiddleCounters = new int[4];
   private final StringBuilder decodeRowStringBuffer = new StringBuilder();
 
-  Result decodeRow(int rowNumber, BitArray row, int[] extensionStartRange) throws NotFoundException {
+  Result decodeRow(int rowNumber, RunLengthRow row, int[] extensionStartRange) {
 
     StringBuilder result = decodeRowStringBuffer;
     result.setLength(0);
     int end = decodeMiddle(row, extensionStartRange, result);
+    if (end < 0) {
+      return null;
+    }
 
     String resultString = result.toString();
     Map<ResultMetadataType,Object> extensionData = parseExtensionString(resultString);
@@ -59,7 +58,7 @@ final class UPCEANExtension2Support {
     return extensionResult;
   }
 
-  private int decodeMiddle(BitArray row, int[] startRange, StringBuilder resultString) throws NotFoundException {
+  private int decodeMiddle(RunLengthRow row, int[] startRange, StringBuilder resultString) {
     int[] counters = decodeMiddleCounters;
     counters[0] = 0;
     counters[1] = 0;
@@ -72,6 +71,9 @@ final class UPCEANExtension2Support {
 
     for (int x = 0; x < 2 && rowOffset < end; x++) {
       int bestMatch = UPCEANReader.decodeDigit(row, counters, rowOffset, UPCEANReader.L_AND_G_PATTERNS);
+      if (bestMatch < 0) {
+        return -1;
+      }
       resultString.append((char) ('0' + bestMatch % 10));
       for (int counter : counters) {
         rowOffset += counter;
@@ -81,17 +83,17 @@ final class UPCEANExtension2Support {
       }
       if (x != 1) {
         // Read off separator if not last
-        rowOffset = row.getNextSet(rowOffset);
-        rowOffset = row.getNextUnset(rowOffset);
+        rowOffset = row.getRow().getNextSet(rowOffset);
+        rowOffset = row.getRow().getNextUnset(rowOffset);
       }
     }
 
     if (resultString.length() != 2) {
-      throw NotFoundException.getNotFoundInstance();
+      return -1;
     }
 
     if (Integer.parseInt(resultString.toString()) % 4 != checkParity) {
-      throw NotFoundException.getNotFoundInstance();
+      return -1;
     }
 
     return rowOffset;
@@ -107,7 +109,7 @@ final class UPCEANExtension2Support {
       return null;
     }
     Map<ResultMetadataType,Object> result = new EnumMap<>(ResultMetadataType.class);
-    result.put(ResultMetadataType.ISSUE_NUMBER, stringToInt(raw));
+    result.put(ResultMetadataType.ISSUE_NUMBER, Integer.valueOf(raw));
     return result;
   }
 
@@ -17,11 +17,9 @@
 package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
-import com.google.zxing.NotFoundException;
 import com.google.zxing.parse.Result;
 import com.google.zxing.parse.ResultMetadataType;
 import com.google.zxing.parse.ResultPoint;
-import com.google.zxing.common.BitArray;
 
 import java.util.EnumMap;
 import java.util.Map;
@@ -38,11 +36,14 @@ final class UPCEANExtension5Support {
   private final int[] decodeMiddleCounters = new int[4];
   private final StringBuilder decodeRowStringBuffer = new StringBuilder();
 
-  Result decodeRow(int rowNumber, BitArray row, int[] extensionStartRange) throws NotFoundException {
+  Result decodeRow(int rowNumber, RunLengthRow row, int[] extensionStartRange) {
 
     StringBuilder result = decodeRowStringBuffer;
     result.setLength(0);
     int end = decodeMiddle(row, extensionStartRange, result);
+    if (end < 0) {
+      return null;
+    }
 
     String resultString = result.toString();
     Map<ResultMetadataType,Object> extensionData = parseExtensionString(resultString);
@@ -61,7 +62,7 @@ final class UPCEANExtension5Support {
     return extensionResult;
   }
 
-  private int decodeMiddle(BitArray row, int[] startRange, StringBuilder resultString) throws NotFoundException {
+  private int decodeMiddle(RunLengthRow row, int[] startRange, StringBuilder resultString) {
     int[] counters = decodeMiddleCounters;
     counters[0] = 0;
     counters[1] = 0;
@@ -74,6 +75,9 @@ final class UPCEANExtension5Support {
 
     for (int x = 0; x < 5 && rowOffset < end; x++) {
       int bestMatch = UPCEANReader.decodeDigit(row, counters, rowOffset, UPCEANReader.L_AND_G_PATTERNS);
+      if (bestMatch < 0) {
+        return -1;
+      }
       resultString.append((char) ('0' + bestMatch % 10));
       for (int counter : counters) {
         rowOffset += counter;
@@ -83,18 +87,18 @@ final class UPCEANExtension5Support {
       }
       if (x != 4) {
         // Read off separator if not last
-        rowOffset = row.getNextSet(rowOffset);
-        rowOffset = row.getNextUnset(rowOffset);
+        rowOffset = row.getRow().getNextSet(rowOffset);
+        rowOffset = row.getRow().getNextUnset(rowOffset);
       }
     }
 
     if (resultString.length() != 5) {
-      throw NotFoundException.getNotFoundInstance();
+      return -1;
     }
 
     int checkDigit = determineCheckDigit(lgPatternFound);
     if (extensionChecksum(resultString.toString()) != checkDigit) {
-      throw NotFoundException.getNotFoundInstance();
+      return -1;
     }
 
     return rowOffset;
@@ -114,14 +118,13 @@ final class UPCEANExtension5Support {
     return sum % 10;
   }
 
-  private static int determineCheckDigit(int lgPatternFound)
-      throws NotFoundException {
+  private static int determineCheckDigit(int lgPatternFound) {
     for (int d = 0; d < 10; d++) {
       if (lgPatternFound == CHECK_DIGIT_ENCODINGS[d]) {
         return d;
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return -1;
   }
 
   /**
@@ -16,10 +16,7 @@
 
 package com.google.zxing.oned;
 
-import com.google.zxing.NotFoundException;
-import com.google.zxing.ReaderException;
 import com.google.zxing.parse.Result;
-import com.google.zxing.common.BitArray;
 
 final class UPCEANExtensionSupport {
 
@@ -28,13 +25,19 @@ final class UPCEANExtensionSupport {
   private final UPCEANExtension2Support twoSupport = new UPCEANExtension2Support();
   private final UPCEANExtension5Support fiveSupport = new UPCEANExtension5Support();
 
-  Result decodeRow(int rowNumber, BitArray row, int rowOffset) throws NotFoundException {
+  /**
+   * @return the extension after the end guard of the code, or {@code null} if there is none
+   */
+  Result decodeRow(int rowNumber, RunLengthRow row, int rowOffset) {
     int[] extensionStartRange = UPCEANReader.findGuardPattern(row, rowOffset, false, EXTENSION_START_PATTERN);
-    try {
-      return fiveSupport.decodeRow(rowNumber, row, extensionStartRange);
-    } catch (ReaderException ignored) {
-      return twoSupport.decodeRow(rowNumber, row, extensionStartRange);
+    if (extensionStartRange == null) {
+      return null;
     }
+    Result result = fiveSupport.decodeRow(rowNumber, row, extensionStartRange);
+    if (result == null) {
+      result = twoSupport.decodeRow(rowNumber, row, extensionStartRange);
+    }
+    return result;
   }
 
 }
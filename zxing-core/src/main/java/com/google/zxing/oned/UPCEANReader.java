@@ -18,18 +18,14 @@ package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
 import com.google.zxing.ChecksumException;
-import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.parse.DecodeConfig;
 import com.google.zxing.FormatException;
-import com.google.zxing.NotFoundException;
-import com.google.zxing.ReaderException;
 import com.google.zxing.parse.Result;
 import com.google.zxing.parse.ResultMetadataType;
 import com.google.zxing.parse.ResultPoint;
 import com.google.zxing.parse.ResultPointCallback;
-import com.google.zxing.common.BitArray;
 
 import java.util.Arrays;
-import java.util.Map;
 
 /**
  * <p>Encapsulates functionality and implementation that is common to UPC and EAN families
@@ -104,55 +100,106 @@ public abstract class UPCEANReader extends OneDReader {
     eanManSupport = new EANManufacturerOrgSupport();
   }
 
-  static int[] findStartGuardPattern(BitArray row) throws NotFoundException {
-    boolean foundStart = false;
-    int[] startRange = null;
-    int nextStart = 0;
+  /**
+   * Finds the first start guard pattern in the row with a quiet zone at least as wide as itself
+   * before it. The quiet zone is the white run just before the pattern.
+   *
+   * @param row runs of black/white values to search
+   * @return start/end horizontal offset of the start guard pattern, or {@code null} if no start
+   *         guard pattern with a quiet zone is found
+   */
+  static int[] findStartGuardPattern(RunLengthRow row) {
+    int numRuns = row.getNumRuns();
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
+    int[] counters = new int[START_END_PATTERN.length];
+    int patternLength = counters.length;
+    // Windows start on a black run, and their last run must end before the row does
+    int run = 1;
+    while (run + patternLength < numRuns) {
+      System.arraycopy(runs, run, counters, 0, patternLength);
+      if (patternMatchVariance(counters, START_END_PATTERN, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+        int start = runStarts[run];
+        int end = runStarts[run + patternLength];
+        // Make sure there is a quiet zone at least as big as the start pattern before the barcode.
+        // If this check would run off the left edge of the image, do not accept this barcode,
+        // as it is very likely to be a false positive.
+        if (runs[run - 1] >= end - start) {
+          return new int[]{start, end};
+        }
+        // Start over from the next black run
+        run += patternLength + 1;
+      } else {
+        run += 2;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Like {@link #findStartGuardPattern(RunLengthRow)}, but only tells which ways a start guard
+   * with its quiet zone is found, reading the row left to right and right to left in the same pass.
+   * The guard reads the same both ways; read right to left, its quiet zone is the white run after it.
+   *
+   * @param row runs of black/white values to search
+   * @return {@link #LEFT_TO_RIGHT} and/or {@link #RIGHT_TO_LEFT}, or 0 if neither way has one
+   */
+  static int findStartGuardPatternDirections(RunLengthRow row) {
+    int numRuns = row.getNumRuns();
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
     int[] counters = new int[START_END_PATTERN.length];
-    while (!foundStart) {
-      Arrays.fill(counters, 0, START_END_PATTERN.length, 0);
-      startRange = findGuardPattern(row, nextStart, false, START_END_PATTERN, counters);
-      int start = startRange[0];
-      nextStart = startRange[1];
-      // Make sure there is a quiet zone at least as big as the start pattern before the barcode.
-      // If this check would run off the left edge of the image, do not accept this barcode,
-      // as it is very likely to be a false positive.
-      int quietStart = start - (nextStart - start);
-      if (quietStart >= 0) {
-        foundStart = row.isRange(quietStart, start, false);
+    int patternLength = counters.length;
+    int directions = 0;
+    // Read right to left, a window needs a run before it instead, which an empty run 0 is not
+    for (int run = 1; run + patternLength < numRuns && directions != BOTH_DIRECTIONS; run += 2) {
+      System.arraycopy(runs, run, counters, 0, patternLength);
+      if (patternMatchVariance(counters, START_END_PATTERN, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+        int width = runStarts[run + patternLength] - runStarts[run];
+        if (runs[run - 1] >= width) {
+          directions |= LEFT_TO_RIGHT;
+        }
+        if ((run > 1 || runs[0] > 0) && runs[run + patternLength] >= width) {
+          directions |= RIGHT_TO_LEFT;
+        }
       }
     }
-    return startRange;
+    return directions;
+  }
+
+  @Override
+  protected int findStartGuardDirections(RunLengthRow row) {
+    return findStartGuardPatternDirections(row);
   }
 
   @Override
-  public Result decodeRow(int rowNumber, BitArray row, Map<DecodeHintType,?> hints)
-      throws NotFoundException, ChecksumException, FormatException {
-    return decodeRow(rowNumber, row, findStartGuardPattern(row), hints);
+  public Result tryDecodeRow(int rowNumber, RunLengthRow row, DecodeConfig config)
+      throws ChecksumException, FormatException {
+    int[] startGuardRange = findStartGuardPattern(row);
+    return startGuardRange == null ? null : tryDecodeRow(rowNumber, row, startGuardRange, config);
   }
 
   /**
-   * <p>Like {@link #decodeRow(int, BitArray, Map)}, but
+   * <p>Like {@link #tryDecodeRow(int, RunLengthRow, DecodeConfig)}, but
    * allows caller to inform method about where the UPC/EAN start pattern is
    * found. This allows this to be computed once and reused across many implementations.</p>
    *
    * @param rowNumber row index into the image
-   * @param row encoding of the row of the barcode image
+   * @param row runs of the row of the barcode image
    * @param startGuardRange start/end column where the opening start pattern was found
-   * @param hints optional hints that influence decoding
-   * @return {@link Result} encapsulating the result of decoding a barcode in the row
-   * @throws NotFoundException if no potential barcode is found
+   * @param config optional hints that influence decoding
+   * @return {@link Result} encapsulating the result of decoding a barcode in the row, or
+   *         {@code null} if no potential barcode is found
    * @throws ChecksumException if a potential barcode is found but does not pass its checksum
    * @throws FormatException if a potential barcode is found but format is invalid
    */
-  public Result decodeRow(int rowNumber,
-                          BitArray row,
-                          int[] startGuardRange,
-                          Map<DecodeHintType,?> hints)
-      throws NotFoundException, ChecksumException, FormatException {
+  public Result tryDecodeRow(int rowNumber,
+                             RunLengthRow row,
+                             int[] startGuardRange,
+                             DecodeConfig config)
+      throws ChecksumException, FormatException {
 
-    ResultPointCallback resultPointCallback = hints == null ? null :
-        (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    ResultPointCallback resultPointCallback = config.getResultPointCallback();
 
     if (resultPointCallback != null) {
       resultPointCallback.foundPossibleResultPoint(new ResultPoint(
@@ -163,6 +210,9 @@ public abstract class UPCEANReader extends OneDReader {
     StringBuilder result = decodeRowStringBuffer;
     result.setLength(0);
     int endStart = decodeMiddle(row, startGuardRange, result);
+    if (endStart < 0) {
+      return null;
+    }
 
     if (resultPointCallback != null) {
       resultPointCallback.foundPossibleResultPoint(new ResultPoint(
@@ -171,6 +221,9 @@ public abstract class UPCEANReader extends OneDReader {
     }
 
     int[] endRange = decodeEnd(row, endStart);
+    if (endRange == null) {
+      return null;
+    }
 
     if (resultPointCallback != null) {
       resultPointCallback.foundPossibleResultPoint(new ResultPoint(
@@ -183,8 +236,8 @@ public abstract class UPCEANReader extends OneDReader {
     // spec might want more whitespace, but in practice this is the maximum we can count on.
     int end = endRange[1];
     int quietEnd = end + (end - endRange[0]);
-    if (quietEnd >= row.getSize() || !row.isRange(end, quietEnd, false)) {
-      throw NotFoundException.getNotFoundInstance();
+    if (quietEnd >= row.getSize() || !row.getRow().isRange(end, quietEnd, false)) {
+      return null;
     }
 
     String resultString = result.toString();
@@ -208,18 +261,15 @@ public abstract class UPCEANReader extends OneDReader {
 
     int extensionLength = 0;
 
-    try {
-      Result extensionResult = extensionReader.decodeRow(rowNumber, row, endRange[1]);
+    Result extensionResult = extensionReader.decodeRow(rowNumber, row, endRange[1]);
+    if (extensionResult != null) {
       decodeResult.putMetadata(ResultMetadataType.UPC_EAN_EXTENSION, extensionResult.getText());
       decodeResult.putAllMetadata(extensionResult.getResultMetadata());
       decodeResult.addResultPoints(extensionResult.getResultPoints());
       extensionLength = extensionResult.getText().length();
-    } catch (ReaderException re) {
-      // continue
     }
 
-    int[] allowedExtensions =
-        hints == null ? null : (int[]) hints.get(DecodeHintType.ALLOWED_EAN_EXTENSIONS);
+    int[] allowedExtensions = config.getAllowedEanExtensions();
     if (allowedExtensions != null) {
       boolean valid = false;
       for (int length : allowedExtensions) {
@@ -229,7 +279,7 @@ public abstract class UPCEANReader extends OneDReader {
         }
       }
       if (!valid) {
-        throw NotFoundException.getNotFoundInstance();
+        return null;
       }
     }
 
@@ -290,77 +340,72 @@ public abstract class UPCEANReader extends OneDReader {
     return (1000 - sum) % 10;
   }
 
-  int[] decodeEnd(BitArray row, int endStart) throws NotFoundException {
+  /**
+   * @param row runs of black/white values to search
+   * @param endStart horizontal offset of the first pixel after the middle
+   * @return start/end horizontal offset of the end guard pattern, or {@code null} if it is not found
+   */
+  int[] decodeEnd(RunLengthRow row, int endStart) {
     return findGuardPattern(row, endStart, false, START_END_PATTERN);
   }
 
-  static int[] findGuardPattern(BitArray row,
-                                int rowOffset,
-                                boolean whiteFirst,
-                                int[] pattern) throws NotFoundException {
-    return findGuardPattern(row, rowOffset, whiteFirst, pattern, new int[pattern.length]);
-  }
-
   /**
-   * @param row row of black/white values to search
+   * @param row runs of black/white values to search
    * @param rowOffset position to start search
    * @param whiteFirst if true, indicates that the pattern specifies white/black/white/...
    * pixel counts, otherwise, it is interpreted as black/white/black/...
    * @param pattern pattern of counts of number of black and white pixels that are being
    * searched for as a pattern
-   * @param counters array of counters, as long as pattern, to re-use
-   * @return start/end horizontal offset of guard pattern, as an array of two ints
-   * @throws NotFoundException if pattern is not found
+   * @return start/end horizontal offset of guard pattern, as an array of two ints, or
+   *         {@code null} if pattern is not found
    */
-  private static int[] findGuardPattern(BitArray row,
-                                        int rowOffset,
-                                        boolean whiteFirst,
-                                        int[] pattern,
-                                        int[] counters) throws NotFoundException {
-    int width = row.getSize();
-    rowOffset = whiteFirst ? row.getNextUnset(rowOffset) : row.getNextSet(rowOffset);
-    int counterPosition = 0;
-    int patternStart = rowOffset;
+  static int[] findGuardPattern(RunLengthRow row,
+                                int rowOffset,
+                                boolean whiteFirst,
+                                int[] pattern) {
+    if (rowOffset >= row.getSize()) {
+      return null;
+    }
+    int numRuns = row.getNumRuns();
+    int[] runs = row.getRuns();
+    int[] runStarts = row.getRunStarts();
     int patternLength = pattern.length;
-    boolean isWhite = whiteFirst;
-    for (int x = rowOffset; x < width; x++) {
-      if (row.get(x) != isWhite) {
-        counters[counterPosition]++;
-      } else {
-        if (counterPosition == patternLength - 1) {
-          if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
-            return new int[]{patternStart, x};
-          }
-          patternStart += counters[0] + counters[1];
-          System.arraycopy(counters, 2, counters, 0, counterPosition - 1);
-          counters[counterPosition - 1] = 0;
-          counters[counterPosition] = 0;
-          counterPosition--;
-        } else {
-          counterPosition++;
-        }
-        counters[counterPosition] = 1;
-        isWhite = !isWhite;
+    int[] counters = new int[patternLength];
+    // The pattern starts at rowOffset if it is of the right color there, and at the next run if not
+    int run = row.getRunAt(rowOffset);
+    int patternStart = rowOffset;
+    if (((run & 0x01) == 0) != whiteFirst) {
+      run++;
+      patternStart = runStarts[run];
+    }
+    // The last run of a window must end before the row does
+    while (run + patternLength < numRuns) {
+      counters[0] = runStarts[run + 1] - patternStart;
+      System.arraycopy(runs, run + 1, counters, 1, patternLength - 1);
+      if (patternMatchVariance(counters, pattern, MAX_INDIVIDUAL_VARIANCE) < MAX_AVG_VARIANCE) {
+        return new int[]{patternStart, runStarts[run + patternLength]};
       }
+      run += 2;
+      patternStart = runStarts[run];
     }
-    throw NotFoundException.getNotFoundInstance();
+    return null;
   }
 
   /**
    * Attempts to decode a single UPC/EAN-encoded digit.
    *
-   * @param row row of black/white values to decode
+   * @param row runs of black/white values to decode
    * @param counters the counts of runs of observed black/white/black/... values
    * @param rowOffset horizontal offset to start decoding from
    * @param patterns the set of patterns to use to decode -- sometimes different encodings
    * for the digits 0-9 are used, and this indicates the encodings for 0 to 9 that should
    * be used
-   * @return horizontal offset of first pixel beyond the decoded digit
-   * @throws NotFoundException if digit cannot be decoded
+   * @return index of the pattern of the decoded digit, or -1 if digit cannot be decoded
    */
-  static int decodeDigit(BitArray row, int[] counters, int rowOffset, int[][] patterns)
-      throws NotFoundException {
-    recordPattern(row, rowOffset, counters);
+  static int decodeDigit(RunLengthRow row, int[] counters, int rowOffset, int[][] patterns) {
+    if (!recordPattern(row, rowOffset, counters)) {
+      return -1;
+    }
     float bestVariance = MAX_AVG_VARIANCE; // worst variance we'll accept
     int bestMatch = -1;
     int max = patterns.length;
@@ -372,11 +417,7 @@ public abstract class UPCEANReader extends OneDReader {
         bestMatch = i;
       }
     }
-    if (bestMatch >= 0) {
-      return bestMatch;
-    } else {
-      throw NotFoundException.getNotFoundInstance();
-    }
+    return bestMatch;
   }
 
   /**
@@ -390,14 +431,14 @@ public abstract class UPCEANReader extends OneDReader {
    * Subclasses override this to decode the portion of a barcode between the start
    * and end guard patterns.
    *
-   * @param row row of black/white values to search
+   * @param row runs of black/white values to search
    * @param startRange start/end offset of start guard pattern
    * @param resultString {@link StringBuilder} to append decoded chars to
-   * @return horizontal offset of first pixel after the "middle" that was decoded
-   * @throws NotFoundException if decoding could not complete successfully
+   * @return horizontal offset of first pixel after the "middle" that was decoded, or -1 if
+   *         decoding could not complete successfully
    */
-  protected abstract int decodeMiddle(BitArray row,
+  protected abstract int decodeMiddle(RunLengthRow row,
                                       int[] startRange,
-                                      StringBuilder resultString) throws NotFoundException;
+                                      StringBuilder resultString);
 
 }
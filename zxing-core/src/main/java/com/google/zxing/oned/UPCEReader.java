@@ -18,8 +18,6 @@ package com.google.zxing.oned;
 
 import com.google.zxing.parse.BarcodeFormat;
 import com.google.zxing.FormatException;
-import com.google.zxing.NotFoundException;
-import com.google.zxing.common.BitArray;
 
 /**
  * <p>Implements decoding of the UPC-E format.</p>
@@ -77,8 +75,7 @@ public final class UPCEReader extends UPCEANReader {
   }
 
   @Override
-  protected int decodeMiddle(BitArray row, int[] startRange, StringBuilder result)
-      throws NotFoundException {
+  protected int decodeMiddle(RunLengthRow row, int[] startRange, StringBuilder result) {
     int[] counters = decodeMiddleCounters;
     counters[0] = 0;
     counters[1] = 0;
@@ -91,6 +88,9 @@ public final class UPCEReader extends UPCEANReader {
 
     for (int x = 0; x < 6 && rowOffset < end; x++) {
       int bestMatch = decodeDigit(row, counters, rowOffset, L_AND_G_PATTERNS);
+      if (bestMatch < 0) {
+        return -1;
+      }
       result.append((char) ('0' + bestMatch % 10));
       for (int counter : counters) {
         rowOffset += counter;
@@ -100,13 +100,15 @@ public final class UPCEReader extends UPCEANReader {
       }
     }
 
-    determineNumSysAndCheckDigit(result, lgPatternFound);
+    if (!determineNumSysAndCheckDigit(result, lgPatternFound)) {
+      return -1;
+    }
 
     return rowOffset;
   }
 
   @Override
-  protected int[] decodeEnd(BitArray row, int endStart) throws NotFoundException {
+  protected int[] decodeEnd(RunLengthRow row, int endStart) {
     return findGuardPattern(row, endStart, true, MIDDLE_END_PATTERN);
   }
 
@@ -115,19 +117,18 @@ public final class UPCEReader extends UPCEANReader {
     return super.checkChecksum(convertUPCEtoUPCA(s));
   }
 
-  private static void determineNumSysAndCheckDigit(StringBuilder resultString, int lgPatternFound)
-      throws NotFoundException {
+  private static boolean determineNumSysAndCheckDigit(StringBuilder resultString, int lgPatternFound) {
 
     for (int numSys = 0; numSys <= 1; numSys++) {
       for (int d = 0; d < 10; d++) {
         if (lgPatternFound == NUMSYS_AND_CHECK_DIGIT_PATTERNS[numSys][d]) {
           resultString.insert(0, (char) ('0' + numSys));
           resultString.append((char) ('0' + d));
-          return;
+          return true;
         }
       }
     }
-    throw NotFoundException.getNotFoundInstance();
+    return false;
   }
 
   @Override
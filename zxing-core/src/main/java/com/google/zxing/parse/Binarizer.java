@@ -56,6 +56,23 @@ public abstract class Binarizer {
    */
   public abstract BitArray getBlackRow(int y, BitArray row) throws NotFoundException;
 
+  /**
+   * Like {@link #getBlackRow(int, BitArray)}, but returns null if the row can't be binarized.
+   * 1D readers ask for many rows of a frame, most of which can't be binarized when there is no
+   * barcode in it, so implementations should override this to fail without an exception.
+   *
+   * @param y The row to fetch, which must be in [0, bitmap height)
+   * @param row An optional preallocated array, as for {@link #getBlackRow(int, BitArray)}
+   * @return The array of bits for this row (true means black), or null if it can't be binarized
+   */
+  public BitArray tryGetBlackRow(int y, BitArray row) {
+    try {
+      return getBlackRow(y, row);
+    } catch (NotFoundException nfe) {
+      return null;
+    }
+  }
+
   /**
    * Converts a 2D array of luminance data to 1 bit data. As above, assume this method is expensive
    * and do not call it repeatedly. This method is intended for decoding 2D barcodes and may or
@@ -17,6 +17,7 @@
 package com.google.zxing.parse;
 
 import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BinarizationCache;
 import com.google.zxing.common.BitArray;
 import com.google.zxing.common.BitMatrix;
 
@@ -29,13 +30,23 @@ import com.google.zxing.common.BitMatrix;
 public final class BinaryBitmap {
 
   private final Binarizer binarizer;
+  private final BinarizationCache cache;
   private BitMatrix matrix;
 
   public BinaryBitmap(Binarizer binarizer) {
+    this(binarizer, null);
+  }
+
+  /**
+   * @param cache where bitmaps of the same frame share their black rows and matrices, or
+   *              {@code null}. Cropped and rotated bitmaps use it too.
+   */
+  public BinaryBitmap(Binarizer binarizer, BinarizationCache cache) {
     if (binarizer == null) {
       throw new IllegalArgumentException("Binarizer must be non-null.");
     }
     this.binarizer = binarizer;
+    this.cache = cache;
   }
 
   /**
@@ -64,7 +75,18 @@ public final class BinaryBitmap {
    * @throws NotFoundException if row can't be binarized
    */
   public BitArray getBlackRow(int y, BitArray row) throws NotFoundException {
-    return binarizer.getBlackRow(y, row);
+    return cache != null ? cache.getBlackRow(binarizer, y, row) : binarizer.getBlackRow(y, row);
+  }
+
+  /**
+   * Like {@link #getBlackRow(int, BitArray)}, but returns null if the row can't be binarized.
+   *
+   * @param y The row to fetch, which must be in [0, bitmap height)
+   * @param row An optional preallocated array, as for {@link #getBlackRow(int, BitArray)}
+   * @return The array of bits for this row (true means black), or null if it can't be binarized
+   */
+  public BitArray tryGetBlackRow(int y, BitArray row) {
+    return cache != null ? cache.tryGetBlackRow(binarizer, y, row) : binarizer.tryGetBlackRow(y, row);
   }
 
   /**
@@ -83,7 +105,7 @@ public final class BinaryBitmap {
     //    1D Reader finds a barcode before the 2D Readers run.
     // 2. This work will only be done once even if the caller installs multiple 2D Readers.
     if (matrix == null) {
-      matrix = binarizer.getBlackMatrix();
+      matrix = cache != null ? cache.getBlackMatrix(binarizer) : binarizer.getBlackMatrix();
     }
     return matrix;
   }
@@ -107,7 +129,7 @@ public final class BinaryBitmap {
    */
   public BinaryBitmap crop(int left, int top, int width, int height) {
     LuminanceSource newSource = binarizer.getLuminanceSource().crop(left, top, width, height);
-    return new BinaryBitmap(binarizer.createBinarizer(newSource));
+    return new BinaryBitmap(binarizer.createBinarizer(newSource), cache);
   }
 
   /**
@@ -125,7 +147,7 @@ public final class BinaryBitmap {
    */
   public BinaryBitmap rotateCounterClockwise() {
     LuminanceSource newSource = binarizer.getLuminanceSource().rotateCounterClockwise();
-    return new BinaryBitmap(binarizer.createBinarizer(newSource));
+    return new BinaryBitmap(binarizer.createBinarizer(newSource), cache);
   }
 
   /**
@@ -136,7 +158,7 @@ public final class BinaryBitmap {
    */
   public BinaryBitmap rotateCounterClockwise45() {
     LuminanceSource newSource = binarizer.getLuminanceSource().rotateCounterClockwise45();
-    return new BinaryBitmap(binarizer.createBinarizer(newSource));
+    return new BinaryBitmap(binarizer.createBinarizer(newSource), cache);
   }
 
   @Override
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.parse;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * <p>The decode hints, read once into typed fields. Readers look at these for every frame and
+ * every row, which would otherwise be a map lookup each time. {@link MultiFormatReader#setHints(Map)}
+ * builds one for all of its readers; the methods that take a hints map build one from it with
+ * {@link #of(Map)}.</p>
+ *
+ * <p>Instances are immutable, provided the hints map and its values are not changed after
+ * building one.</p>
+ */
+public final class DecodeConfig {
+
+  /**
+   * No hints at all.
+   */
+  public static final DecodeConfig DEFAULT = new DecodeConfig(null);
+
+  private final Map<DecodeHintType,?> hints;
+  private final boolean tryHarder;
+  private final boolean pureBarcode;
+  private final Collection<BarcodeFormat> possibleFormats;
+  private final int[] allowedLengths;
+  private final boolean assumeCode39CheckDigit;
+  private final boolean assumeGS1;
+  private final boolean returnCodabarStartEnd;
+  private final ResultPointCallback resultPointCallback;
+  private final int[] allowedEanExtensions;
+  private final DecodeConfig withoutResultPointCallback;
+
+  @SuppressWarnings("unchecked")
+  private DecodeConfig(Map<DecodeHintType,?> hints) {
+    this.hints = hints;
+    if (hints == null) {
+      tryHarder = false;
+      pureBarcode = false;
+      possibleFormats = null;
+      allowedLengths = null;
+      assumeCode39CheckDigit = false;
+      assumeGS1 = false;
+      returnCodabarStartEnd = false;
+      resultPointCallback = null;
+      allowedEanExtensions = null;
+      withoutResultPointCallback = this;
+      return;
+    }
+    tryHarder = hints.containsKey(DecodeHintType.TRY_HARDER);
+    pureBarcode = hints.containsKey(DecodeHintType.PURE_BARCODE);
+    possibleFormats = (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
+    allowedLengths = (int[]) hints.get(DecodeHintType.ALLOWED_LENGTHS);
+    assumeCode39CheckDigit = hints.get(DecodeHintType.ASSUME_CODE_39_CHECK_DIGIT) != null;
+    assumeGS1 = hints.containsKey(DecodeHintType.ASSUME_GS1);
+    returnCodabarStartEnd = hints.containsKey(DecodeHintType.RETURN_CODABAR_START_END);
+    resultPointCallback = (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    allowedEanExtensions = (int[]) hints.get(DecodeHintType.ALLOWED_EAN_EXTENSIONS);
+    if (hints.containsKey(DecodeHintType.NEED_RESULT_POINT_CALLBACK)) {
+      Map<DecodeHintType,Object> newHints = new EnumMap<>(DecodeHintType.class);
+      newHints.putAll(hints);
+      newHints.remove(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+      withoutResultPointCallback = new DecodeConfig(newHints);
+    } else {
+      withoutResultPointCallback = this;
+    }
+  }
+
+  /**
+   * @param hints decode hints, or {@code null}
+   * @return the hints as a config
+   */
+  public static DecodeConfig of(Map<DecodeHintType,?> hints) {
+    return hints == null ? DEFAULT : new DecodeConfig(hints);
+  }
+
+  /**
+   * @return the hints this was built from, for decoders that still take a map, or {@code null}
+   */
+  public Map<DecodeHintType,?> getHints() {
+    return hints;
+  }
+
+  /**
+   * @see DecodeHintType#TRY_HARDER
+   */
+  public boolean isTryHarder() {
+    return tryHarder;
+  }
+
+  /**
+   * @see DecodeHintType#PURE_BARCODE
+   */
+  public boolean isPureBarcode() {
+    return pureBarcode;
+  }
+
+  /**
+   * @return the formats to look for, or {@code null} for all of them
+   * @see DecodeHintType#POSSIBLE_FORMATS
+   */
+  public Collection<BarcodeFormat> getPossibleFormats() {
+    return possibleFormats;
+  }
+
+  /**
+   * @see DecodeHintType#ALLOWED_LENGTHS
+   */
+  public int[] getAllowedLengths() {
+    return allowedLengths;
+  }
+
+  /**
+   * @see DecodeHintType#ASSUME_CODE_39_CHECK_DIGIT
+   */
+  public boolean isAssumeCode39CheckDigit() {
+    return assumeCode39CheckDigit;
+  }
+
+  /**
+   * @see DecodeHintType#ASSUME_GS1
+   */
+  public boolean isAssumeGS1() {
+    return assumeGS1;
+  }
+
+  /**
+   * @see DecodeHintType#RETURN_CODABAR_START_END
+   */
+  public boolean isReturnCodabarStartEnd() {
+    return returnCodabarStartEnd;
+  }
+
+  /**
+   * @return the callback to report possible result points to, or {@code null}
+   * @see DecodeHintType#NEED_RESULT_POINT_CALLBACK
+   */
+  public ResultPointCallback getResultPointCallback() {
+    return resultPointCallback;
+  }
+
+  /**
+   * @see DecodeHintType#ALLOWED_EAN_EXTENSIONS
+   */
+  public int[] getAllowedEanExtensions() {
+    return allowedEanExtensions;
+  }
+
+  /**
+   * @return this config without {@link DecodeHintType#NEED_RESULT_POINT_CALLBACK}, for decoding
+   *         where the points would not be where the caller draws them. It is built along with
+   *         this one, not for each call.
+   */
+  public DecodeConfig withoutResultPointCallback() {
+    return withoutResultPointCallback;
+  }
+
+}
@@ -42,7 +42,9 @@ public enum DecodeHintType {
 
   /**
    * Image is known to be of one of a few possible formats.
-   * Maps to a {@link List} of {@link BarcodeFormat}s.
+   * Maps to a {@link List} of {@link BarcodeFormat}s. Only the readers for these formats are
+   * set up, so a single expected format, such as {@link BarcodeFormat#EAN_13}, decodes each
+   * row with one start guard search and one reader.
    */
   POSSIBLE_FORMATS(List.class),
 
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.parse;
+
+import java.util.Arrays;
+
+/**
+ * A {@link LuminanceSource} that scales another one down by an integer factor, each of its pixels
+ * being the average of a square of pixels of the original. Searching it for a code is much cheaper
+ * than searching the original, at the cost of missing codes whose modules become too small.
+ * Pixels past the last whole square on the right and bottom edges are dropped.
+ */
+public final class DownscaledLuminanceSource extends LuminanceSource {
+
+  private final byte[] luminances;
+
+  /**
+   * @param source the original
+   * @param scale how many pixels of {@code source}, in each direction, one pixel stands for
+   */
+  public DownscaledLuminanceSource(LuminanceSource source, int scale) {
+    super(source.getWidth() / scale, source.getHeight() / scale);
+    int width = getWidth();
+    int height = getHeight();
+    luminances = new byte[width * height];
+    int[] sums = new int[width];
+    byte[] data = source.getDataArray();
+    int dataOffset = source.getDataOffset();
+    int dataStride = source.getDataStride();
+    byte[] row = null;
+    for (int y = 0; y < height; y++) {
+      Arrays.fill(sums, 0);
+      for (int dy = 0; dy < scale; dy++) {
+        int sourceY = y * scale + dy;
+        if (data != null) {
+          addRow(data, dataOffset + sourceY * dataStride, scale, sums, width);
+        } else {
+          row = source.getRow(sourceY, row);
+          addRow(row, 0, scale, sums, width);
+        }
+      }
+      int area = scale * scale;
+      int offset = y * width;
+      for (int x = 0; x < width; x++) {
+        luminances[offset + x] = (byte) (sums[x] / area);
+      }
+    }
+  }
+
+  /**
+   * Adds the luminance of each run of {@code scale} pixels starting at {@code offset} to one sum.
+   */
+  private static void addRow(byte[] row, int offset, int scale, int[] sums, int width) {
+    for (int x = 0, i = offset; x < width; x++) {
+      int sum = 0;
+      for (int end = i + scale; i < end; i++) {
+        sum += row[i] & 0xFF;
+      }
+      sums[x] += sum;
+    }
+  }
+
+  @Override
+  public byte[] getRow(int y, byte[] row) {
+    if (y < 0 || y >= getHeight()) {
+      throw new IllegalArgumentException("Requested row is outside the image: " + y);
+    }
+    int width = getWidth();
+    if (row == null || row.length < width) {
+      row = new byte[width];
+    }
+    System.arraycopy(luminances, y * width, row, 0, width);
+    return row;
+  }
+
+  @Override
+  public byte[] getMatrix() {
+    return luminances;
+  }
+
+  @Override
+  public byte[] getDataArray() {
+    return luminances;
+  }
+
+}
@@ -52,6 +52,12 @@ public final class InvertedLuminanceSource extends LuminanceSource {
     return invertedMatrix;
   }
 
+  @Override
+  public boolean isSameView(LuminanceSource other) {
+    return other instanceof InvertedLuminanceSource &&
+        delegate.isSameView(((InvertedLuminanceSource) other).delegate);
+  }
+
   @Override
   public boolean isCropSupported() {
     return delegate.isCropSupported();
@@ -59,6 +59,33 @@ public abstract class LuminanceSource {
    */
   public abstract byte[] getMatrix();
 
+  /**
+   * Gives binarizers in-place access to the luminance data, sparing them the copy
+   * {@link #getMatrix()} may make. Only sources that store each row contiguously, left to right,
+   * in a single array can support this.
+   *
+   * @return the array holding the luminance data, where pixel (x, y) is at
+   *         {@code getDataOffset() + y * getDataStride() + x}, or {@code null} if the data is not
+   *         laid out that way. Do not modify the contents of the result.
+   */
+  public byte[] getDataArray() {
+    return null;
+  }
+
+  /**
+   * @return The index of pixel (0, 0) in {@link #getDataArray()}.
+   */
+  public int getDataOffset() {
+    return 0;
+  }
+
+  /**
+   * @return The distance between two rows in {@link #getDataArray()}.
+   */
+  public int getDataStride() {
+    return width;
+  }
+
   /**
    * @return The width of the bitmap.
    */
@@ -73,6 +100,18 @@ public abstract class LuminanceSource {
     return height;
   }
 
+  /**
+   * Tells whether two sources show the same pixels, so that whatever is computed from one can be
+   * reused for the other. Cheap views of the same data, such as two identical crops of one frame,
+   * are the same view even though they are different objects.
+   *
+   * @param other another source, possibly {@code null}
+   * @return {@code true} if {@code other} returns the same luminance as this source for every pixel
+   */
+  public boolean isSameView(LuminanceSource other) {
+    return this == other;
+  }
+
   /**
    * @return Whether this subclass supports cropping.
    */
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2007 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.parse;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.ReaderException;
+import com.google.zxing.oned.MultiFormatOneDReader;
+import com.google.zxing.oned.OneDReader;
+import com.google.zxing.qrcode.QRCodeMultiReader;
+import com.google.zxing.qrcode.QRCodeReader;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MultiFormatReader is a convenience class and the main entry point into the library for most uses.
+ * By default it attempts to decode all barcode formats that the library supports. Optionally, you
+ * can provide a hints object to request different behavior, for example only decoding QR codes.
+ *
+ * @author Sean Owen
+ * @author dswitkin@google.com (Daniel Switkin)
+ */
+public final class MultiFormatReader implements Reader, MultipleBarcodeReader {
+
+    private static final Reader[] EMPTY_READER_ARRAY = new Reader[0];
+    private static final Result[] EMPTY_RESULT_ARRAY = new Result[0];
+
+    private DecodeConfig config;
+    private Reader[] readers;
+
+    /**
+     * This version of decode honors the intent of Reader.decode(BinaryBitmap) in that it
+     * passes null as a hint to the decoders. However, that makes it inefficient to call repeatedly.
+     * Use setHints() followed by decodeWithState() for continuous scan applications.
+     *
+     * @param image The pixel data to decode
+     * @return The contents of the image
+     * @throws NotFoundException Any errors which occurred
+     */
+    @Override
+    public Result decode(BinaryBitmap image) throws NotFoundException {
+        setHints(null);
+        return found(decodeInternal(image));
+    }
+
+    /**
+     * Decode an image using the hints provided. Does not honor existing state.
+     *
+     * @param image The pixel data to decode
+     * @param hints The hints to use, clearing the previous state.
+     * @return The contents of the image
+     * @throws NotFoundException Any errors which occurred
+     */
+    @Override
+    public Result decode(BinaryBitmap image, Map<DecodeHintType, ?> hints) throws NotFoundException {
+        setHints(hints);
+        return found(decodeInternal(image));
+    }
+
+    /**
+     * Decode an image using the state set up by calling setHints() previously. Continuous scan
+     * clients will get a <b>large</b> speed increase by using this instead of decode().
+     *
+     * @param image The pixel data to decode
+     * @return The contents of the image
+     * @throws NotFoundException Any errors which occurred
+     */
+    public Result decodeWithState(BinaryBitmap image) throws NotFoundException {
+        return found(tryDecodeWithState(image));
+    }
+
+    /**
+     * Like {@link #decodeWithState(BinaryBitmap)}, but returns null if no barcode could be decoded.
+     * Most frames of a continuous scan hold no barcode, and finding that out does not throw: the
+     * 1D readers report rows without a barcode through their return value.
+     *
+     * @param image The pixel data to decode
+     * @return The contents of the image, or null if no barcode could be decoded
+     */
+    public Result tryDecodeWithState(BinaryBitmap image) {
+        // Make sure to set up the default state so we don't crash
+        if (readers == null) {
+            setHints(null);
+        }
+        return decodeInternal(image);
+    }
+
+    /**
+     * Decodes every barcode in an image, passing null as a hint to the decoders. Like
+     * {@link #decode(BinaryBitmap)}, this is inefficient to call repeatedly.
+     *
+     * @param image The pixel data to decode
+     * @return The contents of every barcode found
+     * @throws NotFoundException if no barcode could be decoded
+     */
+    @Override
+    public Result[] decodeMultiple(BinaryBitmap image) throws NotFoundException {
+        setHints(null);
+        return found(decodeMultipleInternal(image));
+    }
+
+    /**
+     * Decodes every barcode in an image using the hints provided. Does not honor existing state.
+     *
+     * @param image The pixel data to decode
+     * @param hints The hints to use, clearing the previous state.
+     * @return The contents of every barcode found
+     * @throws NotFoundException if no barcode could be decoded
+     */
+    @Override
+    public Result[] decodeMultiple(BinaryBitmap image, Map<DecodeHintType, ?> hints) throws NotFoundException {
+        setHints(hints);
+        return found(decodeMultipleInternal(image));
+    }
+
+    /**
+     * Decodes every barcode in an image using the state set up by calling setHints() previously.
+     * Readers that can find several codes, such as the QR Code reader, return all of them; the
+     * other readers contribute one code each at most.
+     *
+     * @param image The pixel data to decode
+     * @return The contents of every barcode found
+     * @throws NotFoundException if no barcode could be decoded
+     */
+    public Result[] decodeMultipleWithState(BinaryBitmap image) throws NotFoundException {
+        return found(tryDecodeMultipleWithState(image));
+    }
+
+    /**
+     * Like {@link #decodeMultipleWithState(BinaryBitmap)}, but returns null if no barcode could be
+     * decoded.
+     *
+     * @param image The pixel data to decode
+     * @return The contents of every barcode found, or null if no barcode could be decoded
+     */
+    public Result[] tryDecodeMultipleWithState(BinaryBitmap image) {
+        // Make sure to set up the default state so we don't crash
+        if (readers == null) {
+            setHints(null);
+        }
+        return decodeMultipleInternal(image);
+    }
+
+    /**
+     * This method adds state to the MultiFormatReader. By setting the hints once, subsequent calls
+     * to decodeWithState(image) can reuse the same set of readers without reallocating memory. This
+     * is important for performance in continuous scan clients.
+     *
+     * @param hints The set of hints to use for subsequent calls to decode(image)
+     */
+    public void setHints(Map<DecodeHintType, ?> hints) {
+        // Read once here rather than by every reader for every image
+        DecodeConfig config = DecodeConfig.of(hints);
+        this.config = config;
+
+        boolean tryHarder = config.isTryHarder();
+        Collection<BarcodeFormat> formats = config.getPossibleFormats();
+        Collection<Reader> readers = new ArrayList<>();
+        if (formats != null) {
+            boolean addOneDReader =
+                    formats.contains(BarcodeFormat.UPC_A) ||
+                            formats.contains(BarcodeFormat.UPC_E) ||
+                            formats.contains(BarcodeFormat.EAN_13) ||
+                            formats.contains(BarcodeFormat.EAN_8) ||
+                            formats.contains(BarcodeFormat.CODABAR) ||
+                            formats.contains(BarcodeFormat.CODE_39) ||
+                            formats.contains(BarcodeFormat.CODE_93) ||
+                            formats.contains(BarcodeFormat.CODE_128) ||
+                            formats.contains(BarcodeFormat.ITF) ||
+                            formats.contains(BarcodeFormat.RSS_14) ||
+                            formats.contains(BarcodeFormat.RSS_EXPANDED);
+            // Put 1D readers upfront in "normal" mode
+            if (addOneDReader && !tryHarder) {
+                readers.add(MultiFormatOneDReader.withConfig(config));
+            }
+            if (formats.contains(BarcodeFormat.QR_CODE)) {
+                readers.add(new QRCodeMultiReader());
+            }
+            // At end in "try harder" mode
+            if (addOneDReader && tryHarder) {
+                readers.add(MultiFormatOneDReader.withConfig(config));
+            }
+        }
+        if (readers.isEmpty()) {
+            if (!tryHarder) {
+                readers.add(MultiFormatOneDReader.withConfig(config));
+            }
+
+            readers.add(new QRCodeMultiReader());
+
+            if (tryHarder) {
+                readers.add(MultiFormatOneDReader.withConfig(config));
+            }
+        }
+        this.readers = readers.toArray(EMPTY_READER_ARRAY);
+    }
+
+    /**
+     * @return {@code true} if the readers set up by {@link #setHints(Map)} only read single rows of
+     * the image through {@link BinaryBitmap#getBlackRow}. The bitmap is then never binarized as a
+     * whole, and binarizers that differ only in how they build the black matrix give the same
+     * results.
+     */
+    public boolean isRowDecodingOnly() {
+        if (readers == null) {
+            return false;
+        }
+        for (Reader reader : readers) {
+            if (!(reader instanceof MultiFormatOneDReader)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        if (readers != null) {
+            for (Reader reader : readers) {
+                reader.reset();
+            }
+        }
+    }
+
+    private static <T> T found(T result) throws NotFoundException {
+        if (result == null) {
+            throw NotFoundException.getNotFoundInstance();
+        }
+        return result;
+    }
+
+    private Result decodeInternal(BinaryBitmap image) {
+        if (readers != null) {
+            for (Reader reader : readers) {
+                if (reader instanceof OneDReader) {
+                    // Goes through every row of the image, which must not cost an exception each
+                    Result result = ((OneDReader) reader).tryDecodeWithConfig(image, config);
+                    if (result != null) {
+                        return result;
+                    }
+                    continue;
+                }
+                try {
+                    if (reader instanceof QRCodeReader) {
+                        return ((QRCodeReader) reader).decodeWithConfig(image, null, 1, config);
+                    }
+                    return reader.decode(image, config.getHints());
+                } catch (ReaderException re) {
+                    // continue
+                }
+            }
+        }
+        return null;
+    }
+
+    private Result[] decodeMultipleInternal(BinaryBitmap image) {
+        List<Result> results = new ArrayList<>();
+        if (readers != null) {
+            for (Reader reader : readers) {
+                try {
+                    if (reader instanceof OneDReader) {
+                        Result result = ((OneDReader) reader).tryDecodeWithConfig(image, config);
+                        if (result != null) {
+                            results.add(result);
+                        }
+                    } else if (reader instanceof QRCodeMultiReader) {
+                        Collections.addAll(results,
+                                ((QRCodeMultiReader) reader).decodeMultipleWithConfig(image, config));
+                    } else if (reader instanceof MultipleBarcodeReader) {
+                        Collections.addAll(results, ((MultipleBarcodeReader) reader).decodeMultiple(image,
+                                config.getHints()));
+                    } else {
+                        results.add(reader.decode(image, config.getHints()));
+                    }
+                } catch (ReaderException re) {
+                    // continue
+                }
+            }
+        }
+        if (results.isEmpty()) {
+            return null;
+        }
+        return results.toArray(EMPTY_RESULT_ARRAY);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2009 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.parse;
+
+import com.google.zxing.NotFoundException;
+
+import java.util.Map;
+
+/**
+ * Implementations of this interface attempt to read several barcodes from one image.
+ *
+ * @see Reader
+ * @author Sean Owen
+ */
+public interface MultipleBarcodeReader {
+
+  /**
+   * Locates and decodes every barcode it can find in an image.
+   *
+   * @param image image of barcodes to decode
+   * @return the barcodes found, at least one
+   * @throws NotFoundException if no barcode could be decoded
+   */
+  Result[] decodeMultiple(BinaryBitmap image) throws NotFoundException;
+
+  /**
+   * Locates and decodes every barcode it can find in an image, with the help of hints.
+   *
+   * @param image image of barcodes to decode
+   * @param hints passed as a {@link Map} from {@link DecodeHintType} to arbitrary data
+   * @return the barcodes found, at least one
+   * @throws NotFoundException if no barcode could be decoded
+   */
+  Result[] decodeMultiple(BinaryBitmap image, Map<DecodeHintType,?> hints) throws NotFoundException;
+
+}
@@ -23,6 +23,10 @@ package com.google.zxing.parse;
  * <p>
  * It works for any pixel format where the Y channel is planar and appears first, including
  * YCbCr_420_SP and YCbCr_422_SP.
+ * <p>
+ * Cropping and rotating never copy the frame: every instance is a view that maps pixel (x, y) to
+ * {@code yuvData[origin + x * xStep + y * yStep]}, so a rotated view just walks the original
+ * buffer with swapped, possibly negative, steps.
  *
  * @author dswitkin@google.com (Daniel Switkin)
  */
@@ -33,8 +37,9 @@ public final class PlanarYUVLuminanceSource extends LuminanceSource {
     private final byte[] yuvData;
     private final int dataWidth;
     private final int dataHeight;
-    private final int left;
-    private final int top;
+    private final int origin;
+    private final int xStep;
+    private final int yStep;
 
     public PlanarYUVLuminanceSource(byte[] yuvData,
                                     int dataWidth,
@@ -53,13 +58,31 @@ public final class PlanarYUVLuminanceSource extends LuminanceSource {
         this.yuvData = yuvData;
         this.dataWidth = dataWidth;
         this.dataHeight = dataHeight;
-        this.left = left;
-        this.top = top;
+        this.origin = top * dataWidth + left;
+        this.xStep = 1;
+        this.yStep = dataWidth;
         if (reverseHorizontal) {
             reverseHorizontal(width, height);
         }
     }
 
+    private PlanarYUVLuminanceSource(byte[] yuvData,
+                                     int dataWidth,
+                                     int dataHeight,
+                                     int origin,
+                                     int xStep,
+                                     int yStep,
+                                     int width,
+                                     int height) {
+        super(width, height);
+        this.yuvData = yuvData;
+        this.dataWidth = dataWidth;
+        this.dataHeight = dataHeight;
+        this.origin = origin;
+        this.xStep = xStep;
+        this.yStep = yStep;
+    }
+
     @Override
     public byte[] getRow(int y, byte[] row) {
         if (y < 0 || y >= getHeight()) {
@@ -69,8 +92,14 @@ public final class PlanarYUVLuminanceSource extends LuminanceSource {
         if (row == null || row.length < width) {
             row = new byte[width];
         }
-        int offset = (y + top) * dataWidth + left;
-        System.arraycopy(yuvData, offset, row, 0, width);
+        int offset = origin + y * yStep;
+        if (xStep == 1) {
+            System.arraycopy(yuvData, offset, row, 0, width);
+        } else {
+            for (int x = 0; x < width; x++, offset += xStep) {
+                row[x] = yuvData[offset];
+            }
+        }
         return row;
     }
 
@@ -81,16 +110,16 @@ public final class PlanarYUVLuminanceSource extends LuminanceSource {
 
         // If the caller asks for the entire underlying image, save the copy and give them the
         // original data. The docs specifically warn that result.length must be ignored.
-        if (width == dataWidth && height == dataHeight) {
+        if (xStep == 1 && width == dataWidth && height == dataHeight) {
             return yuvData;
         }
 
         int area = width * height;
         byte[] matrix = new byte[area];
-        int inputOffset = top * dataWidth + left;
+        int inputOffset = origin;
 
         // If the width matches the full width of the underlying data, perform a single copy.
-        if (width == dataWidth) {
+        if (xStep == 1 && yStep == dataWidth && width == dataWidth) {
             System.arraycopy(yuvData, inputOffset, matrix, 0, area);
             return matrix;
         }
@@ -98,42 +127,119 @@ public final class PlanarYUVLuminanceSource extends LuminanceSource {
         // Otherwise copy one cropped row at a time.
         for (int y = 0; y < height; y++) {
             int outputOffset = y * width;
-            System.arraycopy(yuvData, inputOffset, matrix, outputOffset, width);
-            inputOffset += dataWidth;
+            if (xStep == 1) {
+                System.arraycopy(yuvData, inputOffset, matrix, outputOffset, width);
+            } else {
+                for (int x = 0, offset = inputOffset; x < width; x++, offset += xStep) {
+                    matrix[outputOffset + x] = yuvData[offset];
+                }
+            }
+            inputOffset += yStep;
         }
         return matrix;
     }
 
+    @Override
+    public byte[] getDataArray() {
+        return xStep == 1 ? yuvData : null;
+    }
+
+    @Override
+    public int getDataOffset() {
+        return origin;
+    }
+
+    @Override
+    public int getDataStride() {
+        return yStep;
+    }
+
+    @Override
+    public boolean isSameView(LuminanceSource other) {
+        if (!(other instanceof PlanarYUVLuminanceSource)) {
+            return false;
+        }
+        PlanarYUVLuminanceSource view = (PlanarYUVLuminanceSource) other;
+        return yuvData == view.yuvData && origin == view.origin && xStep == view.xStep && yStep == view.yStep &&
+                getWidth() == view.getWidth() && getHeight() == view.getHeight();
+    }
+
     @Override
     public boolean isCropSupported() {
         return true;
     }
 
     @Override
-    public LuminanceSource crop(int left, int top, int width, int height) {
+    public PlanarYUVLuminanceSource crop(int left, int top, int width, int height) {
+        if (left < 0 || top < 0 || left + width > getWidth() || top + height > getHeight()) {
+            throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+        }
         return new PlanarYUVLuminanceSource(yuvData,
                 dataWidth,
                 dataHeight,
-                this.left + left,
-                this.top + top,
+                origin + left * xStep + top * yStep,
+                xStep,
+                yStep,
                 width,
-                height,
-                false);
+                height);
+    }
+
+    /**
+     * Returns false although {@link #rotateCounterClockwise()} works: readers check this to rotate
+     * the image on their own, for instance the 1D readers with {@link DecodeHintType#TRY_HARDER}.
+     * Camera frames are rotated by the caller instead, once per frame, when vertical codes are
+     * wanted.
+     */
+    @Override
+    public boolean isRotateSupported() {
+        return false;
+    }
+
+    /**
+     * Returns a view of this source rotated by 90 degrees counterclockwise: the rightmost column,
+     * read top to bottom, becomes the first row. The frame is not copied. Callable even though
+     * {@link #isRotateSupported()} is false.
+     */
+    @Override
+    public PlanarYUVLuminanceSource rotateCounterClockwise() {
+        return new PlanarYUVLuminanceSource(yuvData,
+                dataWidth,
+                dataHeight,
+                origin + (getWidth() - 1) * xStep,
+                yStep,
+                -xStep,
+                getHeight(),
+                getWidth());
+    }
+
+    /**
+     * Returns a view of this source rotated by 90 degrees clockwise: the bottom row, read left to
+     * right, becomes the first column read top to bottom. The frame is not copied.
+     */
+    public PlanarYUVLuminanceSource rotateClockwise() {
+        return new PlanarYUVLuminanceSource(yuvData,
+                dataWidth,
+                dataHeight,
+                origin + (getHeight() - 1) * yStep,
+                -yStep,
+                xStep,
+                getHeight(),
+                getWidth());
     }
 
     public int[] renderThumbnail() {
         int width = getWidth() / THUMBNAIL_SCALE_FACTOR;
         int height = getHeight() / THUMBNAIL_SCALE_FACTOR;
         int[] pixels = new int[width * height];
-        int inputOffset = top * dataWidth + left;
+        int inputOffset = origin;
 
         for (int y = 0; y < height; y++) {
             int outputOffset = y * width;
             for (int x = 0; x < width; x++) {
-                int grey = yuvData[inputOffset + x * THUMBNAIL_SCALE_FACTOR] & 0xff;
+                int grey = yuvData[inputOffset + x * THUMBNAIL_SCALE_FACTOR * xStep] & 0xff;
                 pixels[outputOffset + x] = 0xFF000000 | (grey * 0x00010101);
             }
-            inputOffset += dataWidth * THUMBNAIL_SCALE_FACTOR;
+            inputOffset += yStep * THUMBNAIL_SCALE_FACTOR;
         }
         return pixels;
     }
@@ -154,7 +260,7 @@ public final class PlanarYUVLuminanceSource extends LuminanceSource {
 
     private void reverseHorizontal(int width, int height) {
         byte[] yuvData = this.yuvData;
-        for (int y = 0, rowStart = top * dataWidth + left; y < height; y++, rowStart += dataWidth) {
+        for (int y = 0, rowStart = origin; y < height; y++, rowStart += dataWidth) {
             int middle = rowStart + width / 2;
             for (int x1 = rowStart, x2 = rowStart + width - 1; x1 < middle; x1++, x2--) {
                 byte temp = yuvData[x1];
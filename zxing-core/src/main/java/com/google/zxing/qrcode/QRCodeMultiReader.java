@@ -0,0 +1,163 @@
+/*
+ * Copyright 2009 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.ReaderException;
+import com.google.zxing.common.DecoderResult;
+import com.google.zxing.common.DetectorResult;
+import com.google.zxing.common.SharedForkJoinPool;
+import com.google.zxing.parse.BinaryBitmap;
+import com.google.zxing.parse.DecodeConfig;
+import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.parse.MultipleBarcodeReader;
+import com.google.zxing.parse.Result;
+import com.google.zxing.qrcode.detector.FinderPatternInfo;
+import com.google.zxing.qrcode.detector.MultiDetector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This implementation can detect and decode multiple QR Codes in an image. The finder patterns
+ * of all codes are found in one scan of the image; when there are several codes and more than one
+ * processor, they are then sampled and decoded on a fork/join pool.
+ * <p>
+ * {@link #decode(BinaryBitmap, Map)} still decodes a single code, exactly like
+ * {@link QRCodeReader}.
+ *
+ * @author Sean Owen
+ * @author Hannes Erven
+ */
+public final class QRCodeMultiReader extends QRCodeReader implements MultipleBarcodeReader {
+
+  private static final Result[] EMPTY_RESULT_ARRAY = new Result[0];
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Decodes on the {@link SharedForkJoinPool}.
+   */
+  public QRCodeMultiReader() {
+    this(SharedForkJoinPool.getDefault());
+  }
+
+  /**
+   * @param pool the pool to decode several codes, and the data blocks of large versions, on
+   */
+  public QRCodeMultiReader(ForkJoinPool pool) {
+    super(pool);
+    this.pool = pool;
+  }
+
+  @Override
+  public Result[] decodeMultiple(BinaryBitmap image) throws NotFoundException {
+    return decodeMultipleWithConfig(image, DecodeConfig.DEFAULT);
+  }
+
+  @Override
+  public Result[] decodeMultiple(BinaryBitmap image, Map<DecodeHintType,?> hints) throws NotFoundException {
+    return decodeMultipleWithConfig(image, DecodeConfig.of(hints));
+  }
+
+  /**
+   * Like {@link #decodeMultiple(BinaryBitmap, Map)}, with the hints already read into a config.
+   *
+   * @param image barcode image to decode
+   * @param config decode hints
+   * @return every QR Code decoded in the image
+   * @throws NotFoundException if no QR Code could be decoded
+   */
+  public Result[] decodeMultipleWithConfig(BinaryBitmap image, DecodeConfig config) throws NotFoundException {
+    MultiDetector detector = new MultiDetector(image.getBlackMatrix());
+    FinderPatternInfo[] infos = detector.findMultiWithConfig(config);
+    Map<DecodeHintType,?> hints = config.getHints();
+    Result[] results = new Result[infos.length];
+    if (infos.length > 1 && pool.getParallelism() > 1) {
+      SharedForkJoinPool.invoke(pool, new DecodeTask(this, detector, infos, hints, results, 0, infos.length));
+    } else {
+      for (int i = 0; i < infos.length; i++) {
+        results[i] = decode(detector, infos[i], hints);
+      }
+    }
+    List<Result> found = new ArrayList<>(results.length);
+    for (Result result : results) {
+      if (result != null) {
+        found.add(result);
+      }
+    }
+    if (found.isEmpty()) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return found.toArray(EMPTY_RESULT_ARRAY);
+  }
+
+  /**
+   * Samples and decodes the code of one set of finder patterns. Only reads the detector's image
+   * and the shared decoder, so several codes may be decoded at once.
+   *
+   * @return the decoded code, or {@code null} if the finder patterns do not belong to a readable
+   *         code
+   */
+  private Result decode(MultiDetector detector, FinderPatternInfo info, Map<DecodeHintType,?> hints) {
+    try {
+      DetectorResult detectorResult = detector.detectAt(info);
+      DecoderResult decoderResult = getDecoder().decode(detectorResult.getBits(), hints);
+      return createResult(decoderResult, detectorResult.getPoints());
+    } catch (ReaderException re) {
+      // Finder patterns of different codes can look like one more code; skip it.
+      return null;
+    }
+  }
+
+  private static final class DecodeTask extends RecursiveAction {
+
+    private final QRCodeMultiReader reader;
+    private final MultiDetector detector;
+    private final FinderPatternInfo[] infos;
+    private final Map<DecodeHintType,?> hints;
+    private final Result[] results;
+    private final int from;
+    private final int to;
+
+    DecodeTask(QRCodeMultiReader reader, MultiDetector detector, FinderPatternInfo[] infos,
+               Map<DecodeHintType,?> hints, Result[] results, int from, int to) {
+      this.reader = reader;
+      this.detector = detector;
+      this.infos = infos;
+      this.hints = hints;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        results[from] = reader.decode(detector, infos[from], hints);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new DecodeTask(reader, detector, infos, hints, results, from, middle),
+          new DecodeTask(reader, detector, infos, hints, results, middle, to));
+    }
+  }
+
+}
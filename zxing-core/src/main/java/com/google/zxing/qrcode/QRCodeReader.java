@@ -0,0 +1,407 @@
+/*
+ * Copyright 2007 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode;
+
+import com.google.zxing.parse.BarcodeFormat;
+import com.google.zxing.parse.BinaryBitmap;
+import com.google.zxing.ChecksumException;
+import com.google.zxing.parse.DecodeConfig;
+import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.FormatException;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.parse.Reader;
+import com.google.zxing.parse.Result;
+import com.google.zxing.parse.ResultMetadataType;
+import com.google.zxing.parse.ResultPoint;
+import com.google.zxing.qrcode.decoder.Decoder;
+import com.google.zxing.qrcode.decoder.QRCodeDecoderMetaData;
+import com.google.zxing.qrcode.detector.Detector;
+import com.google.zxing.qrcode.detector.FinderPattern;
+import com.google.zxing.qrcode.detector.FinderPatternInfo;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.DecoderResult;
+import com.google.zxing.common.DetectorResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This implementation can detect and decode QR Codes in an image.
+ *
+ * @author Sean Owen
+ */
+public class QRCodeReader implements Reader {
+
+  private static final ResultPoint[] NO_POINTS = new ResultPoint[0];
+  /**
+   * How far around the finder pattern centers found in a scaled down image to look for the code.
+   */
+  private static final float MODULES_AROUND_FINDER_PATTERNS = 8.0f;
+
+  private final Decoder decoder;
+  /**
+   * The finder patterns of the last image, to look for first in the next one. Readers are used
+   * for consecutive frames of a preview, in which the code barely moves.
+   */
+  private FinderPatternInfo previousFinderPatterns;
+  private int previousWidth;
+  private int previousHeight;
+
+  public QRCodeReader() {
+    decoder = new Decoder();
+  }
+
+  /**
+   * @param pool the pool to correct the data blocks of large versions on, see
+   *        {@link Decoder#Decoder(ForkJoinPool)}
+   */
+  public QRCodeReader(ForkJoinPool pool) {
+    decoder = new Decoder(pool);
+  }
+
+  protected final Decoder getDecoder() {
+    return decoder;
+  }
+
+  /**
+   * Locates and decodes a QR code in an image.
+   *
+   * @return a String representing the content encoded by the QR code
+   * @throws NotFoundException if a QR code cannot be found
+   * @throws FormatException if a QR code cannot be decoded
+   * @throws ChecksumException if error correction fails
+   */
+  @Override
+  public Result decode(BinaryBitmap image) throws NotFoundException, ChecksumException, FormatException {
+    return decode(image, null);
+  }
+
+  @Override
+  public final Result decode(BinaryBitmap image, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeWithConfig(image, null, 1, DecodeConfig.of(hints));
+  }
+
+  /**
+   * Locates and decodes a QR code in a large image. Its finder patterns are looked for in a scaled
+   * down copy of the image first, which is much cheaper to binarize and scan; the code is then
+   * located precisely and sampled in the part of the image around them, without binarizing the
+   * rest. Codes too small to be found in the copy are searched for in the whole image as usual.
+   *
+   * @param image the image
+   * @param downscaled {@code image} scaled down by {@code scale}, see
+   *        {@link com.google.zxing.parse.DownscaledLuminanceSource}, or {@code null}. Only used if
+   *        {@code image} supports cropping.
+   * @param scale how many pixels of {@code image}, in each direction, one pixel of
+   *        {@code downscaled} stands for
+   * @param hints optional hints
+   * @return a String representing the content encoded by the QR code
+   * @throws NotFoundException if a QR code cannot be found
+   * @throws FormatException if a QR code cannot be decoded
+   * @throws ChecksumException if error correction fails
+   */
+  public final Result decode(BinaryBitmap image, BinaryBitmap downscaled, int scale, Map<DecodeHintType,?> hints)
+      throws NotFoundException, ChecksumException, FormatException {
+    return decodeWithConfig(image, downscaled, scale, DecodeConfig.of(hints));
+  }
+
+  /**
+   * Like {@link #decode(BinaryBitmap, BinaryBitmap, int, Map)}, with the hints already read into
+   * a config.
+   *
+   * @param image the image
+   * @param downscaled {@code image} scaled down by {@code scale}, or {@code null}
+   * @param scale how many pixels of {@code image}, in each direction, one pixel of
+   *        {@code downscaled} stands for
+   * @param config decode hints
+   * @return a String representing the content encoded by the QR code
+   * @throws NotFoundException if a QR code cannot be found
+   * @throws FormatException if a QR code cannot be decoded
+   * @throws ChecksumException if error correction fails
+   */
+  public final Result decodeWithConfig(BinaryBitmap image, BinaryBitmap downscaled, int scale, DecodeConfig config)
+      throws NotFoundException, ChecksumException, FormatException {
+    DecoderResult decoderResult;
+    ResultPoint[] points;
+    if (config.isPureBarcode()) {
+      BitMatrix bits = extractPureBits(image.getBlackMatrix());
+      decoderResult = decoder.decode(bits, config.getHints());
+      points = NO_POINTS;
+    } else {
+      if (downscaled != null && image.isCropSupported()) {
+        DetectorResult detectorResult = detectDownscaled(image, downscaled, scale, config);
+        if (detectorResult != null) {
+          try {
+            decoderResult = decoder.decode(detectorResult.getBits(), config.getHints());
+            return createResult(decoderResult, detectorResult.getPoints());
+          } catch (FormatException | ChecksumException e) {
+            // The finder patterns may not belong together, or the code may have been sampled in the
+            // scaled down image; detect it at full resolution instead.
+          }
+        }
+      }
+      DetectorResult detectorResult = detect(image, config);
+      decoderResult = decoder.decode(detectorResult.getBits(), config.getHints());
+      points = detectorResult.getPoints();
+    }
+
+    return createResult(decoderResult, points);
+  }
+
+  /**
+   * Detects a code in the whole of {@code image}, starting where the finder patterns of the last
+   * image were.
+   */
+  private DetectorResult detect(BinaryBitmap image, DecodeConfig config) throws NotFoundException, FormatException {
+    BitMatrix matrix = image.getBlackMatrix();
+    Detector detector = new Detector(matrix);
+    try {
+      return detector.detectWithConfig(config, getPreviousFinderPatterns(matrix));
+    } finally {
+      previousFinderPatterns = detector.getFinderPatternInfo();
+      previousWidth = matrix.getWidth();
+      previousHeight = matrix.getHeight();
+    }
+  }
+
+  /**
+   * @return the result of a decoded QR Code found at {@code points}
+   */
+  static Result createResult(DecoderResult decoderResult, ResultPoint[] points) {
+    // If the code was mirrored: swap the bottom-left and the top-right points.
+    if (decoderResult.getOther() instanceof QRCodeDecoderMetaData) {
+      ((QRCodeDecoderMetaData) decoderResult.getOther()).applyMirroredCorrection(points);
+    }
+
+    Result result = new Result(decoderResult.getText(), decoderResult.getRawBytes(), points, BarcodeFormat.QR_CODE);
+    List<byte[]> byteSegments = decoderResult.getByteSegments();
+    if (byteSegments != null) {
+      result.putMetadata(ResultMetadataType.BYTE_SEGMENTS, byteSegments);
+    }
+    String ecLevel = decoderResult.getECLevel();
+    if (ecLevel != null) {
+      result.putMetadata(ResultMetadataType.ERROR_CORRECTION_LEVEL, ecLevel);
+    }
+    if (decoderResult.hasStructuredAppend()) {
+      result.putMetadata(ResultMetadataType.STRUCTURED_APPEND_SEQUENCE,
+                         decoderResult.getStructuredAppendSequenceNumber());
+      result.putMetadata(ResultMetadataType.STRUCTURED_APPEND_PARITY,
+                         decoderResult.getStructuredAppendParity());
+    }
+    return result;
+  }
+
+  /**
+   * @return the finder patterns of the last image if it had the size of {@code image}, or
+   *         {@code null}
+   */
+  private FinderPatternInfo getPreviousFinderPatterns(BitMatrix image) {
+    if (image.getWidth() != previousWidth || image.getHeight() != previousHeight) {
+      return null;
+    }
+    return previousFinderPatterns;
+  }
+
+  /**
+   * Finds the finder patterns in {@code downscaled}, then detects the code at full resolution in
+   * the part of {@code image} around them. Only that part is binarized. Codes with modules so
+   * large the binarizer cannot make out their finder patterns at full resolution are detected in
+   * {@code downscaled} instead.
+   *
+   * @return the code with its points in the coordinates of {@code image}, or {@code null} if it
+   *         could not be detected that way
+   */
+  private static DetectorResult detectDownscaled(BinaryBitmap image, BinaryBitmap downscaled, int scale,
+                                                 DecodeConfig config) {
+    BitMatrix coarse;
+    FinderPatternInfo info;
+    try {
+      coarse = downscaled.getBlackMatrix();
+      info = Detector.findDownscaledFinderPatterns(coarse, scale, config);
+    } catch (NotFoundException e) {
+      return null;
+    }
+    FinderPattern topLeft = info.getTopLeft();
+    FinderPattern topRight = info.getTopRight();
+    FinderPattern bottomLeft = info.getBottomLeft();
+    // Where a fourth finder pattern would be
+    float bottomRightX = topRight.getX() - topLeft.getX() + bottomLeft.getX();
+    float bottomRightY = topRight.getY() - topLeft.getY() + bottomLeft.getY();
+    // The centers are 3.5 modules inside the code; leave some more room for perspective.
+    float margin = MODULES_AROUND_FINDER_PATTERNS * topLeft.getEstimatedModuleSize();
+    int left = Math.max(0, (int) (min(topLeft.getX(), topRight.getX(), bottomLeft.getX(), bottomRightX) - margin));
+    int top = Math.max(0, (int) (min(topLeft.getY(), topRight.getY(), bottomLeft.getY(), bottomRightY) - margin));
+    int right = Math.min(image.getWidth(),
+        (int) (max(topLeft.getX(), topRight.getX(), bottomLeft.getX(), bottomRightX) + margin) + 1);
+    int bottom = Math.min(image.getHeight(),
+        (int) (max(topLeft.getY(), topRight.getY(), bottomLeft.getY(), bottomRightY) + margin) + 1);
+
+    // The points would be reported in the coordinates of the region.
+    DecodeConfig regionConfig = config.withoutResultPointCallback();
+    try {
+      BitMatrix region = image.crop(left, top, right - left, bottom - top).getBlackMatrix();
+      DetectorResult detectorResult = new Detector(region).detectWithConfig(regionConfig, info.translate(-left, -top));
+      return transform(detectorResult, 1, left, top);
+    } catch (NotFoundException | FormatException e) {
+      // try the scaled down image
+    }
+    try {
+      // A pixel of the scaled down image covers pixels 0 to scale - 1 of the image.
+      float offset = (scale - 1) / 2.0f;
+      return transform(new Detector(coarse).detectWithConfig(regionConfig, null), scale, offset, offset);
+    } catch (NotFoundException | FormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return {@code detectorResult} with its points scaled, then moved by ({@code dx}, {@code dy})
+   */
+  private static DetectorResult transform(DetectorResult detectorResult, int scale, float dx, float dy) {
+    ResultPoint[] detectedPoints = detectorResult.getPoints();
+    ResultPoint[] points = new ResultPoint[detectedPoints.length];
+    for (int i = 0; i < points.length; i++) {
+      points[i] = new ResultPoint(detectedPoints[i].getX() * scale + dx, detectedPoints[i].getY() * scale + dy);
+    }
+    return new DetectorResult(detectorResult.getBits(), points);
+  }
+
+  private static float min(float a, float b, float c, float d) {
+    return Math.min(Math.min(a, b), Math.min(c, d));
+  }
+
+  private static float max(float a, float b, float c, float d) {
+    return Math.max(Math.max(a, b), Math.max(c, d));
+  }
+
+  @Override
+  public void reset() {
+    // do nothing
+  }
+
+  /**
+   * This method detects a code in a "pure" image -- that is, pure monochrome image
+   * which contains only an unrotated, unskewed, image of a code, with some white border
+   * around it. This is a specialized method that works exceptionally fast in this special
+   * case.
+   */
+  private static BitMatrix extractPureBits(BitMatrix image) throws NotFoundException {
+
+    int[] leftTopBlack = image.getTopLeftOnBit();
+    int[] rightBottomBlack = image.getBottomRightOnBit();
+    if (leftTopBlack == null || rightBottomBlack == null) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+
+    float moduleSize = moduleSize(leftTopBlack, image);
+
+    int top = leftTopBlack[1];
+    int bottom = rightBottomBlack[1];
+    int left = leftTopBlack[0];
+    int right = rightBottomBlack[0];
+
+    // Sanity check!
+    if (left >= right || top >= bottom) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+
+    if (bottom - top != right - left) {
+      // Special case, where bottom-right module wasn't black so we found something else in the last row
+      // Assume it's a square, so use height as the width
+      right = left + (bottom - top);
+      if (right >= image.getWidth()) {
+        // Abort if that would not make sense -- off image
+        throw NotFoundException.getNotFoundInstance();
+      }
+    }
+
+    int matrixWidth = Math.round((right - left + 1) / moduleSize);
+    int matrixHeight = Math.round((bottom - top + 1) / moduleSize);
+    if (matrixWidth <= 0 || matrixHeight <= 0) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    if (matrixHeight != matrixWidth) {
+      // Only possibly decode square regions
+      throw NotFoundException.getNotFoundInstance();
+    }
+
+    // Push in the "border" by half the module width so that we start
+    // sampling in the middle of the module. Just in case the image is a
+    // little off, this will help recover.
+    int nudge = (int) (moduleSize / 2.0f);
+    top += nudge;
+    left += nudge;
+
+    // But careful that this does not sample off the edge
+    // "right" is the farthest-right valid pixel location -- right+1 is not necessarily
+    // This is positive by how much the inner x loop below would be too large
+    int nudgedTooFarRight = left + (int) ((matrixWidth - 1) * moduleSize) - right;
+    if (nudgedTooFarRight > 0) {
+      if (nudgedTooFarRight > nudge) {
+        // Neither way fits; abort
+        throw NotFoundException.getNotFoundInstance();
+      }
+      left -= nudgedTooFarRight;
+    }
+    // See logic above
+    int nudgedTooFarDown = top + (int) ((matrixHeight - 1) * moduleSize) - bottom;
+    if (nudgedTooFarDown > 0) {
+      if (nudgedTooFarDown > nudge) {
+        // Neither way fits; abort
+        throw NotFoundException.getNotFoundInstance();
+      }
+      top -= nudgedTooFarDown;
+    }
+
+    // Now just read off the bits
+    BitMatrix bits = new BitMatrix(matrixWidth, matrixHeight);
+    for (int y = 0; y < matrixHeight; y++) {
+      int iOffset = top + (int) (y * moduleSize);
+      for (int x = 0; x < matrixWidth; x++) {
+        if (image.get(left + (int) (x * moduleSize), iOffset)) {
+          bits.set(x, y);
+        }
+      }
+    }
+    return bits;
+  }
+
+  private static float moduleSize(int[] leftTopBlack, BitMatrix image) throws NotFoundException {
+    int height = image.getHeight();
+    int width = image.getWidth();
+    int x = leftTopBlack[0];
+    int y = leftTopBlack[1];
+    boolean inBlack = true;
+    int transitions = 0;
+    while (x < width && y < height) {
+      if (inBlack != image.get(x, y)) {
+        if (++transitions == 5) {
+          break;
+        }
+        inBlack = !inBlack;
+      }
+      x++;
+      y++;
+    }
+    if (x == width || y == height) {
+      throw NotFoundException.getNotFoundInstance();
+    }
+    return (x - leftTopBlack[0]) / 7.0f;
+  }
+
+}
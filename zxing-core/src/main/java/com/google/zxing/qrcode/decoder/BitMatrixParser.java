@@ -147,82 +147,43 @@ final class BitMatrixParser {
    * correct order in order to reconstruct the codewords bytes contained within the
    * QR Code.</p>
    *
+   * <p>The bits are gathered in the order given by the {@link CodewordLayout} of the version,
+   * and the data mask is then removed a codeword at a time. The {@link BitMatrix} is left as it
+   * was; when mirrored, it is read across the diagonal.</p>
+   *
    * @return bytes encoded within the QR Code
-   * @throws FormatException if the exact number of bytes expected is not read
+   * @throws FormatException if the format or version information cannot be read
    */
   byte[] readCodewords() throws FormatException {
 
     FormatInformation formatInfo = readFormatInformation();
     Version version = readVersion();
 
-    // Get the data mask for the format used in this QR Code. This will exclude
-    // some bits from reading as we wind through the bit matrix.
-    DataMask dataMask = DataMask.values()[formatInfo.getDataMask()];
-    int dimension = bitMatrix.getHeight();
-    dataMask.unmaskBitMatrix(bitMatrix, dimension);
-
-    BitMatrix functionPattern = version.buildFunctionPattern();
-
-    boolean readingUp = true;
-    byte[] result = new byte[version.getTotalCodewords()];
-    int resultOffset = 0;
-    int currentByte = 0;
-    int bitsRead = 0;
-    // Read columns in pairs, from right to left
-    for (int j = dimension - 1; j > 0; j -= 2) {
-      if (j == 6) {
-        // Skip whole column with vertical alignment pattern;
-        // saves time and makes the other code proceed more cleanly
-        j--;
+    CodewordLayout layout = CodewordLayout.forVersion(version);
+    int[] modules = layout.getModules();
+    // Start from the bits the data mask flipped, and flip them back while reading
+    byte[] result = layout.getMask(formatInfo.getDataMask()).clone();
+    BitMatrix bitMatrix = this.bitMatrix;
+    int xShift = mirror ? 8 : 0;
+    int yShift = mirror ? 0 : 8;
+    for (int codeword = 0, bit = 0; codeword < result.length; codeword++) {
+      int currentByte = 0;
+      for (int end = bit + 8; bit < end; bit++) {
+        int module = modules[bit];
+        boolean set = bitMatrix.get((module >>> xShift) & 0xFF, (module >>> yShift) & 0xFF);
+        currentByte = (currentByte << 1) | (set ? 1 : 0);
       }
-      // Read alternatingly from bottom to top then top to bottom
-      for (int count = 0; count < dimension; count++) {
-        int i = readingUp ? dimension - 1 - count : count;
-        for (int col = 0; col < 2; col++) {
-          // Ignore bits covered by the function pattern
-          if (!functionPattern.get(j - col, i)) {
-            // Read a bit
-            bitsRead++;
-            currentByte <<= 1;
-            if (bitMatrix.get(j - col, i)) {
-              currentByte |= 1;
-            }
-            // If we've made a whole byte, save it off
-            if (bitsRead == 8) {
-              result[resultOffset++] = (byte) currentByte;
-              bitsRead = 0;
-              currentByte = 0;
-            }
-          }
-        }
-      }
-      readingUp ^= true; // readingUp = !readingUp; // switch directions
-    }
-    if (resultOffset != version.getTotalCodewords()) {
-      throw FormatException.getFormatInstance();
+      result[codeword] ^= currentByte;
     }
     return result;
   }
 
-  /**
-   * Revert the mask removal done while reading the code words. The bit matrix should revert to its original state.
-   */
-  void remask() {
-    if (parsedFormatInfo == null) {
-      return; // We have no format information, and have no data mask
-    }
-    DataMask dataMask = DataMask.values()[parsedFormatInfo.getDataMask()];
-    int dimension = bitMatrix.getHeight();
-    dataMask.unmaskBitMatrix(bitMatrix, dimension);
-  }
-
   /**
    * Prepare the parser for a mirrored operation.
-   * This flag has effect only on the {@link #readFormatInformation()} and the
-   * {@link #readVersion()}. Before proceeding with {@link #readCodewords()} the
-   * {@link #mirror()} method should be called.
+   * Version and format information, and then the codewords, are read as if the
+   * {@link BitMatrix} had been mirrored across its diagonal.
    *
-   * @param mirror Whether to read version and format information mirrored.
+   * @param mirror Whether to read the QR Code mirrored.
    */
   void setMirror(boolean mirror) {
     parsedVersion = null;
@@ -230,16 +191,4 @@ final class BitMatrixParser {
     this.mirror = mirror;
   }
 
-  /** Mirror the bit matrix in order to attempt a second reading. */
-  void mirror() {
-    for (int x = 0; x < bitMatrix.getWidth(); x++) {
-      for (int y = x + 1; y < bitMatrix.getHeight(); y++) {
-        if (bitMatrix.get(x, y) != bitMatrix.get(y, x)) {
-          bitMatrix.flip(y, x);
-          bitMatrix.flip(x, y);
-        }
-      }
-    }
-  }
-
 }
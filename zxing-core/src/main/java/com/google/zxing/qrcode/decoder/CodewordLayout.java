@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode.decoder;
+
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * <p>Where the codewords of one {@link Version} lie in the symbol, per ISO 18004:2006 6.7.3: the
+ * modules holding their bits, in reading order, and for each {@link DataMask} the bits the mask
+ * flips in each codeword. Only depends on the version, so it is built once, the first time a code
+ * of that version is read, and shared by all decoders.</p>
+ */
+final class CodewordLayout {
+
+  private static final CodewordLayout[] LAYOUTS = new CodewordLayout[40];
+
+  private final int[] modules;
+  private final byte[][] masks;
+
+  private CodewordLayout(Version version) {
+    int dimension = version.getDimensionForVersion();
+    int totalCodewords = version.getTotalCodewords();
+    BitMatrix functionPattern = version.buildFunctionPattern();
+    DataMask[] dataMasks = DataMask.values();
+
+    modules = new int[8 * totalCodewords];
+    masks = new byte[dataMasks.length][totalCodewords];
+    boolean readingUp = true;
+    int bitsRead = 0;
+    // Read columns in pairs, from right to left
+    for (int j = dimension - 1; j > 0 && bitsRead < modules.length; j -= 2) {
+      if (j == 6) {
+        // Skip whole column with vertical alignment pattern;
+        // saves time and makes the other code proceed more cleanly
+        j--;
+      }
+      // Read alternatingly from bottom to top then top to bottom
+      for (int count = 0; count < dimension && bitsRead < modules.length; count++) {
+        int i = readingUp ? dimension - 1 - count : count;
+        for (int col = 0; col < 2 && bitsRead < modules.length; col++) {
+          // Ignore bits covered by the function pattern
+          int x = j - col;
+          if (!functionPattern.get(x, i)) {
+            int codeword = bitsRead / 8;
+            int bit = 0x80 >> (bitsRead % 8);
+            for (int mask = 0; mask < dataMasks.length; mask++) {
+              if (dataMasks[mask].isMasked(i, x)) {
+                masks[mask][codeword] |= bit;
+              }
+            }
+            modules[bitsRead++] = (i << 8) | x;
+          }
+        }
+      }
+      readingUp ^= true; // readingUp = !readingUp; // switch directions
+    }
+  }
+
+  static CodewordLayout forVersion(Version version) {
+    int index = version.getVersionNumber() - 1;
+    CodewordLayout layout = LAYOUTS[index];
+    if (layout == null) {
+      // Two threads may both build it; either copy will do, and its final fields make it safe to share.
+      layout = new CodewordLayout(version);
+      LAYOUTS[index] = layout;
+    }
+    return layout;
+  }
+
+  /**
+   * @return the module of each bit of the codewords, first bit of the first codeword first, as
+   *         {@code (y << 8) | x}: no symbol is 256 modules wide
+   */
+  int[] getModules() {
+    return modules;
+  }
+
+  /**
+   * @param dataMask the data mask reference of the format information
+   * @return for each codeword, the bits that data mask flips
+   */
+  byte[] getMask(int dataMask) {
+    return masks[dataMask];
+  }
+
+}
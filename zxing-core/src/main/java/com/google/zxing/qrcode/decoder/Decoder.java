@@ -21,24 +21,62 @@ import com.google.zxing.parse.DecodeHintType;
 import com.google.zxing.FormatException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.common.DecoderResult;
+import com.google.zxing.common.SharedForkJoinPool;
 import com.google.zxing.common.reedsolomon.GenericGF;
-import com.google.zxing.common.reedsolomon.ReedSolomonDecoder;
+import com.google.zxing.common.reedsolomon.GF256ReedSolomonDecoder;
 import com.google.zxing.common.reedsolomon.ReedSolomonException;
 
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * <p>The main class which implements QR Code decoding -- as opposed to locating and extracting
  * the QR Code from an image.</p>
  *
+ * <p>This class is thread-safe: several codes may be decoded with the same instance at once.</p>
+ *
+ * <p>The data blocks of large versions are error-corrected in parallel on a fork/join pool; their
+ * correction then dominates the decoding time, and they have a dozen blocks or more.</p>
+ *
  * @author Sean Owen
  */
 public final class Decoder {
 
-  private final ReedSolomonDecoder rsDecoder;
+  /**
+   * The Reed-Solomon decoder keeps its scratch arrays from one block to the next, so each thread
+   * gets its own.
+   */
+  private static final ThreadLocal<GF256ReedSolomonDecoder> RS_DECODERS =
+      new ThreadLocal<GF256ReedSolomonDecoder>() {
+        @Override
+        protected GF256ReedSolomonDecoder initialValue() {
+          return new GF256ReedSolomonDecoder(GenericGF.QR_CODE_FIELD_256);
+        }
+      };
 
+  /**
+   * Versions from which the data blocks are corrected in parallel. Smaller versions have too few
+   * blocks, each too quickly corrected, to be worth the hand-off.
+   */
+  private static final int PARALLEL_MIN_VERSION = 20;
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Corrects large versions on the {@link SharedForkJoinPool}.
+   */
   public Decoder() {
-    rsDecoder = new ReedSolomonDecoder(GenericGF.QR_CODE_FIELD_256);
+    this(SharedForkJoinPool.getDefault());
+  }
+
+  /**
+   * @param pool the pool to correct the data blocks of large versions on; one with a parallelism
+   *        of 1 corrects them on the calling thread
+   */
+  public Decoder(ForkJoinPool pool) {
+    this.pool = pool;
   }
 
   public DecoderResult decode(boolean[][] image) throws ChecksumException, FormatException {
@@ -90,9 +128,6 @@ public final class Decoder {
 
     try {
 
-      // Revert the bit matrix
-      parser.remask();
-
       // Will be attempting a mirrored reading of the version and format info.
       parser.setMirror(true);
 
@@ -108,9 +143,6 @@ public final class Decoder {
        * that the QR code may be mirrored, and we should try once more with a
        * mirrored content.
        */
-      // Prepare for a mirrored reading.
-      parser.mirror();
-
       DecoderResult result = decode(parser, hints);
 
       // Success! Notify the caller that the code was mirrored.
@@ -146,10 +178,18 @@ public final class Decoder {
     int resultOffset = 0;
 
     // Error-correct and copy data blocks together into a stream of bytes
+    if (version.getVersionNumber() >= PARALLEL_MIN_VERSION && dataBlocks.length > 1 &&
+        pool.getParallelism() > 1) {
+      correctErrorsInParallel(dataBlocks);
+    } else {
+      GF256ReedSolomonDecoder rsDecoder = RS_DECODERS.get();
+      for (DataBlock dataBlock : dataBlocks) {
+        correctErrors(rsDecoder, dataBlock.getCodewords(), dataBlock.getNumDataCodewords());
+      }
+    }
     for (DataBlock dataBlock : dataBlocks) {
       byte[] codewordBytes = dataBlock.getCodewords();
       int numDataCodewords = dataBlock.getNumDataCodewords();
-      correctErrors(codewordBytes, numDataCodewords);
       for (int i = 0; i < numDataCodewords; i++) {
         resultBytes[resultOffset++] = codewordBytes[i];
       }
@@ -159,30 +199,70 @@ public final class Decoder {
     return DecodedBitStreamParser.decode(resultBytes, version, ecLevel, hints);
   }
 
+  /**
+   * Corrects the errors of all the data blocks in place, several at once on {@code pool}.
+   *
+   * @throws ChecksumException if error correction fails for any block
+   */
+  private void correctErrorsInParallel(DataBlock[] dataBlocks) throws ChecksumException {
+    AtomicBoolean failed = new AtomicBoolean();
+    SharedForkJoinPool.invoke(pool, new CorrectionTask(dataBlocks, 0, dataBlocks.length, failed));
+    if (failed.get()) {
+      throw ChecksumException.getChecksumInstance();
+    }
+  }
+
   /**
    * <p>Given data and error-correction codewords received, possibly corrupted by errors, attempts to
    * correct the errors in-place using Reed-Solomon error correction.</p>
    *
+   * @param rsDecoder the Reed-Solomon decoder of the calling thread
    * @param codewordBytes data and error correction codewords
    * @param numDataCodewords number of codewords that are data bytes
    * @throws ChecksumException if error correction fails
    */
-  private void correctErrors(byte[] codewordBytes, int numDataCodewords) throws ChecksumException {
-    int numCodewords = codewordBytes.length;
-    // First read into an array of ints
-    int[] codewordsInts = new int[numCodewords];
-    for (int i = 0; i < numCodewords; i++) {
-      codewordsInts[i] = codewordBytes[i] & 0xFF;
-    }
+  private static void correctErrors(GF256ReedSolomonDecoder rsDecoder, byte[] codewordBytes, int numDataCodewords)
+      throws ChecksumException {
     try {
-      rsDecoder.decode(codewordsInts, codewordBytes.length - numDataCodewords);
+      rsDecoder.decode(codewordBytes, codewordBytes.length - numDataCodewords);
     } catch (ReedSolomonException ignored) {
       throw ChecksumException.getChecksumInstance();
     }
-    // Copy back into array of bytes -- only need to worry about the bytes that were data
-    // We don't care about errors in the error-correction codewords
-    for (int i = 0; i < numDataCodewords; i++) {
-      codewordBytes[i] = (byte) codewordsInts[i];
+  }
+
+  /**
+   * Corrects a range of data blocks, each one on the thread that happens to run it. Once a block
+   * cannot be corrected the code cannot be decoded, so the blocks not started yet are skipped.
+   */
+  private static final class CorrectionTask extends RecursiveAction {
+
+    private final DataBlock[] dataBlocks;
+    private final int from;
+    private final int to;
+    private final AtomicBoolean failed;
+
+    CorrectionTask(DataBlock[] dataBlocks, int from, int to, AtomicBoolean failed) {
+      this.dataBlocks = dataBlocks;
+      this.from = from;
+      this.to = to;
+      this.failed = failed;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        if (!failed.get()) {
+          try {
+            correctErrors(RS_DECODERS.get(), dataBlocks[from].getCodewords(), dataBlocks[from].getNumDataCodewords());
+          } catch (ChecksumException ce) {
+            failed.set(true);
+          }
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new CorrectionTask(dataBlocks, from, middle, failed),
+          new CorrectionTask(dataBlocks, middle, to, failed));
     }
   }
 
@@ -16,6 +16,7 @@
 
 package com.google.zxing.qrcode.detector;
 
+import com.google.zxing.parse.DecodeConfig;
 import com.google.zxing.parse.DecodeHintType;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
@@ -40,6 +41,7 @@ public class Detector {
 
   private final BitMatrix image;
   private ResultPointCallback resultPointCallback;
+  private FinderPatternInfo finderPatternInfo;
 
   public Detector(BitMatrix image) {
     this.image = image;
@@ -61,7 +63,7 @@ public class Detector {
    * @throws FormatException if a QR Code cannot be decoded
    */
   public DetectorResult detect() throws NotFoundException, FormatException {
-    return detect(null);
+    return detectWithConfig(DecodeConfig.DEFAULT, null);
   }
 
   /**
@@ -74,13 +76,87 @@ public class Detector {
    */
   public final DetectorResult detect(Map<DecodeHintType,?> hints) throws NotFoundException, FormatException {
 
-    resultPointCallback = hints == null ? null :
-        (ResultPointCallback) hints.get(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+    return detect(hints, null);
+  }
+
+  /**
+   * <p>Detects a QR Code in an image, looking for its finder patterns where they were in a
+   * previous frame first.</p>
+   *
+   * @param hints optional hints to detector
+   * @param previous the finder patterns found in the previous frame, see
+   *        {@link #getFinderPatternInfo()}, or {@code null}
+   * @return {@link DetectorResult} encapsulating results of detecting a QR Code
+   * @throws NotFoundException if QR Code cannot be found
+   * @throws FormatException if a QR Code cannot be decoded
+   */
+  public final DetectorResult detect(Map<DecodeHintType,?> hints, FinderPatternInfo previous)
+      throws NotFoundException, FormatException {
+    return detectWithConfig(DecodeConfig.of(hints), previous);
+  }
+
+  /**
+   * <p>Like {@link #detect(Map, FinderPatternInfo)}, with the hints already read into a
+   * config.</p>
+   *
+   * @param config decode hints
+   * @param previous the finder patterns found in the previous frame, see
+   *        {@link #getFinderPatternInfo()}, or {@code null}
+   * @return {@link DetectorResult} encapsulating results of detecting a QR Code
+   * @throws NotFoundException if QR Code cannot be found
+   * @throws FormatException if a QR Code cannot be decoded
+   */
+  public final DetectorResult detectWithConfig(DecodeConfig config, FinderPatternInfo previous)
+      throws NotFoundException, FormatException {
+
+    resultPointCallback = config.getResultPointCallback();
 
+    finderPatternInfo = null;
     FinderPatternFinder finder = new FinderPatternFinder(image, resultPointCallback);
-    FinderPatternInfo info = finder.find(hints);
+    finderPatternInfo = finder.find(config, previous);
+
+    return processFinderPatternInfo(finderPatternInfo);
+  }
+
+  /**
+   * <p>Finds the finder patterns of a QR Code in a scaled down copy of a large image, to pass to
+   * {@link #detectWithConfig(DecodeConfig, FinderPatternInfo)} on the image itself. Scanning the copy takes a
+   * fraction of the time; the detector then only has to confirm and refine the centers found, and
+   * samples the code at full resolution.</p>
+   *
+   * @param downscaled the image scaled down by {@code scale}
+   * @param scale how many pixels of the image, in each direction, one pixel of {@code downscaled}
+   *        stands for
+   * @param config decode hints
+   * @return the finder patterns in the coordinates of the image
+   * @throws NotFoundException if there are none in {@code downscaled}, which happens for codes
+   *         with modules too small to survive the scaling
+   */
+  public static FinderPatternInfo findDownscaledFinderPatterns(BitMatrix downscaled, int scale,
+                                                               DecodeConfig config)
+      throws NotFoundException {
+    // The points are not where the caller would draw them, so do not report them.
+    FinderPatternInfo info = new FinderPatternFinder(downscaled).find(config);
+    return new FinderPatternInfo(new FinderPattern[] {
+        upscale(info.getBottomLeft(), scale),
+        upscale(info.getTopLeft(), scale),
+        upscale(info.getTopRight(), scale),
+    });
+  }
 
-    return processFinderPatternInfo(info);
+  private static FinderPattern upscale(FinderPattern pattern, int scale) {
+    // A pixel of the scaled down image covers pixels 0 to scale - 1 of the image.
+    float offset = (scale - 1) / 2.0f;
+    return new FinderPattern(pattern.getX() * scale + offset, pattern.getY() * scale + offset,
+        pattern.getEstimatedModuleSize() * scale);
+  }
+
+  /**
+   * @return the finder patterns found by the last call to {@code detect}, even if the QR Code
+   *         could not be sampled, or {@code null} if none were found
+   */
+  public final FinderPatternInfo getFinderPatternInfo() {
+    return finderPatternInfo;
   }
 
   protected final DetectorResult processFinderPatternInfo(FinderPatternInfo info)
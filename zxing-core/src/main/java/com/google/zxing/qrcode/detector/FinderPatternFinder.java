@@ -16,11 +16,9 @@
 
 package com.google.zxing.qrcode.detector;
 
-import android.os.Build;
-
 import com.google.zxing.NotFoundException;
 import com.google.zxing.common.BitMatrix;
-import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.parse.DecodeConfig;
 import com.google.zxing.parse.ResultPoint;
 import com.google.zxing.parse.ResultPointCallback;
 
@@ -30,7 +28,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 
 /**
  * <p>This class attempts to find finder patterns in a QR Code. Finder patterns are the square
@@ -77,8 +74,8 @@ public class FinderPatternFinder {
     return possibleCenters;
   }
 
-  final FinderPatternInfo find(Map<DecodeHintType,?> hints) throws NotFoundException {
-    boolean tryHarder = hints != null && hints.containsKey(DecodeHintType.TRY_HARDER);
+  final FinderPatternInfo find(DecodeConfig config) throws NotFoundException {
+    boolean tryHarder = config.isTryHarder();
     int maxI = image.getHeight();
     int maxJ = image.getWidth();
     // We are looking for black/white/black/white/black modules in
@@ -170,6 +167,72 @@ public class FinderPatternFinder {
     return new FinderPatternInfo(patternInfo);
   }
 
+  /**
+   * <p>Like {@link #find(DecodeConfig)}, but first looks for the finder patterns where they were in a
+   * previous frame. While the camera is held steady they have barely moved, so cross-checking the
+   * previous centers confirms them at the cost of a few scans instead of a scan of the whole
+   * image. Only if one of them cannot be confirmed is the image scanned as usual.</p>
+   *
+   * <p>The centers may just as well come from a scaled down copy of the image, see
+   * {@link Detector#findDownscaledFinderPatterns(BitMatrix, int, DecodeConfig)}.</p>
+   *
+   * @param config decode hints
+   * @param previous the finder patterns found in the previous frame, or {@code null}
+   */
+  final FinderPatternInfo find(DecodeConfig config, FinderPatternInfo previous)
+      throws NotFoundException {
+    if (previous != null) {
+      FinderPattern[] patternInfo = {
+          crossCheckPrevious(previous.getBottomLeft()),
+          crossCheckPrevious(previous.getTopLeft()),
+          crossCheckPrevious(previous.getTopRight()),
+      };
+      if (patternInfo[0] != null && patternInfo[1] != null && patternInfo[2] != null) {
+        ResultPoint.orderBestPatterns(patternInfo);
+        return new FinderPatternInfo(patternInfo);
+      }
+    }
+    return find(config);
+  }
+
+  /**
+   * Cross-checks a finder pattern center of a previous frame the way
+   * {@link #handlePossibleCenter(int[], int, int)} cross-checks a horizontal scan. The previous
+   * center may also come from a scaled down copy of the image, so its module size is only trusted
+   * for the vertical cross-check, which is the more tolerant one; the others use the size that one
+   * measures.
+   *
+   * @return the center found around the previous one, or {@code null} if there is no finder
+   *         pattern there anymore
+   */
+  private FinderPattern crossCheckPrevious(FinderPattern previous) {
+    int startJ = (int) previous.getX();
+    int startI = (int) previous.getY();
+    if (startJ < 0 || startI < 0 || startJ >= image.getWidth() || startI >= image.getHeight() ||
+        !image.get(startJ, startI)) {
+      return null;
+    }
+    // The horizontal scan would pass the width of the center, 3 modules, and that of the pattern.
+    float previousModuleSize = previous.getEstimatedModuleSize();
+    int maxCount = (int) (3.0f * previousModuleSize + 0.5f);
+    float centerI = crossCheckVertical(startI, startJ, maxCount, (int) (7.0f * previousModuleSize + 0.5f));
+    if (Float.isNaN(centerI)) {
+      return null;
+    }
+    int[] stateCount = crossCheckStateCount;
+    int stateCountTotal = stateCount[0] + stateCount[1] + stateCount[2] + stateCount[3] +
+        stateCount[4];
+    float centerJ = crossCheckHorizontal(startJ, (int) centerI, stateCount[2], stateCountTotal);
+    if (Float.isNaN(centerJ) || !crossCheckDiagonal((int) centerI, (int) centerJ)) {
+      return null;
+    }
+    FinderPattern center = new FinderPattern(centerJ, centerI, stateCountTotal / 7.0f);
+    if (resultPointCallback != null) {
+      resultPointCallback.foundPossibleResultPoint(center);
+    }
+    return center;
+  }
+
   /**
    * Given a count of black/white/black/white/black pixels just seen and an end position,
    * figures the location of the center of this run.
@@ -614,11 +677,7 @@ public class FinderPatternFinder {
       throw NotFoundException.getNotFoundInstance();
     }
 
-    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-      possibleCenters.sort(moduleComparator);
-    } else {
-      Collections.sort(possibleCenters, moduleComparator);
-    }
+    Collections.sort(possibleCenters, moduleComparator);
 
     double distortion = Double.MAX_VALUE;
     double[] squares = new double[3];
@@ -46,4 +46,19 @@ public final class FinderPatternInfo {
     return topRight;
   }
 
+  /**
+   * @return these finder patterns moved by ({@code dx}, {@code dy})
+   */
+  public FinderPatternInfo translate(float dx, float dy) {
+    return new FinderPatternInfo(new FinderPattern[] {
+        translate(bottomLeft, dx, dy),
+        translate(topLeft, dx, dy),
+        translate(topRight, dx, dy),
+    });
+  }
+
+  private static FinderPattern translate(FinderPattern pattern, float dx, float dy) {
+    return new FinderPattern(pattern.getX() + dx, pattern.getY() + dy, pattern.getEstimatedModuleSize());
+  }
+
 }
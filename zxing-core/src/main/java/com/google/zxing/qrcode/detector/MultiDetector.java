@@ -0,0 +1,77 @@
+/*
+ * Copyright 2009 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode.detector;
+
+import com.google.zxing.FormatException;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.DetectorResult;
+import com.google.zxing.parse.DecodeConfig;
+import com.google.zxing.parse.DecodeHintType;
+
+import java.util.Map;
+
+/**
+ * <p>Encapsulates logic that can detect one or more QR Codes in an image, even if the QR Code
+ * is rotated or skewed, or partially obscured.</p>
+ *
+ * <p>The finder patterns of all codes are found in a single scan of the image by
+ * {@link #findMultiWithConfig(DecodeConfig)}. Each code is then located with {@link #detectAt(FinderPatternInfo)},
+ * which only reads the image and may be called for several codes at once from different
+ * threads.</p>
+ *
+ * @author Sean Owen
+ * @author Hannes Erven
+ */
+public final class MultiDetector extends Detector {
+
+  public MultiDetector(BitMatrix image) {
+    super(image);
+  }
+
+  /**
+   * @param hints optional hints to detector
+   * @return the finder patterns of every QR Code in the image
+   * @throws NotFoundException if no three finder patterns form a plausible QR Code
+   */
+  public FinderPatternInfo[] findMulti(Map<DecodeHintType,?> hints) throws NotFoundException {
+    return findMultiWithConfig(DecodeConfig.of(hints));
+  }
+
+  /**
+   * @param config decode hints
+   * @return the finder patterns of every QR Code in the image
+   * @throws NotFoundException if no three finder patterns form a plausible QR Code
+   */
+  public FinderPatternInfo[] findMultiWithConfig(DecodeConfig config) throws NotFoundException {
+    MultiFinderPatternFinder finder = new MultiFinderPatternFinder(getImage(), config.getResultPointCallback());
+    return finder.findMulti(config);
+  }
+
+  /**
+   * <p>Detects the QR Code of one set of finder patterns returned by {@link #findMultiWithConfig(DecodeConfig)}.</p>
+   *
+   * @param info the finder patterns of the code
+   * @return {@link DetectorResult} encapsulating results of detecting the QR Code
+   * @throws NotFoundException if the QR Code cannot be found
+   * @throws FormatException if the QR Code cannot be decoded
+   */
+  public DetectorResult detectAt(FinderPatternInfo info) throws NotFoundException, FormatException {
+    return processFinderPatternInfo(info);
+  }
+
+}
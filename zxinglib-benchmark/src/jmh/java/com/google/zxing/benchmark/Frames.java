@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.benchmark;
+
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.parse.BarcodeFormat;
+import com.google.zxing.parse.MultiFormatWriter;
+import com.google.zxing.parse.PlanarYUVLuminanceSource;
+import com.google.zxing.parse.WriterException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Corpus of NV21 preview frames used by the benchmarks.
+ *
+ * <p>Every frame is identified by a corpus name and a preview resolution such as
+ * {@code 1280x720}. If the system property {@code zxing.benchmark.frames} points at a
+ * directory containing a recorded frame named {@code <corpus>_<width>x<height>.nv21}, that
+ * frame is used as is. Otherwise a synthetic frame is rendered: the symbol is drawn in the
+ * middle of a noisy, unevenly lit background, roughly like a camera preview.</p>
+ *
+ * <p>Synthetic corpora are {@code qr_v4}, {@code qr_v10}, {@code qr_v25}, {@code ean13},
+ * {@code code128} and {@code empty} (no barcode at all).</p>
+ */
+public final class Frames {
+
+  public static final String FRAMES_DIR_PROPERTY = "zxing.benchmark.frames";
+
+  /** Same ratio {@code CaptureHelper} hands to the camera manager by default. */
+  private static final float FRAMING_RECT_RATIO = 0.9f;
+
+  private static final int QUIET_ZONE = 4;
+
+  private final byte[] data;
+  private final int width;
+  private final int height;
+
+  private Frames(byte[] data, int width, int height) {
+    this.data = data;
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * @param corpus corpus name, e.g. {@code qr_v10}
+   * @param resolution preview size as {@code <width>x<height>}
+   * @return the recorded frame if one is available, otherwise a synthetic one
+   */
+  public static Frames load(String corpus, String resolution) throws IOException {
+    int x = resolution.indexOf('x');
+    int width = Integer.parseInt(resolution.substring(0, x));
+    int height = Integer.parseInt(resolution.substring(x + 1));
+    String dir = System.getProperty(FRAMES_DIR_PROPERTY);
+    if (dir != null) {
+      File recorded = new File(dir, corpus + '_' + resolution + ".nv21");
+      if (recorded.isFile()) {
+        byte[] data = readFully(new FileInputStream(recorded));
+        if (data.length < width * height) {
+          throw new IOException(recorded + " is too small for " + resolution);
+        }
+        return new Frames(data, width, height);
+      }
+    }
+    return new Frames(render(symbol(corpus), width, height, corpus.hashCode()), width, height);
+  }
+
+  public byte[] getData() {
+    return data;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * @return a luminance source over the whole frame
+   */
+  public PlanarYUVLuminanceSource fullFrame() {
+    return new PlanarYUVLuminanceSource(data, width, height, 0, 0, width, height, false);
+  }
+
+  /**
+   * @return a luminance source cropped the way {@code CameraManager.buildLuminanceSource} does
+   */
+  public PlanarYUVLuminanceSource framingRect() {
+    int size = (int) (Math.min(width, height) * FRAMING_RECT_RATIO);
+    int left = (width - size) / 2;
+    int top = (height - size) / 3;
+    return new PlanarYUVLuminanceSource(data, width, height, left, top, size, size, false);
+  }
+
+  /**
+   * @return the framing rect of the frame turned clockwise, the way
+   *     {@code CameraManager.buildLuminanceSource} builds it for vertical barcodes
+   */
+  public PlanarYUVLuminanceSource rotatedFramingRect() {
+    PlanarYUVLuminanceSource rotated =
+        new PlanarYUVLuminanceSource(data, width, height, 0, 0, width, height, false).rotateClockwise();
+    int size = (int) (Math.min(width, height) * FRAMING_RECT_RATIO);
+    int left = (rotated.getWidth() - size) / 2;
+    int top = (rotated.getHeight() - size) / 3;
+    return rotated.crop(left, top, size, size);
+  }
+
+  /**
+   * @param name name of a QR module matrix bundled with the benchmarks, e.g. {@code qr_v10}
+   * @return the modules of the symbol, without quiet zone
+   */
+  public static BitMatrix qrModules(String name) throws IOException {
+    InputStream in = Frames.class.getResourceAsStream(name + ".txt");
+    if (in == null) {
+      throw new IOException("No such QR fixture: " + name);
+    }
+    return BitMatrix.parse(new String(readFully(in), "US-ASCII"), "X", ".");
+  }
+
+  private static BitMatrix symbol(String corpus) throws IOException {
+    try {
+      switch (corpus) {
+        case "empty":
+          return null;
+        case "ean13":
+          return bars(new MultiFormatWriter().encode("6901234567892", BarcodeFormat.EAN_13, 0, 0));
+        case "code128":
+          return bars(new MultiFormatWriter().encode("WG2020-0001234", BarcodeFormat.CODE_128, 0, 0));
+        default:
+          return qrModules(corpus);
+      }
+    } catch (WriterException we) {
+      throw new IOException(we);
+    }
+  }
+
+  /**
+   * 1D writers return a single row; stretch it vertically to a height comparable to a label.
+   */
+  private static BitMatrix bars(BitMatrix row) {
+    int width = row.getWidth();
+    int height = Math.max(1, width / 3);
+    BitMatrix bars = new BitMatrix(width, height);
+    for (int x = 0; x < width; x++) {
+      if (row.get(x, 0)) {
+        bars.setRegion(x, 0, 1, height);
+      }
+    }
+    return bars;
+  }
+
+  private static byte[] render(BitMatrix symbol, int width, int height, long seed) {
+    byte[] yuv = new byte[width * height * 3 / 2];
+    Random random = new Random(seed);
+    int scale = 1;
+    int symbolLeft = 0;
+    int symbolTop = 0;
+    int symbolWidth = 0;
+    int symbolHeight = 0;
+    if (symbol != null) {
+      symbolWidth = symbol.getWidth() + 2 * QUIET_ZONE;
+      symbolHeight = symbol.getHeight() + 2 * QUIET_ZONE;
+      // Fill about half of the framing rect, which is how operators tend to aim.
+      int target = (int) (Math.min(width, height) * FRAMING_RECT_RATIO / 2);
+      scale = Math.max(1, target / Math.max(symbolWidth, symbolHeight));
+      symbolLeft = (width - symbolWidth * scale) / 2;
+      symbolTop = (height - symbolHeight * scale) / 2;
+    }
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        // Left-to-right lighting gradient plus sensor noise
+        int luminance = 160 + (x * 60) / width + random.nextInt(20);
+        if (symbol != null) {
+          int moduleX = (x - symbolLeft) / scale - QUIET_ZONE;
+          int moduleY = (y - symbolTop) / scale - QUIET_ZONE;
+          if (x >= symbolLeft && y >= symbolTop &&
+              moduleX >= 0 && moduleX < symbol.getWidth() &&
+              moduleY >= 0 && moduleY < symbol.getHeight() &&
+              symbol.get(moduleX, moduleY)) {
+            luminance = 25 + random.nextInt(30);
+          }
+        }
+        yuv[y * width + x] = (byte) luminance;
+      }
+    }
+    // Neutral chroma plane
+    Arrays.fill(yuv, width * height, yuv.length, (byte) 128);
+    return yuv;
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) > 0) {
+        out.write(buffer, 0, read);
+      }
+      return out.toByteArray();
+    } finally {
+      in.close();
+    }
+  }
+
+}
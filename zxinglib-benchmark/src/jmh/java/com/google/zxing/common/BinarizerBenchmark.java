@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.common;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.benchmark.Frames;
+import com.google.zxing.parse.LuminanceSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Binarization stage: local thresholding for 2D readers and the sharpened histogram rows that
+ * 1D readers request.
+ */
+@State(Scope.Benchmark)
+public class BinarizerBenchmark {
+
+  @Param({"640x480", "1280x720", "1920x1080"})
+  public String resolution;
+
+  @Param({"qr_v10", "ean13", "empty"})
+  public String corpus;
+
+  private LuminanceSource source;
+  private LuminanceSource rotatedSource;
+  private final BinarizerContext context = new BinarizerContext();
+
+  @Setup
+  public void setUp() throws IOException {
+    Frames frames = Frames.load(corpus, resolution);
+    source = frames.framingRect();
+    rotatedSource = frames.rotatedFramingRect();
+  }
+
+  @Benchmark
+  public BitMatrix hybridBlackMatrix() throws NotFoundException {
+    return new HybridBinarizer(source).getBlackMatrix();
+  }
+
+  /**
+   * The steady state of a decode worker: reused scratch buffers, luminance read in place.
+   */
+  @Benchmark
+  public BitMatrix hybridBlackMatrixWithContext() throws NotFoundException {
+    return new HybridBinarizer(source, context).getBlackMatrix();
+  }
+
+  /**
+   * A strided view, which the binarizer copies into the context first.
+   */
+  @Benchmark
+  public BitMatrix hybridRotatedBlackMatrixWithContext() throws NotFoundException {
+    return new HybridBinarizer(rotatedSource, context).getBlackMatrix();
+  }
+
+  @Benchmark
+  public BitMatrix parallelHybridBlackMatrix() throws NotFoundException {
+    return new ParallelHybridBinarizer(source).getBlackMatrix();
+  }
+
+  @Benchmark
+  public BitMatrix globalHistogramBlackMatrix() {
+    try {
+      return new GlobalHistogramBinarizer(source).getBlackMatrix();
+    } catch (NotFoundException nfe) {
+      return null;
+    }
+  }
+
+  @Benchmark
+  public BitArray globalHistogramBlackRow() {
+    try {
+      return new GlobalHistogramBinarizer(source).getBlackRow(source.getHeight() / 2, null);
+    } catch (NotFoundException nfe) {
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.oned;
+
+import com.google.zxing.FormatException;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.benchmark.Frames;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.parse.BinaryBitmap;
+import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.parse.Result;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Scanning every row of a frame with all the 1D readers, which is what most preview frames cost
+ * since most of them hold no barcode: through {@link OneDReader#decode}, which throws when nothing
+ * is found, and {@link OneDReader#tryDecode}, which returns null.
+ */
+@State(Scope.Benchmark)
+public class OneDReaderBenchmark {
+
+  @Param({"1280x720", "1920x1080"})
+  public String resolution;
+
+  @Param({"empty", "ean13", "code128"})
+  public String corpus;
+
+  @Param({"false", "true"})
+  public boolean tryHarder;
+
+  private final Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+  private MultiFormatOneDReader reader;
+  private Frames frame;
+
+  @Setup
+  public void setUp() throws IOException {
+    frame = Frames.load(corpus, resolution);
+    if (tryHarder) {
+      hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    }
+    reader = new MultiFormatOneDReader(hints);
+  }
+
+  @Benchmark
+  public Result decode() {
+    try {
+      return reader.decode(new BinaryBitmap(new HybridBinarizer(frame.framingRect())), hints);
+    } catch (NotFoundException | FormatException e) {
+      return null;
+    }
+  }
+
+  @Benchmark
+  public Result tryDecode() {
+    return reader.tryDecode(new BinaryBitmap(new HybridBinarizer(frame.framingRect())), hints);
+  }
+
+}
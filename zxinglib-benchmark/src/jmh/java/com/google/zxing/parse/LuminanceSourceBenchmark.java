@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.parse;
+
+import com.google.zxing.benchmark.Frames;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Luminance crop stage: building the {@link PlanarYUVLuminanceSource} for the framing rect and
+ * pulling its luminance matrix, as {@code DecodeHandler} does for every preview frame.
+ */
+@State(Scope.Benchmark)
+public class LuminanceSourceBenchmark {
+
+  @Param({"640x480", "1280x720", "1920x1080"})
+  public String resolution;
+
+  private Frames frame;
+
+  @Setup
+  public void setUp() throws IOException {
+    frame = Frames.load("qr_v10", resolution);
+  }
+
+  @Benchmark
+  public byte[] cropFramingRect() {
+    return frame.framingRect().getMatrix();
+  }
+
+  @Benchmark
+  public byte[] cropFramingRectRow() {
+    PlanarYUVLuminanceSource source = frame.framingRect();
+    return source.getRow(source.getHeight() / 2, null);
+  }
+
+  /** The vertical-barcode retry: a clockwise view of the frame, cropped to the framing rect. */
+  @Benchmark
+  public byte[] rotatedFramingRect() {
+    return frame.rotatedFramingRect().getMatrix();
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.parse;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.benchmark.Frames;
+import com.google.zxing.common.HybridBinarizer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * End to end per-frame latency: crop, binarize and run every configured reader, the way
+ * {@code DecodeHandler} handles one preview frame.
+ */
+@State(Scope.Benchmark)
+public class MultiFormatReaderBenchmark {
+
+  @Param({"640x480", "1280x720", "1920x1080"})
+  public String resolution;
+
+  @Param({"qr_v4", "qr_v10", "qr_v25", "ean13", "code128", "empty"})
+  public String corpus;
+
+  @Param({"false", "true"})
+  public boolean tryHarder;
+
+  private final MultiFormatReader reader = new MultiFormatReader();
+  private Frames frame;
+
+  @Setup
+  public void setUp() throws IOException {
+    frame = Frames.load(corpus, resolution);
+    Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+    if (tryHarder) {
+      hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    }
+    reader.setHints(hints);
+  }
+
+  @Benchmark
+  public Result decodeWithState() {
+    try {
+      return reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(frame.framingRect())));
+    } catch (NotFoundException nfe) {
+      return null;
+    } finally {
+      reader.reset();
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode;
+
+import com.google.zxing.ChecksumException;
+import com.google.zxing.FormatException;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.benchmark.Frames;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.parse.BinaryBitmap;
+import com.google.zxing.parse.DownscaledLuminanceSource;
+import com.google.zxing.parse.LuminanceSource;
+import com.google.zxing.parse.Result;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Decoding a QR code in a large picture, the way {@code CodeUtils.parseQRCodeResult} does: at full
+ * resolution, or by finding the finder patterns in a scaled down copy first.
+ */
+@State(Scope.Benchmark)
+public class QRCodeReaderBenchmark {
+
+  @Param({"1920x1080", "4000x3000"})
+  public String resolution;
+
+  @Param({"qr_v4", "qr_v10", "qr_v25", "empty"})
+  public String corpus;
+
+  @Param({"2", "4"})
+  public int scale;
+
+  private LuminanceSource source;
+
+  @Setup
+  public void setUp() throws IOException {
+    source = Frames.load(corpus, resolution).fullFrame();
+  }
+
+  @Benchmark
+  public Result decode() {
+    try {
+      // A new reader every time: one that decoded the picture before would know where to look.
+      return new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(source)), null, 1, null);
+    } catch (NotFoundException | ChecksumException | FormatException e) {
+      return null;
+    }
+  }
+
+  @Benchmark
+  public Result decodeDownscaled() {
+    try {
+      BinaryBitmap downscaled = new BinaryBitmap(new HybridBinarizer(new DownscaledLuminanceSource(source, scale)));
+      return new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(source)), downscaled, scale, null);
+    } catch (NotFoundException | ChecksumException | FormatException e) {
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode.decoder;
+
+import com.google.zxing.FormatException;
+import com.google.zxing.benchmark.Frames;
+import com.google.zxing.common.DecoderResult;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Bitstream parsing stage: turning the corrected data codewords of a symbol back into text.
+ */
+@State(Scope.Benchmark)
+public class DecodedBitStreamParserBenchmark {
+
+  @Param({"qr_v4", "qr_v10", "qr_v25"})
+  public String corpus;
+
+  private byte[] dataBytes;
+  private Version version;
+  private ErrorCorrectionLevel ecLevel;
+
+  @Setup
+  public void setUp() throws IOException, FormatException {
+    BitMatrixParser parser = new BitMatrixParser(Frames.qrModules(corpus));
+    version = parser.readVersion();
+    ecLevel = parser.readFormatInformation().getErrorCorrectionLevel();
+    DataBlock[] dataBlocks = DataBlock.getDataBlocks(parser.readCodewords(), version, ecLevel);
+    int totalBytes = 0;
+    for (DataBlock dataBlock : dataBlocks) {
+      totalBytes += dataBlock.getNumDataCodewords();
+    }
+    dataBytes = new byte[totalBytes];
+    int offset = 0;
+    for (DataBlock dataBlock : dataBlocks) {
+      int numDataCodewords = dataBlock.getNumDataCodewords();
+      System.arraycopy(dataBlock.getCodewords(), 0, dataBytes, offset, numDataCodewords);
+      offset += numDataCodewords;
+    }
+  }
+
+  @Benchmark
+  public DecoderResult parse() throws FormatException {
+    return DecodedBitStreamParser.decode(dataBytes, version, ecLevel, null);
+  }
+
+}
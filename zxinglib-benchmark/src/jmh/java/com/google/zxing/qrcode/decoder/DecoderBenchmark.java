@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode.decoder;
+
+import com.google.zxing.ChecksumException;
+import com.google.zxing.FormatException;
+import com.google.zxing.benchmark.Frames;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.DecoderResult;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Decoding a sampled symbol, from reading the codewords to parsing the text, with the data blocks
+ * corrected one after another or in parallel. Corrupted symbols have some modules flipped outside
+ * the format and version information.
+ */
+@State(Scope.Benchmark)
+public class DecoderBenchmark {
+
+  @Param({"qr_v10", "qr_v25"})
+  public String corpus;
+
+  @Param({"false", "true"})
+  public boolean corrupted;
+
+  @Param({"false", "true"})
+  public boolean parallel;
+
+  private BitMatrix bits;
+  private ForkJoinPool pool;
+  private Decoder decoder;
+
+  @Setup
+  public void setUp() throws IOException, ChecksumException, FormatException {
+    bits = Frames.qrModules(corpus);
+    if (corrupted) {
+      int dimension = bits.getHeight();
+      Random random = new Random(corpus.hashCode());
+      for (int flipped = 0; flipped < dimension / 2; ) {
+        int x = random.nextInt(dimension);
+        int y = random.nextInt(dimension);
+        boolean formatOrVersion = (x < 9 || x >= dimension - 11) && y < 9 || x < 9 && y >= dimension - 11;
+        if (!formatOrVersion) {
+          bits.flip(x, y);
+          flipped++;
+        }
+      }
+    }
+    pool = new ForkJoinPool(parallel ? Runtime.getRuntime().availableProcessors() : 1);
+    decoder = new Decoder(pool);
+    // Fail here rather than measure a symbol that cannot be decoded.
+    decoder.decode(bits);
+  }
+
+  @TearDown
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public DecoderResult decode() throws ChecksumException, FormatException {
+    return decoder.decode(bits);
+  }
+
+}
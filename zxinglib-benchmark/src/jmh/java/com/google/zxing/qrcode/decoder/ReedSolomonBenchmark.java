@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode.decoder;
+
+import com.google.zxing.FormatException;
+import com.google.zxing.benchmark.Frames;
+import com.google.zxing.common.reedsolomon.GF256ReedSolomonDecoder;
+import com.google.zxing.common.reedsolomon.GenericGF;
+import com.google.zxing.common.reedsolomon.ReedSolomonDecoder;
+import com.google.zxing.common.reedsolomon.ReedSolomonException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Reed-Solomon correction stage over the data blocks of a real symbol, either clean or with as
+ * many corrupted codewords per block as the error correction level can repair, with the generic
+ * decoder and with the one {@link Decoder} uses.
+ */
+@State(Scope.Benchmark)
+public class ReedSolomonBenchmark {
+
+  @Param({"qr_v4", "qr_v10", "qr_v25"})
+  public String corpus;
+
+  @Param({"false", "true"})
+  public boolean corrupted;
+
+  private final ReedSolomonDecoder rsDecoder = new ReedSolomonDecoder(GenericGF.QR_CODE_FIELD_256);
+  private final GF256ReedSolomonDecoder gf256Decoder = new GF256ReedSolomonDecoder(GenericGF.QR_CODE_FIELD_256);
+  private int[][] blocks;
+  private byte[][] byteBlocks;
+  private byte[][] byteScratch;
+  private int[] twoS;
+  private int[] scratch;
+
+  @Setup
+  public void setUp() throws IOException, FormatException {
+    BitMatrixParser parser = new BitMatrixParser(Frames.qrModules(corpus));
+    Version version = parser.readVersion();
+    ErrorCorrectionLevel ecLevel = parser.readFormatInformation().getErrorCorrectionLevel();
+    DataBlock[] dataBlocks = DataBlock.getDataBlocks(parser.readCodewords(), version, ecLevel);
+    Random random = new Random(corpus.hashCode());
+    blocks = new int[dataBlocks.length][];
+    byteBlocks = new byte[dataBlocks.length][];
+    byteScratch = new byte[dataBlocks.length][];
+    twoS = new int[dataBlocks.length];
+    int maxLength = 0;
+    for (int i = 0; i < dataBlocks.length; i++) {
+      byte[] codewords = dataBlocks[i].getCodewords();
+      int[] block = new int[codewords.length];
+      for (int j = 0; j < codewords.length; j++) {
+        block[j] = codewords[j] & 0xFF;
+      }
+      twoS[i] = codewords.length - dataBlocks[i].getNumDataCodewords();
+      if (corrupted) {
+        for (int e = 0; e < twoS[i] / 2; e++) {
+          block[random.nextInt(block.length)] ^= 1 + random.nextInt(255);
+        }
+      }
+      blocks[i] = block;
+      byteBlocks[i] = new byte[block.length];
+      for (int j = 0; j < block.length; j++) {
+        byteBlocks[i][j] = (byte) block[j];
+      }
+      byteScratch[i] = new byte[block.length];
+      maxLength = Math.max(maxLength, block.length);
+    }
+    scratch = new int[maxLength];
+  }
+
+  @Benchmark
+  public int correctAllBlocks() throws ReedSolomonException {
+    int checksum = 0;
+    for (int i = 0; i < blocks.length; i++) {
+      int[] block = blocks[i];
+      int[] received = block.length == scratch.length ? scratch : new int[block.length];
+      System.arraycopy(block, 0, received, 0, block.length);
+      rsDecoder.decode(received, twoS[i]);
+      checksum += received[0];
+    }
+    return checksum;
+  }
+
+  @Benchmark
+  public int correctAllBlocksGF256() throws ReedSolomonException {
+    int checksum = 0;
+    for (int i = 0; i < byteBlocks.length; i++) {
+      byte[] received = byteScratch[i];
+      System.arraycopy(byteBlocks[i], 0, received, 0, received.length);
+      gf256Decoder.decode(received, twoS[i]);
+      checksum += received[0] & 0xFF;
+    }
+    return checksum;
+  }
+
+}
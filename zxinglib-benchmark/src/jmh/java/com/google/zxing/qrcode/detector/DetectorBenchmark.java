@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.qrcode.detector;
+
+import com.google.zxing.FormatException;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.benchmark.Frames;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.DetectorResult;
+import com.google.zxing.common.HybridBinarizer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+/**
+ * Detection stage: finder pattern search, alignment pattern search and grid sampling on an
+ * already binarized frame.
+ */
+@State(Scope.Benchmark)
+public class DetectorBenchmark {
+
+  @Param({"640x480", "1280x720", "1920x1080"})
+  public String resolution;
+
+  @Param({"qr_v4", "qr_v10", "qr_v25", "empty"})
+  public String corpus;
+
+  private BitMatrix image;
+  /**
+   * The finder patterns of the same frame, as a steady preview finds them in the previous one.
+   */
+  private FinderPatternInfo previous;
+
+  @Setup
+  public void setUp() throws IOException, NotFoundException {
+    image = new HybridBinarizer(Frames.load(corpus, resolution).framingRect()).getBlackMatrix();
+    Detector detector = new Detector(image);
+    try {
+      detector.detect();
+    } catch (NotFoundException | FormatException e) {
+      // nothing to track
+    }
+    previous = detector.getFinderPatternInfo();
+  }
+
+  @Benchmark
+  public DetectorResult detect() {
+    try {
+      return new Detector(image).detect();
+    } catch (NotFoundException | FormatException e) {
+      return null;
+    }
+  }
+
+  @Benchmark
+  public DetectorResult detectWithPreviousFinderPatterns() {
+    try {
+      return new Detector(image).detect(null, previous);
+    } catch (NotFoundException | FormatException e) {
+      return null;
+    }
+  }
+
+}
@@ -142,6 +142,22 @@ public class CaptureHelper implements CaptureLifecycle, CaptureTouchEvent, Captu
      * 识别区域水平方向偏移量
      */
     private int framingRectHorizontalOffset;
+    /**
+     * 预览帧缓冲区数量，循环复用，避免每帧分配内存
+     */
+    private int previewBufferCount = CameraManager.DEFAULT_PREVIEW_BUFFER_COUNT;
+    /**
+     * 并行解码的线程数，每个线程独立解码一帧，最先识别成功的结果生效
+     */
+    private int decodeThreadCount = CaptureHandler.DEFAULT_DECODE_THREAD_COUNT;
+    /**
+     * 是否并行执行一帧的多种解码策略（混合二值化、反色、全局直方图、旋转），默认支持
+     */
+    private boolean isParallelDecodeStrategies = true;
+    /**
+     * 是否先在上次识别到条码的区域内解码，连续扫码时条码位置变化不大，识别区域越小解码越快，默认支持
+     */
+    private boolean isSupportRoiTracking = true;
     /**
      * 光线太暗，当光线亮度太暗，亮度低于此值时，显示手电筒按钮
      */
@@ -154,6 +170,10 @@ public class CaptureHelper implements CaptureLifecycle, CaptureTouchEvent, Captu
      * 扫码回调
      */
     private OnCaptureCallback onCaptureCallback;
+    /**
+     * 多码扫码回调，设置后识别一帧内的所有条码
+     */
+    private OnCaptureMultipleCallback onCaptureMultipleCallback;
 
     private boolean hasCameraFlash;
 
@@ -214,10 +234,20 @@ public class CaptureHelper implements CaptureLifecycle, CaptureTouchEvent, Captu
         hasCameraFlash = activity.getPackageManager().hasSystemFeature(PackageManager.FEATURE_CAMERA_FLASH);
         initCameraManager();
 
-        onCaptureListener = (result, barcode, scaleFactor) -> {
-            inactivityTimer.onActivity();
-            beepManager.playBeepSoundAndVibrate();
-            onResult(result, barcode, scaleFactor);
+        onCaptureListener = new OnCaptureListener() {
+            @Override
+            public void onHandleDecode(Result result, Bitmap barcode, float scaleFactor) {
+                inactivityTimer.onActivity();
+                beepManager.playBeepSoundAndVibrate();
+                onResult(result, barcode, scaleFactor);
+            }
+
+            @Override
+            public void onHandleDecode(Result[] results, Bitmap barcode, float scaleFactor) {
+                inactivityTimer.onActivity();
+                beepManager.playBeepSoundAndVibrate();
+                onResult(results, barcode, scaleFactor);
+            }
         };
         //设置是否播放音效和震动
         beepManager.setPlayBeep(isPlayBeep);
@@ -308,6 +338,7 @@ public class CaptureHelper implements CaptureLifecycle, CaptureTouchEvent, Captu
         cameraManager.setFramingRectRatio(framingRectRatio);
         cameraManager.setFramingRectVerticalOffset(framingRectVerticalOffset);
         cameraManager.setFramingRectHorizontalOffset(framingRectHorizontalOffset);
+        updatePreviewBufferCount();
         if (ivTorch != null && hasCameraFlash) {
             ivTorch.setOnClickListener(v -> {
                 if (cameraManager != null) {
@@ -347,11 +378,14 @@ public class CaptureHelper implements CaptureLifecycle, CaptureTouchEvent, Captu
             // Creating the handler starts the preview, which can also throw a RuntimeException.
             if (captureHandler == null) {
                 captureHandler = new CaptureHandler(activity, viewfinderView, onCaptureListener,
-                        decodeFormats, decodeHints, characterSet, cameraManager, pauseToHandle);
+                        decodeFormats, decodeHints, characterSet, cameraManager, pauseToHandle, decodeThreadCount);
                 captureHandler.setSupportVerticalCode(isSupportVerticalCode);
                 captureHandler.setReturnBitmap(isReturnBitmap);
                 captureHandler.setSupportAutoZoom(isSupportAutoZoom);
                 captureHandler.setSupportLuminanceInvert(isSupportLuminanceInvert);
+                captureHandler.setParallelDecodeStrategies(isParallelDecodeStrategies);
+                captureHandler.setSupportRoiTracking(isSupportRoiTracking);
+                captureHandler.setSupportMultipleCodes(onCaptureMultipleCallback != null);
             }
         } catch (IOException ioe) {
             LogUtil.w(ioe.getMessage());
@@ -556,6 +590,24 @@ public class CaptureHelper implements CaptureLifecycle, CaptureTouchEvent, Captu
         onResult(result);
     }
 
+    /**
+     * 接收一帧内所有条码的扫码结果，设置了{@link #setOnCaptureMultipleCallback(OnCaptureMultipleCallback)}时才会调用
+     * 回调不拦截时，按第一个扫码结果继续执行{@link #onResult(Result, Bitmap, float)}
+     *
+     * @param results 扫码结果，至少有一个
+     * @param barcode
+     * @param scaleFactor
+     */
+    public void onResult(Result[] results, Bitmap barcode, float scaleFactor) {
+        if (onCaptureMultipleCallback != null && onCaptureMultipleCallback.onMultipleResultCallback(results)) {
+            if (isContinuousScan && isAutoRestartPreviewAndDecode) {
+                restartPreviewAndDecode();
+            }
+            return;
+        }
+        onResult(results[0], barcode, scaleFactor);
+    }
+
     /**
      * ';, mnb
      * <p>
@@ -657,7 +709,8 @@ public class CaptureHelper implements CaptureLifecycle, CaptureTouchEvent, Captu
     }
 
     /**
-     * 设置支持的解码一/二维码格式，默认常规的码都支持
+     * 设置支持的解码一/二维码格式，默认常规的码都支持。只扫一种码时（如只扫EAN-13）只传这一种，
+     * 每一行只会查找一次起始符，不再逐个尝试其他格式
      *
      * @param decodeFormats 可参见{@link DecodeFormatManager}
      * @return
@@ -707,6 +760,9 @@ public class CaptureHelper implements CaptureLifecycle, CaptureTouchEvent, Captu
     /**
      * 设置是否支持扫垂直的条码
      *
+     * 开启后会另外以旋转90度的预览帧识别；{@link DecodeHintType#TRY_HARDER} 不会自行旋转预览帧，
+     * 需要识别垂直的条码时请开启此项。
+     *
      * @param supportVerticalCode 默认为false，想要增强扫条码识别度时可使用，相应的会增加性能消耗。
      * @return
      */
@@ -863,6 +919,69 @@ public class CaptureHelper implements CaptureLifecycle, CaptureTouchEvent, Captu
         return this;
     }
 
+    /**
+     * 设置预览帧缓冲区数量，预览帧在这些缓冲区中循环复用，扫码过程中不再每帧分配内存，下次开启预览时生效
+     *
+     * @param previewBufferCount 默认{@link CameraManager#DEFAULT_PREVIEW_BUFFER_COUNT}，0表示不使用缓冲区
+     * @return
+     */
+    public CaptureHelper previewBufferCount(int previewBufferCount) {
+        this.previewBufferCount = previewBufferCount;
+        updatePreviewBufferCount();
+        return this;
+    }
+
+    /**
+     * 设置并行解码的线程数，每个线程拥有独立的解码器，同时解码不同的预览帧，最先识别成功的结果生效，其余结果会被取消。
+     * 需在开启相机前设置
+     *
+     * @param decodeThreadCount 默认为CPU核数减一，最多4个
+     * @return
+     */
+    public CaptureHelper decodeThreadCount(int decodeThreadCount) {
+        this.decodeThreadCount = Math.max(decodeThreadCount, 1);
+        updatePreviewBufferCount();
+        return this;
+    }
+
+    /**
+     * 设置是否并行执行一帧的多种解码策略，任一策略识别成功后其余策略会被取消；关闭后按识别成功率依次尝试
+     *
+     * @param parallelDecodeStrategies 默认为true
+     * @return
+     */
+    public CaptureHelper parallelDecodeStrategies(boolean parallelDecodeStrategies) {
+        this.isParallelDecodeStrategies = parallelDecodeStrategies;
+        if (captureHandler != null) {
+            captureHandler.setParallelDecodeStrategies(parallelDecodeStrategies);
+        }
+        return this;
+    }
+
+    /**
+     * 设置是否先在上次识别到（或接近识别到）条码的区域内解码，未识别到时再解码整个识别区域
+     *
+     * @param supportRoiTracking 默认为true
+     * @return
+     */
+    public CaptureHelper roiTracking(boolean supportRoiTracking) {
+        this.isSupportRoiTracking = supportRoiTracking;
+        if (captureHandler != null) {
+            captureHandler.setSupportRoiTracking(supportRoiTracking);
+        }
+        return this;
+    }
+
+    /**
+     * 每个解码线程占用一个预览帧缓冲区，再预留一个给相机填充，避免缓冲区不足导致解码线程空等
+     */
+    private void updatePreviewBufferCount() {
+        if (cameraManager != null) {
+            cameraManager.setPreviewBufferCount(previewBufferCount > 0
+                    ? Math.max(previewBufferCount, decodeThreadCount + 1) : 0);
+        }
+    }
+
     /**
      * 设置扫码回调
      *
@@ -874,6 +993,20 @@ public class CaptureHelper implements CaptureLifecycle, CaptureTouchEvent, Captu
         return this;
     }
 
+    /**
+     * 设置多码扫码回调，设置后识别一帧内的所有二维码，并一次性回调所有扫码结果；为{@code null}时只识别一个条码
+     *
+     * @param callback
+     * @return
+     */
+    public CaptureHelper setOnCaptureMultipleCallback(OnCaptureMultipleCallback callback) {
+        this.onCaptureMultipleCallback = callback;
+        if (captureHandler != null) {
+            captureHandler.setSupportMultipleCodes(callback != null);
+        }
+        return this;
+    }
+
     public void playBeepSoundAndVibrate() {
         if (beepManager != null) {
             beepManager.playBeepSoundAndVibrate();
@@ -17,4 +17,14 @@ public interface OnCaptureListener {
      * @param scaleFactor
      */
     void onHandleDecode(Result result, Bitmap barcode, float scaleFactor);
+
+    /**
+     * 接收解码后的一帧内所有条码的扫码结果，默认只处理第一个
+     * @param results
+     * @param barcode
+     * @param scaleFactor
+     */
+    default void onHandleDecode(Result[] results, Bitmap barcode, float scaleFactor) {
+        onHandleDecode(results[0], barcode, scaleFactor);
+    }
 }
@@ -0,0 +1,16 @@
+package com.google.zxing;
+
+import com.google.zxing.parse.Result;
+
+/**
+ * 一帧内识别到多个条码时的回调
+ */
+public interface OnCaptureMultipleCallback {
+
+    /**
+     * 接收一帧内识别到的所有条码的扫码结果回调
+     * @param results 扫码结果，至少有一个
+     * @return 返回true表示拦截，将不自动执行后续逻辑，为false表示不拦截，按第一个扫码结果继续处理
+     */
+    boolean onMultipleResultCallback(Result[] results);
+}
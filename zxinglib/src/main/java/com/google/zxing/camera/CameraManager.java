@@ -18,6 +18,7 @@ package com.google.zxing.camera;
 
 
 import android.content.Context;
+import android.graphics.ImageFormat;
 import android.graphics.Point;
 import android.graphics.Rect;
 import android.hardware.Camera;
@@ -49,6 +50,12 @@ public final class CameraManager {
     private static final int MAX_FRAME_WIDTH = 1200; // = 5/8 * 1920
     private static final int MAX_FRAME_HEIGHT = 675; // = 5/8 * 1080
 
+    /**
+     * One frame being decoded, one being filled by the camera and one spare, so the camera never
+     * has to drop a frame while the decoder holds on to its buffer.
+     */
+    public static final int DEFAULT_PREVIEW_BUFFER_COUNT = 3;
+
     private final Context context;
     private final CameraConfigurationManager configManager;
     private OpenCamera camera;
@@ -66,9 +73,12 @@ public final class CameraManager {
     private int framingRectVerticalOffset;
     private int framingRectHorizontalOffset;
 
+    private int previewBufferCount = DEFAULT_PREVIEW_BUFFER_COUNT;
+    private byte[][] previewBuffers;
+
     /**
-     * Preview frames are delivered here, which we pass on to the registered handler. Make sure to
-     * clear the handler so it will only receive one message.
+     * Preview frames are delivered here, which we pass on to the registered handlers. Each request
+     * receives exactly one message.
      */
     private final PreviewCallback previewCallback;
 
@@ -164,26 +174,57 @@ public final class CameraManager {
     /**
      * Asks the camera hardware to begin drawing preview frames to the screen.
      */
-    public void startPreview() {
+    public synchronized void startPreview() {
         OpenCamera theCamera = camera;
         if (theCamera != null && !previewing) {
-            theCamera.getCamera().startPreview();
+            Camera cameraObject = theCamera.getCamera();
+            if (previewBufferCount > 0) {
+                addPreviewBuffers(cameraObject);
+            } else {
+                cameraObject.setPreviewCallbackWithBuffer(null);
+                previewCallback.setBuffered(false);
+            }
+            cameraObject.startPreview();
             previewing = true;
             autoFocusManager = new AutoFocusManager(context, theCamera.getCamera());
         }
     }
 
+    /**
+     * Allocates the preview buffer ring and queues it with the camera. A new ring is allocated per
+     * preview session so a frame the decoder still holds from a previous session can never be
+     * queued twice.
+     */
+    private void addPreviewBuffers(Camera cameraObject) {
+        Camera.Parameters parameters = cameraObject.getParameters();
+        Camera.Size previewSize = parameters.getPreviewSize();
+        int bitsPerPixel = ImageFormat.getBitsPerPixel(parameters.getPreviewFormat());
+        if (bitsPerPixel <= 0) {
+            bitsPerPixel = ImageFormat.getBitsPerPixel(ImageFormat.NV21);
+        }
+        int bufferSize = previewSize.width * previewSize.height * bitsPerPixel / 8;
+        previewBuffers = new byte[previewBufferCount][bufferSize];
+        for (byte[] buffer : previewBuffers) {
+            cameraObject.addCallbackBuffer(buffer);
+        }
+        previewCallback.setBuffered(true);
+        cameraObject.setPreviewCallbackWithBuffer(previewCallback);
+    }
+
     /**
      * Tells the camera to stop drawing preview frames.
      */
-    public void stopPreview() {
+    public synchronized void stopPreview() {
         if (autoFocusManager != null) {
             autoFocusManager.stop();
             autoFocusManager = null;
         }
         if (camera != null && previewing) {
             camera.getCamera().stopPreview();
-            previewCallback.setHandler(null, 0);
+            // Also drops every buffer still queued with the camera.
+            camera.getCamera().setPreviewCallbackWithBuffer(null);
+            previewBuffers = null;
+            previewCallback.clearRequests();
             previewing = false;
         }
 
@@ -221,7 +262,8 @@ public final class CameraManager {
     /**
      * A single preview frame will be returned to the handler supplied. The data will arrive as byte[]
      * in the message.obj field, with width and height encoded as message.arg1 and message.arg2,
-     * respectively.
+     * respectively. Requests made before earlier ones were served are queued, and consecutive frames
+     * go to the waiting handlers in request order.
      *
      * @param handler The handler to send the message to.
      * @param message The what field of the message to be sent.
@@ -229,11 +271,46 @@ public final class CameraManager {
     public synchronized void requestPreviewFrame(Handler handler, int message) {
         OpenCamera theCamera = camera;
         if (theCamera != null && previewing) {
-            previewCallback.setHandler(handler, message);
-            theCamera.getCamera().setOneShotPreviewCallback(previewCallback);
+            previewCallback.addRequest(handler, message);
+            if (previewBuffers == null) {
+                theCamera.getCamera().setOneShotPreviewCallback(previewCallback);
+            }
+        }
+    }
+
+    /**
+     * Hands a frame delivered by {@link #requestPreviewFrame(Handler, int)} back to the camera so
+     * its buffer can be filled again. Must be called once the frame's data is no longer read,
+     * including by any {@link PlanarYUVLuminanceSource} built on it. Frames that did not come
+     * from the current buffer ring (one-shot mode, or a ring from before the preview was
+     * restarted) are ignored.
+     *
+     * @param data A preview frame previously delivered to the decode handler.
+     */
+    public synchronized void releasePreviewFrame(byte[] data) {
+        OpenCamera theCamera = camera;
+        if (theCamera != null && previewing && data != null && previewBuffers != null) {
+            for (byte[] buffer : previewBuffers) {
+                if (buffer == data) {
+                    theCamera.getCamera().addCallbackBuffer(data);
+                    return;
+                }
+            }
         }
     }
 
+    /**
+     * Sets how many preview buffers are preallocated and cycled with the camera. With buffers the
+     * camera fills the same frames over and over instead of allocating a new one per callback.
+     * {@code 0} falls back to one-shot preview callbacks. Takes effect on the next
+     * {@link #startPreview()}.
+     *
+     * @param previewBufferCount the number of buffers, default {@link #DEFAULT_PREVIEW_BUFFER_COUNT}
+     */
+    public synchronized void setPreviewBufferCount(int previewBufferCount) {
+        this.previewBufferCount = Math.max(previewBufferCount, 0);
+    }
+
     /**
      * Calculates the framing rect which the UI should draw to show the user where to place the
      * barcode. This target helps with alignment as well as forces the user to hold the device
@@ -378,20 +455,40 @@ public final class CameraManager {
      * @return A PlanarYUVLuminanceSource instance.
      */
     public PlanarYUVLuminanceSource buildLuminanceSource(byte[] data, int width, int height) {
+        return buildLuminanceSource(data, width, height, false);
+    }
+
+    /**
+     * Like {@link #buildLuminanceSource(byte[], int, int)}, optionally on the frame turned by 90
+     * degrees clockwise. The framing rect is then laid out on the rotated frame. The rotation is a
+     * view over {@code data}; the frame is not copied.
+     *
+     * @param data   A preview frame.
+     * @param width  The width of the image.
+     * @param height The height of the image.
+     * @param rotate Whether to rotate the frame clockwise first.
+     * @return A PlanarYUVLuminanceSource instance.
+     */
+    public PlanarYUVLuminanceSource buildLuminanceSource(byte[] data, int width, int height, boolean rotate) {
         Rect rect = getFramingRectInPreview();
         if (rect == null) {
             return null;
         }
 
+        // Go ahead and assume it's YUV rather than die.
+        PlanarYUVLuminanceSource source = new PlanarYUVLuminanceSource(data, width, height, 0, 0, width, height, false);
+        if (rotate) {
+            source = source.rotateClockwise();
+            width = source.getWidth();
+            height = source.getHeight();
+        }
         if (isFullScreenScan) {
-            return new PlanarYUVLuminanceSource(data, width, height, 0, 0, width, height, false);
+            return source;
         }
         int size = (int) (Math.min(width, height) * framingRectRatio);
         int left = (width - size) / 2 + framingRectHorizontalOffset;
         int top = (height - size) / 3 + framingRectVerticalOffset;
-        // Go ahead and assume it's YUV rather than die.
-        return new PlanarYUVLuminanceSource(data, width, height, left, top,
-                size, size, false);
+        return source.crop(left, top, size, size);
     }
 
     /**
@@ -24,34 +24,64 @@ import android.os.Message;
 
 import com.google.zxing.uitls.LogUtil;
 
+import java.util.ArrayDeque;
+import java.util.Queue;
+
 @SuppressWarnings("deprecation") // camera APIs
 final class PreviewCallback implements Camera.PreviewCallback {
 
     private final CameraConfigurationManager configManager;
-    private Handler previewHandler;
-    private int previewMessage;
+    /**
+     * One message per requested frame, in request order. Several decode workers can be waiting
+     * for a frame at the same time; each delivered frame satisfies the oldest request.
+     */
+    private final Queue<Message> pendingRequests = new ArrayDeque<>();
+    private boolean buffered;
 
     PreviewCallback(CameraConfigurationManager configManager) {
         this.configManager = configManager;
     }
 
-    void setHandler(Handler previewHandler, int previewMessage) {
-        this.previewHandler = previewHandler;
-        this.previewMessage = previewMessage;
+    synchronized void addRequest(Handler previewHandler, int previewMessage) {
+        pendingRequests.add(previewHandler.obtainMessage(previewMessage));
+    }
+
+    synchronized void clearRequests() {
+        Message request;
+        while ((request = pendingRequests.poll()) != null) {
+            request.recycle();
+        }
+    }
+
+    /**
+     * In buffered mode every frame arrives in one of the buffers queued with
+     * {@link Camera#addCallbackBuffer(byte[])}. Frames nobody asked for go straight back to the
+     * camera; frames handed to the decoder are returned through
+     * {@link CameraManager#releasePreviewFrame(byte[])} once the decode is done.
+     */
+    void setBuffered(boolean buffered) {
+        this.buffered = buffered;
     }
 
     @Override
-    public void onPreviewFrame(byte[] data, Camera camera) {
+    public synchronized void onPreviewFrame(byte[] data, Camera camera) {
         Point cameraResolution = configManager.getCameraResolution();
-        Handler thePreviewHandler = previewHandler;
-        if (cameraResolution != null && thePreviewHandler != null) {
-            Message message = thePreviewHandler.obtainMessage(previewMessage, cameraResolution.x,
-                    cameraResolution.y, data);
-            message.sendToTarget();
-            previewHandler = null;
+        Message request = pendingRequests.peek();
+        if (cameraResolution != null && request != null) {
+            pendingRequests.poll();
+            request.arg1 = cameraResolution.x;
+            request.arg2 = cameraResolution.y;
+            request.obj = data;
+            request.sendToTarget();
+            if (!buffered && !pendingRequests.isEmpty()) {
+                // One-shot callbacks have to be re-armed for the next waiting request.
+                camera.setOneShotPreviewCallback(this);
+            }
+        } else if (buffered) {
+            camera.addCallbackBuffer(data);
         } else {
              LogUtil.d( "Got preview callback, but no handler or resolution available");
         }
     }
 
-}
\ No newline at end of file
+}
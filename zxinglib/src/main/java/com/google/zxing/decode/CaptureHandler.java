@@ -31,8 +31,10 @@ public class CaptureHandler extends Handler implements ResultPointCallback {
 
     private static final String TAG = CaptureHandler.class.getSimpleName();
 
+    public static final int DEFAULT_DECODE_THREAD_COUNT = DecodeThreadPool.DEFAULT_THREAD_COUNT;
+
     private final OnCaptureListener onCaptureListener;
-    private final DecodeThread decodeThread;
+    private final DecodeThreadPool decodeThreadPool;
     private State state;
     private final CameraManager cameraManager;
     private final BaseViewfinderView viewfinderView;
@@ -56,6 +58,20 @@ public class CaptureHandler extends Handler implements ResultPointCallback {
      */
     private boolean isSupportLuminanceInvert;
 
+    /**
+     * 是否并行执行一帧的多种解码策略
+     */
+    private boolean isParallelDecodeStrategies = true;
+
+    /**
+     * 是否先在上次识别到条码的区域内解码
+     */
+    private boolean isSupportRoiTracking = true;
+
+    /**
+     * 是否识别一帧内的所有条码
+     */
+    private boolean isSupportMultipleCodes;
 
     private enum State {
         PREVIEW,
@@ -70,11 +86,26 @@ public class CaptureHandler extends Handler implements ResultPointCallback {
                           String characterSet,
                           CameraManager cameraManager,
                           boolean pauseToHandle) {
+        this(activity, viewfinderView, onCaptureListener, decodeFormats, baseHints, characterSet,
+                cameraManager, pauseToHandle, DEFAULT_DECODE_THREAD_COUNT);
+    }
+
+    /**
+     * @param decodeThreadCount number of frames decoded in parallel, each on its own thread with its
+     *                          own reader. The first successful decode wins.
+     */
+    public CaptureHandler(Activity activity, BaseViewfinderView viewfinderView, OnCaptureListener onCaptureListener,
+                          Collection<BarcodeFormat> decodeFormats,
+                          Map<DecodeHintType, Object> baseHints,
+                          String characterSet,
+                          CameraManager cameraManager,
+                          boolean pauseToHandle,
+                          int decodeThreadCount) {
         this.viewfinderView = viewfinderView;
         this.onCaptureListener = onCaptureListener;
-        decodeThread = new DecodeThread(activity, cameraManager, this,
+        decodeThreadPool = new DecodeThreadPool(activity, cameraManager, this, decodeThreadCount,
                 decodeFormats, baseHints, characterSet, this);
-        decodeThread.start();
+        decodeThreadPool.start();
         state = pauseToHandle ? State.PAUSE : State.SUCCESS;
 
         // Start ourselves capturing previews and decoding.
@@ -89,6 +120,14 @@ public class CaptureHandler extends Handler implements ResultPointCallback {
             restartPreviewAndDecode();
 
         } else if (message.what == R.id.decode_succeeded) {
+            decodeThreadPool.setIdle(message.arg2, true);
+            if (state != State.PREVIEW || decodeThreadPool.isCancelled(message.arg1)) {
+                // Another worker won, or scanning was paused, while this frame was decoding.
+                requestPreviewFrames();
+                return;
+            }
+            // First success wins; stop the decodes still running on the other workers.
+            decodeThreadPool.cancel();
             state = State.SUCCESS;
             Bundle bundle = message.getData();
             Bitmap barcode = null;
@@ -102,13 +141,30 @@ public class CaptureHandler extends Handler implements ResultPointCallback {
                 }
                 scaleFactor = bundle.getFloat(DecodeThread.BARCODE_SCALED_FACTOR);
             }
-            onCaptureListener.onHandleDecode((Result) message.obj, barcode, scaleFactor);
+            Result[] results = (Result[]) message.obj;
+            if (isSupportMultipleCodes) {
+                onCaptureListener.onHandleDecode(results, barcode, scaleFactor);
+            } else {
+                onCaptureListener.onHandleDecode(results[0], barcode, scaleFactor);
+            }
 
 
         } else if (message.what == R.id.decode_failed) {// We're decoding as fast as possible, so when one decode fails, start another.
-            if (state != State.PAUSE) {
-                state = State.PREVIEW;
-                cameraManager.requestPreviewFrame(decodeThread.getHandler(), R.id.decode);
+            decodeThreadPool.setIdle(message.arg2, true);
+            requestPreviewFrames();
+        }
+    }
+
+    /**
+     * Hands a preview frame to every worker that is not decoding one already.
+     */
+    private void requestPreviewFrames() {
+        if (state == State.PREVIEW) {
+            for (int i = 0; i < decodeThreadPool.size(); i++) {
+                if (decodeThreadPool.isIdle(i)) {
+                    decodeThreadPool.setIdle(i, false);
+                    cameraManager.requestPreviewFrame(decodeThreadPool.getHandler(i), R.id.decode);
+                }
             }
         }
     }
@@ -116,14 +172,8 @@ public class CaptureHandler extends Handler implements ResultPointCallback {
     public void quitSynchronously() {
         state = State.DONE;
         cameraManager.stopPreview();
-        Message quit = Message.obtain(decodeThread.getHandler(), R.id.quit);
-        quit.sendToTarget();
-        try {
-            // Wait at most half a second; should be enough time, and onPause() will timeout quickly
-            decodeThread.join(100L);
-        } catch (InterruptedException e) {
-            // continue
-        }
+        // Wait at most half a second; should be enough time, and onPause() will timeout quickly
+        decodeThreadPool.quitSynchronously(100L);
 
         // Be absolutely sure we don't send any queued up messages
         removeMessages(R.id.decode_succeeded);
@@ -133,7 +183,7 @@ public class CaptureHandler extends Handler implements ResultPointCallback {
     public void restartPreviewAndDecode() {
         if (state == State.SUCCESS) {
             state = State.PREVIEW;
-            cameraManager.requestPreviewFrame(decodeThread.getHandler(), R.id.decode);
+            requestPreviewFrames();
             if (viewfinderView != null) {
                 viewfinderView.drawViewfinder();
             }
@@ -148,8 +198,9 @@ public class CaptureHandler extends Handler implements ResultPointCallback {
 
     public void stopPreviewAndDecode() {
         state = State.PAUSE;
-        removeMessages(R.id.decode_succeeded);
-        removeMessages(R.id.decode_failed);
+        // Pending results still have to come in so their workers are marked idle again, but they
+        // are stale now and get dropped.
+        decodeThreadPool.cancel();
         removeMessages(R.id.restart_preview);
     }
 
@@ -230,4 +281,28 @@ public class CaptureHandler extends Handler implements ResultPointCallback {
     public void setSupportLuminanceInvert(boolean supportLuminanceInvert) {
         isSupportLuminanceInvert = supportLuminanceInvert;
     }
+
+    public boolean isParallelDecodeStrategies() {
+        return isParallelDecodeStrategies;
+    }
+
+    public void setParallelDecodeStrategies(boolean parallelDecodeStrategies) {
+        isParallelDecodeStrategies = parallelDecodeStrategies;
+    }
+
+    public boolean isSupportRoiTracking() {
+        return isSupportRoiTracking;
+    }
+
+    public void setSupportRoiTracking(boolean supportRoiTracking) {
+        isSupportRoiTracking = supportRoiTracking;
+    }
+
+    public boolean isSupportMultipleCodes() {
+        return isSupportMultipleCodes;
+    }
+
+    public void setSupportMultipleCodes(boolean supportMultipleCodes) {
+        isSupportMultipleCodes = supportMultipleCodes;
+    }
 }
@@ -33,13 +33,16 @@ import androidx.annotation.NonNull;
 import com.google.zxing.uitls.DensityUtil;
 import com.google.zxing.uitls.FileUtil;
 import com.google.zxing.uitls.LogUtil;
+import com.google.zxing.common.BinarizationCache;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.common.GlobalHistogramBinarizer;
 import com.google.zxing.common.HybridBinarizer;
 import com.google.zxing.parse.BarcodeFormat;
 import com.google.zxing.parse.BinaryBitmap;
 import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.parse.DownscaledLuminanceSource;
 import com.google.zxing.parse.EncodeHintType;
+import com.google.zxing.parse.LuminanceSource;
 import com.google.zxing.parse.MultiFormatReader;
 import com.google.zxing.parse.MultiFormatWriter;
 import com.google.zxing.parse.RGBLuminanceSource;
@@ -58,6 +61,21 @@ import java.util.Vector;
  */
 public class CodeUtils {
 
+    /**
+     * 图片解析的策略统计，用于调整解析策略的尝试顺序
+     */
+    private static final DecodeStrategyStats STRATEGY_STATS = new DecodeStrategyStats();
+
+    /**
+     * 大图缩小后找定位图案，缩小后的短边不小于此值，小的二维码缩小后找不到时再识别原图
+     */
+    private static final int MIN_DOWNSCALED_DIMENSION = 480;
+
+    /**
+     * 最多缩小的倍数
+     */
+    private static final int MAX_DOWNSCALE = 4;
+
     private CodeUtils() {
         throw new AssertionError();
     }
@@ -546,11 +564,15 @@ public class CodeUtils {
 
             RGBLuminanceSource source = getRGBLuminanceSource(compressBitmap(bitmapPath, reqWidth, reqHeight));
             if (source != null) {
+                BinarizationCache cache = new BinarizationCache();
+                // 大图先在缩小的图上找定位图案，只在定位图案附近按原图识别
+                int scale = getDownscale(source);
+                LuminanceSource downscaled = scale > 1 ? new DownscaledLuminanceSource(source, scale) : null;
 
                 boolean isReDecode;
                 try {
-                    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-                    result = reader.decode(bitmap, hints);
+                    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source), cache);
+                    result = decodeQRCode(reader, bitmap, downscaled, scale, cache, hints);
                     isReDecode = false;
                 } catch (Exception e) {
                     isReDecode = true;
@@ -558,8 +580,9 @@ public class CodeUtils {
 
                 if (isReDecode) {
                     try {
-                        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source.invert()));
-                        result = reader.decode(bitmap, hints);
+                        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source.invert()), cache);
+                        result = decodeQRCode(reader, bitmap, downscaled != null ? downscaled.invert() : null,
+                                scale, cache, hints);
                         isReDecode = false;
                     } catch (Exception e) {
                         isReDecode = true;
@@ -568,8 +591,8 @@ public class CodeUtils {
 
                 if (isReDecode) {
                     try {
-                        BinaryBitmap bitmap = new BinaryBitmap(new GlobalHistogramBinarizer(source));
-                        result = reader.decode(bitmap, hints);
+                        BinaryBitmap bitmap = new BinaryBitmap(new GlobalHistogramBinarizer(source), cache);
+                        result = decodeQRCode(reader, bitmap, downscaled, scale, cache, hints);
                         isReDecode = false;
                     } catch (Exception e) {
                         isReDecode = true;
@@ -578,8 +601,10 @@ public class CodeUtils {
 
                 if (isReDecode && source.isRotateSupported()) {
                     try {
-                        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source.rotateCounterClockwise()));
-                        result = reader.decode(bitmap, hints);
+                        LuminanceSource rotated = source.rotateCounterClockwise();
+                        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(rotated), cache);
+                        result = decodeQRCode(reader, bitmap,
+                                scale > 1 ? new DownscaledLuminanceSource(rotated, scale) : null, scale, cache, hints);
                     } catch (Exception e) {
 
                     }
@@ -595,6 +620,36 @@ public class CodeUtils {
         return result;
     }
 
+    /**
+     * 识别二维码，大图先在缩小的图上找定位图案
+     *
+     * @param bitmap     原图
+     * @param downscaled 缩小的图，为null时直接识别原图
+     * @param scale      缩小的倍数
+     * @return
+     */
+    private static Result decodeQRCode(QRCodeReader reader, BinaryBitmap bitmap, LuminanceSource downscaled, int scale,
+                                       BinarizationCache cache, Map<DecodeHintType, ?> hints) throws Exception {
+        BinaryBitmap downscaledBitmap = downscaled != null
+                ? new BinaryBitmap(new HybridBinarizer(downscaled), cache) : null;
+        return reader.decode(bitmap, downscaledBitmap, scale, hints);
+    }
+
+    /**
+     * 获取找定位图案时图片缩小的倍数，缩小后短边不小于{@link #MIN_DOWNSCALED_DIMENSION}
+     *
+     * @param source
+     * @return 1表示不缩小
+     */
+    private static int getDownscale(LuminanceSource source) {
+        int dimension = Math.min(source.getWidth(), source.getHeight());
+        int scale = 1;
+        while (scale < MAX_DOWNSCALE && dimension / (scale * 2) >= MIN_DOWNSCALED_DIMENSION) {
+            scale *= 2;
+        }
+        return scale;
+    }
+
     /**
      * 解析一维码/二维码图片
      *
@@ -660,42 +715,22 @@ public class CodeUtils {
 
             RGBLuminanceSource source = getRGBLuminanceSource(compressBitmap(bitmapPath, reqWidth, reqHeight));
             if (source != null) {
-
-                boolean isReDecode;
-                try {
-                    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-                    result = reader.decodeWithState(bitmap);
-                    isReDecode = false;
-                } catch (Exception e) {
-                    isReDecode = true;
-                }
-
-                if (isReDecode) {
+                BinarizationCache cache = new BinarizationCache();
+                // 按最近识别成功的策略排序，多数图片一次即可识别成功
+                for (DecodeStrategy strategy : STRATEGY_STATS.orderAll(true, source.isRotateSupported(),
+                        reader.isRowDecodingOnly())) {
                     try {
-                        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source.invert()));
-                        result = reader.decodeWithState(bitmap);
-                        isReDecode = false;
+                        LuminanceSource strategySource = strategy == DecodeStrategy.ROTATED
+                                ? source.rotateCounterClockwise() : source;
+                        result = reader.tryDecodeWithState(strategy.createParallelBitmap(strategySource, cache));
+                        STRATEGY_STATS.recordAttempt(strategy);
+                        if (result != null) {
+                            STRATEGY_STATS.recordWin(strategy);
+                            break;
+                        }
                     } catch (Exception e) {
-                        isReDecode = true;
-                    }
-                }
-
-                if (isReDecode) {
-                    try {
-                        BinaryBitmap bitmap = new BinaryBitmap(new GlobalHistogramBinarizer(source));
-                        result = reader.decodeWithState(bitmap);
-                        isReDecode = false;
-                    } catch (Exception e) {
-                        isReDecode = true;
-                    }
-                }
-
-                if (isReDecode && source.isRotateSupported()) {
-                    try {
-                        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source.rotateCounterClockwise()));
-                        result = reader.decodeWithState(bitmap);
-                    } catch (Exception e) {
-
+                        // 某个策略出错时继续尝试其余策略
+                        STRATEGY_STATS.recordAttempt(strategy);
                     }
                 }
 
@@ -19,6 +19,7 @@ package com.google.zxing.decode;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Point;
+import android.graphics.Rect;
 import android.hardware.Camera;
 import android.os.Bundle;
 import android.os.Handler;
@@ -29,8 +30,8 @@ import android.view.WindowManager;
 
 import com.google.zxing.uitls.LogUtil;
 import com.google.zxing.client.android.R;
-import com.google.zxing.common.GlobalHistogramBinarizer;
-import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.common.BinarizationCache;
+import com.google.zxing.common.BinarizerContext;
 import com.google.zxing.parse.BarcodeFormat;
 import com.google.zxing.parse.BinaryBitmap;
 import com.google.zxing.parse.DecodeHintType;
@@ -41,24 +42,38 @@ import com.google.zxing.parse.ResultPoint;
 import com.google.zxing.camera.CameraManager;
 
 import java.io.ByteArrayOutputStream;
+import java.util.List;
 import java.util.Map;
 
 final class DecodeHandler extends Handler {
 
+    private static final Result[] NO_RESULTS = new Result[0];
+
     private final Context context;
     private final CameraManager cameraManager;
     private final CaptureHandler handler;
+    private final DecodeThreadPool pool;
+    private final int index;
     private final MultiFormatReader multiFormatReader;
+    /**
+     * Binarizer scratch buffers reused across frames; only touched on this thread.
+     */
+    private final BinarizerContext binarizerContext = new BinarizerContext();
+    /**
+     * Lets the strategies of a frame share their black rows and matrices; cleared after each frame.
+     */
+    private final BinarizationCache binarizationCache = new BinarizationCache();
     private boolean running = true;
 
-    private long lastZoomTime;
-
-    DecodeHandler(Context context, CameraManager cameraManager, CaptureHandler handler, Map<DecodeHintType, Object> hints) {
+    DecodeHandler(Context context, CameraManager cameraManager, CaptureHandler handler,
+                  DecodeThreadPool pool, int index, Map<DecodeHintType, Object> hints) {
         multiFormatReader = new MultiFormatReader();
         multiFormatReader.setHints(hints);
         this.context = context;
         this.cameraManager = cameraManager;
         this.handler = handler;
+        this.pool = pool;
+        this.index = index;
     }
 
     @Override
@@ -67,7 +82,13 @@ final class DecodeHandler extends Handler {
             return;
         }
         if (message.what == R.id.decode) {
-            decode((byte[]) message.obj, message.arg1, message.arg2, isScreenPortrait(), handler.isSupportVerticalCode());
+            byte[] data = (byte[]) message.obj;
+            try {
+                decode(data, message.arg1, message.arg2, isScreenPortrait(), handler.isSupportVerticalCode());
+            } finally {
+                // The thumbnail, if any, has been rendered by now, so the frame can be refilled.
+                cameraManager.releasePreviewFrame(data);
+            }
 
         } else if (message.what == R.id.quit) {
             running = false;
@@ -85,61 +106,144 @@ final class DecodeHandler extends Handler {
 
     /**
      * Decode the data within the viewfinder rectangle, and time how long it took. For efficiency,
-     * reuse the same reader objects from one decode to the next.
+     * reuse the same reader objects from one decode to the next. The decode strategies run in the
+     * order {@link DecodeStrategyStats} picks, in parallel unless disabled; once another worker has
+     * decoded a frame the remaining attempts are skipped.
+     * <p>
+     * If {@link RoiTracker} knows where a barcode was seen last, the most successful strategy is
+     * first tried on that region alone, and the whole frame is only decoded if that fails. When
+     * every barcode of the frame is wanted the whole frame is always decoded, since new ones may
+     * have come into view outside the region.
      *
      * @param data   The YUV preview frame.
      * @param width  The width of the preview frame.
      * @param height The height of the preview frame.
      */
     private void decode(byte[] data, int width, int height, boolean isScreenPortrait, boolean isSupportVerticalCode) {
-        Result rawResult = null;
+        int generation = pool.getGeneration();
+        long startTime = System.currentTimeMillis();
+        Result[] rawResults = null;
         PlanarYUVLuminanceSource source = buildPlanarYUVLuminanceSource(data, width, height, isScreenPortrait);
+        DecodeStrategyExecutor.Outcome outcome = null;
 
         if (source != null) {
-
-            boolean isReDecode;
-            try {
-                BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-                rawResult = multiFormatReader.decodeWithState(bitmap);
-                isReDecode = false;
-            } catch (Exception e) {
-                isReDecode = true;
-            }
-
-            if (isReDecode && handler.isSupportLuminanceInvert()) {
+            PlanarYUVLuminanceSource frameSource = source;
+            DecodeStrategyExecutor strategyExecutor = pool.getStrategyExecutor();
+            List<DecodeStrategy> strategies = strategyExecutor.getStats().order(
+                    handler.isSupportLuminanceInvert(), isSupportVerticalCode,
+                    multiFormatReader.isRowDecodingOnly());
+            DecodeStrategy winner = null;
+            Rect region = handler.isSupportRoiTracking() && !handler.isSupportMultipleCodes()
+                    ? pool.getRoiTracker().getRegion(frameSource.getWidth(), frameSource.getHeight())
+                    : null;
+            if (region != null) {
+                DecodeStrategy strategy = strategies.get(0);
                 try {
-                    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source.invert()));
-                    rawResult = multiFormatReader.decodeWithState(bitmap);
-                    isReDecode = false;
-                } catch (Exception e) {
-                    isReDecode = true;
+                    rawResults = attempt(frameSource, region, strategy, multiFormatReader, binarizerContext, generation);
+                } catch (RuntimeException e) {
+                    // A reader bug on one strange frame should not end the scan; try the whole frame.
+                    strategyExecutor.getStats().recordAttempt(strategy);
+                    rawResults = null;
+                } finally {
+                    multiFormatReader.reset();
                 }
+                if (rawResults != null && rawResults.length > 0) {
+                    winner = strategy;
+                } else {
+                    // continue with the whole frame
+                    rawResults = null;
+                }
+            }
+            if (rawResults == null) {
+                outcome = strategyExecutor.decode(strategies, multiFormatReader, binarizerContext,
+                        handler.isParallelDecodeStrategies(),
+                        (strategy, reader, binarizer) ->
+                                attempt(frameSource, null, strategy, reader, binarizer, generation));
+                rawResults = outcome.results;
+                winner = outcome.strategy;
             }
+            if (winner == DecodeStrategy.ROTATED && handler.isReturnBitmap()) {
+                // The thumbnail shows the frame the way it was decoded.
+                source = frameSource.rotateCounterClockwise();
+            }
+        }
 
-            if (isReDecode) {
-                try {
-                    BinaryBitmap bitmap = new BinaryBitmap(new GlobalHistogramBinarizer(source));
-                    rawResult = multiFormatReader.decodeWithState(bitmap);
-                    isReDecode = false;
-                } catch (Exception e) {
-                    isReDecode = true;
-                }
+        try {
+            sendResult(rawResults, source, width, generation);
+        } finally {
+            if (outcome != null) {
+                outcome.awaitStragglers();
+            }
+            binarizationCache.clear();
+            if (source != null) {
+                pool.getRoiTracker().endFrame(startTime);
             }
+        }
+    }
 
-            if (isReDecode && isSupportVerticalCode) {
-                source = buildPlanarYUVLuminanceSource(data, width, height, !isScreenPortrait);
-                if (source != null) {
-                    try {
-                        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-                        rawResult = multiFormatReader.decodeWithState(bitmap);
-                    } catch (Exception e) {
-                    }
-                }
+    /**
+     * Decodes the frame with one strategy, tracking where the barcodes were seen.
+     *
+     * @param region the part of the frame to decode, or {@code null} for the whole frame. The
+     *               result points are moved to where they would be had the whole frame been decoded.
+     * @return the results, a single one unless {@link CaptureHandler#isSupportMultipleCodes()}, none
+     * if nothing was found, or {@code null} if the frame does not need decoding anymore
+     */
+    private Result[] attempt(PlanarYUVLuminanceSource frameSource, Rect region, DecodeStrategy strategy,
+                           MultiFormatReader reader, BinarizerContext binarizer, int generation) {
+        if (pool.isCancelled(generation)) {
+            return null;
+        }
+        PlanarYUVLuminanceSource view = region == null ? frameSource
+                : frameSource.crop(region.left, region.top, region.width(), region.height());
+        boolean rotated = strategy == DecodeStrategy.ROTATED;
+        RoiTracker roiTracker = pool.getRoiTracker();
+        roiTracker.beginAttempt(region == null ? 0 : region.left, region == null ? 0 : region.top,
+                view.getWidth(), rotated);
+        Result[] results = null;
+        try {
+            // Rotating the frame itself lets the cache derive its matrix from the unrotated one.
+            BinaryBitmap bitmap = strategy.createBitmap(rotated ? view.rotateCounterClockwise() : view,
+                    binarizer, binarizationCache);
+            if (handler.isSupportMultipleCodes()) {
+                results = reader.tryDecodeMultipleWithState(bitmap);
+            } else {
+                Result result = reader.tryDecodeWithState(bitmap);
+                results = result == null ? null : new Result[] {result};
+            }
+        } finally {
+            roiTracker.endAttempt(results, frameSource.getWidth(), frameSource.getHeight());
+        }
+        if (results == null) {
+            return NO_RESULTS;
+        }
+        if (region != null) {
+            for (Result result : results) {
+                // The rotated region sits at (top, frame width - right) of the rotated frame.
+                translateResultPoints(result,
+                        rotated ? region.top : region.left,
+                        rotated ? frameSource.getWidth() - region.right : region.top);
             }
-            multiFormatReader.reset();
         }
+        return results;
+    }
 
-        if (rawResult != null) {
+    private static void translateResultPoints(Result result, int dx, int dy) {
+        ResultPoint[] points = result.getResultPoints();
+        if (points == null) {
+            return;
+        }
+        for (int i = 0; i < points.length; i++) {
+            ResultPoint point = points[i];
+            if (point != null) {
+                points[i] = new ResultPoint(point.getX() + dx, point.getY() + dy);
+            }
+        }
+    }
+
+    private void sendResult(Result[] rawResults, PlanarYUVLuminanceSource source, int width, int generation) {
+        if (rawResults != null) {
+            Result rawResult = rawResults[0];
 
             BarcodeFormat barcodeFormat = rawResult.getBarcodeFormat();
             if (handler != null && handler.isSupportAutoZoom() && barcodeFormat == BarcodeFormat.QR_CODE) {
@@ -153,7 +257,9 @@ final class DecodeHandler extends Handler {
                     if (handleAutoZoom(maxDistance, width)) {
                         Message message = Message.obtain();
                         message.what = R.id.decode_succeeded;
-                        message.obj = rawResult;
+                        message.arg1 = generation;
+                        message.arg2 = index;
+                        message.obj = rawResults;
                         if (handler.isReturnBitmap()) {
                             Bundle bundle = new Bundle();
                             bundleThumbnail(source, bundle);
@@ -166,7 +272,7 @@ final class DecodeHandler extends Handler {
             }
 
             if (handler != null) {
-                Message message = Message.obtain(handler, R.id.decode_succeeded, rawResult);
+                Message message = Message.obtain(handler, R.id.decode_succeeded, generation, index, rawResults);
                 if (handler.isReturnBitmap()) {
                     Bundle bundle = new Bundle();
                     bundleThumbnail(source, bundle);
@@ -176,28 +282,14 @@ final class DecodeHandler extends Handler {
             }
         } else {
             if (handler != null) {
-                Message message = Message.obtain(handler, R.id.decode_failed);
+                Message message = Message.obtain(handler, R.id.decode_failed, generation, index);
                 message.sendToTarget();
             }
         }
     }
 
     private PlanarYUVLuminanceSource buildPlanarYUVLuminanceSource(byte[] data, int width, int height, boolean isRotate) {
-        PlanarYUVLuminanceSource source;
-        if (isRotate) {
-            byte[] rotatedData = new byte[data.length];
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++)
-                    rotatedData[x * height + height - y - 1] = data[x + y * width];
-            }
-            int tmp = width;
-            width = height;
-            height = tmp;
-            source = cameraManager.buildLuminanceSource(rotatedData, width, height);
-        } else {
-            source = cameraManager.buildLuminanceSource(data, width, height);
-        }
-        return source;
+        return cameraManager.buildLuminanceSource(data, width, height, isRotate);
     }
 
     private static void bundleThumbnail(PlanarYUVLuminanceSource source, Bundle bundle) {
@@ -212,28 +304,30 @@ final class DecodeHandler extends Handler {
     }
 
     private boolean handleAutoZoom(int length, int width) {
-        if (lastZoomTime > System.currentTimeMillis() - 1000) {
-            return true;
-        }
+        synchronized (pool) {
+            if (pool.getLastZoomTime() > System.currentTimeMillis() - 1000) {
+                return true;
+            }
 
-        if (length < width / 5) {
-
-            Camera camera = cameraManager.getOpenCamera().getCamera();
-            if (camera != null) {
-                Camera.Parameters params = camera.getParameters();
-                if (params.isZoomSupported()) {
-                    int maxZoom = params.getMaxZoom();
-                    int zoom = params.getZoom();
-                    params.setZoom(Math.min(zoom + maxZoom / 5, maxZoom));
-                    camera.setParameters(params);
-                    lastZoomTime = System.currentTimeMillis();
-                    return true;
-                } else {
-                    LogUtil.i("Zoom not supported");
+            if (length < width / 5) {
+
+                Camera camera = cameraManager.getOpenCamera().getCamera();
+                if (camera != null) {
+                    Camera.Parameters params = camera.getParameters();
+                    if (params.isZoomSupported()) {
+                        int maxZoom = params.getMaxZoom();
+                        int zoom = params.getZoom();
+                        params.setZoom(Math.min(zoom + maxZoom / 5, maxZoom));
+                        camera.setParameters(params);
+                        pool.setLastZoomTime(System.currentTimeMillis());
+                        return true;
+                    } else {
+                        LogUtil.i("Zoom not supported");
+                    }
                 }
             }
+            return false;
         }
-        return false;
     }
 
 }
\ No newline at end of file
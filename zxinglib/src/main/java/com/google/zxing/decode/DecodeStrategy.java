@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.decode;
+
+import com.google.zxing.common.BinarizationCache;
+import com.google.zxing.common.BinarizerContext;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.common.ParallelHybridBinarizer;
+import com.google.zxing.parse.BinaryBitmap;
+import com.google.zxing.parse.LuminanceSource;
+
+/**
+ * The ways a preview frame can be turned into a {@link BinaryBitmap}, in the order
+ * {@link DecodeHandler} used to try them one after another.
+ */
+enum DecodeStrategy {
+
+    HYBRID,
+    /**
+     * White-on-black codes; only tried when luminance inversion is supported.
+     */
+    INVERTED,
+    /**
+     * Only differs from {@link #HYBRID} in the black matrix; both binarize single rows the same way.
+     */
+    GLOBAL_HISTOGRAM,
+    /**
+     * The frame turned by 90 degrees, for vertical barcodes; only tried when vertical codes are
+     * supported. The caller passes the rotated source.
+     */
+    ROTATED;
+
+    /**
+     * @return {@code false} if readers that only read single rows, such as the 1D readers, get the
+     * same rows from this strategy as from one before it
+     */
+    boolean isRowDistinct() {
+        return this != GLOBAL_HISTOGRAM;
+    }
+
+    /**
+     * Binarizes on all cores with {@link ParallelHybridBinarizer}, for single large pictures.
+     */
+    BinaryBitmap createParallelBitmap(LuminanceSource source, BinarizationCache cache) {
+        switch (this) {
+            case INVERTED:
+                return new BinaryBitmap(new ParallelHybridBinarizer(source.invert()), cache);
+            case GLOBAL_HISTOGRAM:
+                return new BinaryBitmap(new GlobalHistogramBinarizer(source), cache);
+            default:
+                return new BinaryBitmap(new ParallelHybridBinarizer(source), cache);
+        }
+    }
+
+    /**
+     * @param context scratch buffers of the calling thread for the {@link HybridBinarizer}, or
+     *                {@code null} to allocate new ones
+     * @param cache   where the strategies of one frame share their binarization, or {@code null}
+     */
+    BinaryBitmap createBitmap(LuminanceSource source, BinarizerContext context, BinarizationCache cache) {
+        switch (this) {
+            case INVERTED:
+                return new BinaryBitmap(new HybridBinarizer(source.invert(), context), cache);
+            case GLOBAL_HISTOGRAM:
+                return new BinaryBitmap(new GlobalHistogramBinarizer(source), cache);
+            default:
+                return new BinaryBitmap(new HybridBinarizer(source, context), cache);
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.decode;
+
+import com.google.zxing.common.BinarizerContext;
+import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.parse.MultiFormatReader;
+import com.google.zxing.parse.Result;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link DecodeStrategy}s for one frame. In parallel mode the first strategy runs on the
+ * calling thread and the others on a shared pool, each with its own reader; as soon as one of
+ * them decodes the frame the strategies that have not started yet are skipped. Every outcome is
+ * recorded in {@link DecodeStrategyStats}, whose ordering decides which strategy runs first.
+ */
+final class DecodeStrategyExecutor {
+
+    private static final int THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    interface Attempt {
+        /**
+         * @return the results, none if the strategy found nothing, or {@code null} if the attempt
+         * was skipped because the frame does not need decoding anymore
+         * @param context the binarizer scratch buffers of the thread running the attempt
+         */
+        Result[] decode(DecodeStrategy strategy, MultiFormatReader reader, BinarizerContext context);
+    }
+
+    static final class Outcome {
+
+        final DecodeStrategy strategy;
+        final Result[] results;
+        private final List<Future<Result[]>> stragglers;
+
+        Outcome(DecodeStrategy strategy, Result[] results, List<Future<Result[]>> stragglers) {
+            this.strategy = strategy;
+            this.results = results;
+            this.stragglers = stragglers;
+        }
+
+        /**
+         * Waits for the strategies that were already running when the frame was decoded. They
+         * still read the frame, so it must not be handed back to the camera before this returns.
+         */
+        void awaitStragglers() {
+            for (Future<Result[]> straggler : stragglers) {
+                getQuietly(straggler);
+            }
+        }
+    }
+
+    private final DecodeStrategyStats stats;
+    private final ExecutorService executor;
+    private final ThreadLocal<MultiFormatReader> readers;
+    private final ThreadLocal<BinarizerContext> contexts = new ThreadLocal<BinarizerContext>() {
+        @Override
+        protected BinarizerContext initialValue() {
+            return new BinarizerContext();
+        }
+    };
+
+    DecodeStrategyExecutor(DecodeStrategyStats stats, final Map<DecodeHintType,Object> hints) {
+        this.stats = stats;
+        final AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(THREAD_COUNT, runnable -> {
+            Thread thread = new Thread(runnable, "DecodeStrategy-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        readers = new ThreadLocal<MultiFormatReader>() {
+            @Override
+            protected MultiFormatReader initialValue() {
+                MultiFormatReader reader = new MultiFormatReader();
+                reader.setHints(hints);
+                return reader;
+            }
+        };
+    }
+
+    DecodeStrategyStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @param strategies the strategies to run, in order of preference
+     * @param reader     the reader of the calling thread
+     * @param context    the binarizer scratch buffers of the calling thread
+     * @param parallel   {@code false} to run the strategies one after another on the calling thread
+     * @return the winning strategy and its results, both {@code null} if no strategy succeeded
+     */
+    Outcome decode(List<DecodeStrategy> strategies, MultiFormatReader reader, BinarizerContext context,
+                   boolean parallel, final Attempt attempt) {
+        final AtomicBoolean done = new AtomicBoolean();
+        if (!parallel || strategies.size() < 2) {
+            for (DecodeStrategy strategy : strategies) {
+                Result[] results = run(strategy, reader, context, attempt, done);
+                if (results != null) {
+                    stats.recordWin(strategy);
+                    return new Outcome(strategy, results, Collections.<Future<Result[]>>emptyList());
+                }
+            }
+            return new Outcome(null, null, Collections.<Future<Result[]>>emptyList());
+        }
+
+        CompletionService<Result[]> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<Result[]>,DecodeStrategy> submitted = new IdentityHashMap<>();
+        for (int i = 1; i < strategies.size(); i++) {
+            final DecodeStrategy strategy = strategies.get(i);
+            submitted.put(completionService.submit(() -> run(strategy, readers.get(), contexts.get(), attempt, done)), strategy);
+        }
+
+        DecodeStrategy winner = null;
+        Result[] results = run(strategies.get(0), reader, context, attempt, done);
+        if (results != null) {
+            winner = strategies.get(0);
+        }
+        for (int pending = submitted.size(); winner == null && pending > 0; pending--) {
+            Future<Result[]> future;
+            try {
+                future = completionService.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            results = getQuietly(future);
+            if (results != null) {
+                winner = submitted.get(future);
+            }
+        }
+        // Strategies that have not started yet return right away from now on.
+        done.set(true);
+        if (winner != null) {
+            stats.recordWin(winner);
+        }
+        return new Outcome(winner, results, new ArrayList<>(submitted.keySet()));
+    }
+
+    void shutdown() {
+        executor.shutdown();
+        stats.save();
+    }
+
+    private Result[] run(DecodeStrategy strategy, MultiFormatReader reader, BinarizerContext context,
+                       Attempt attempt, AtomicBoolean done) {
+        if (done.get()) {
+            return null;
+        }
+        try {
+            Result[] results = attempt.decode(strategy, reader, context);
+            if (results == null) {
+                return null;
+            }
+            stats.recordAttempt(strategy);
+            return results.length > 0 ? results : null;
+        } catch (RuntimeException e) {
+            // A reader bug on one strange frame should not end the scan.
+            stats.recordAttempt(strategy);
+            return null;
+        } finally {
+            reader.reset();
+        }
+    }
+
+    private static Result[] getQuietly(Future<Result[]> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+}
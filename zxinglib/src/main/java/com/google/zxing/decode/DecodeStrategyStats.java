@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.decode;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Schedules the {@link DecodeStrategy}s from their decode history.
+ * <p>
+ * The last {@link #WINDOW_SIZE} successful decodes are kept in a sliding window. Strategies are
+ * tried in the order of their wins in that window, and once the window holds at least
+ * {@link #MIN_WINDOW_RESULTS} results a strategy that has not won any of them is skipped, except
+ * on every {@link #EXPLORE_INTERVAL}th frame so it can win its place back when the scene
+ * changes. The common case then costs a single decode pass even on frames that fail.
+ * <p>
+ * Lifetime attempts and wins break ties and order the strategies while the window is still
+ * empty. When created with a {@link Context} they are kept per device in a private preferences
+ * file.
+ */
+final class DecodeStrategyStats {
+
+    private static final String PREFS_NAME = "zxing_decode_strategy_stats";
+    private static final String KEY_ATTEMPTS = "attempts_";
+    private static final String KEY_WINS = "wins_";
+
+    static final int WINDOW_SIZE = 32;
+    static final int MIN_WINDOW_RESULTS = 8;
+    static final int EXPLORE_INTERVAL = 16;
+
+    private static final DecodeStrategy[] STRATEGIES = DecodeStrategy.values();
+
+    private final SharedPreferences prefs;
+    private final int[] attempts = new int[STRATEGIES.length];
+    private final int[] wins = new int[STRATEGIES.length];
+    /**
+     * Ring buffer of the ordinals of the last winning strategies.
+     */
+    private final int[] window = new int[WINDOW_SIZE];
+    private final int[] windowWins = new int[STRATEGIES.length];
+    private int windowResults;
+    private int windowNext;
+    private int frames;
+
+    /**
+     * Keeps the history in memory only.
+     */
+    DecodeStrategyStats() {
+        prefs = null;
+    }
+
+    DecodeStrategyStats(Context context) {
+        prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        for (DecodeStrategy strategy : STRATEGIES) {
+            attempts[strategy.ordinal()] = prefs.getInt(KEY_ATTEMPTS + strategy.name(), 0);
+            wins[strategy.ordinal()] = prefs.getInt(KEY_WINS + strategy.name(), 0);
+        }
+    }
+
+    synchronized void recordAttempt(DecodeStrategy strategy) {
+        attempts[strategy.ordinal()]++;
+    }
+
+    synchronized void recordWin(DecodeStrategy strategy) {
+        int ordinal = strategy.ordinal();
+        wins[ordinal]++;
+        if (windowResults == WINDOW_SIZE) {
+            windowWins[window[windowNext]]--;
+        } else {
+            windowResults++;
+        }
+        window[windowNext] = ordinal;
+        windowWins[ordinal]++;
+        windowNext = (windowNext + 1) % WINDOW_SIZE;
+    }
+
+    /**
+     * @return the strategies to try on the next preview frame, most successful first, without
+     * those that have not won recently
+     */
+    synchronized List<DecodeStrategy> order(boolean isSupportLuminanceInvert, boolean isSupportVerticalCode,
+                                            boolean isRowDecodingOnly) {
+        List<DecodeStrategy> strategies = orderAll(isSupportLuminanceInvert, isSupportVerticalCode,
+                isRowDecodingOnly);
+        boolean explore = ++frames % EXPLORE_INTERVAL == 0;
+        if (!explore && windowResults >= MIN_WINDOW_RESULTS) {
+            for (int i = strategies.size() - 1; i > 0; i--) {
+                if (windowWins[strategies.get(i).ordinal()] == 0) {
+                    strategies.remove(i);
+                }
+            }
+        }
+        return strategies;
+    }
+
+    /**
+     * @return every applicable strategy, most successful first. Used where a failed attempt cannot
+     * be retried on the next frame, such as decoding a single picture.
+     *
+     * @param isRowDecodingOnly {@code true} if the reader only decodes rows, see
+     *                          {@link com.google.zxing.parse.MultiFormatReader#isRowDecodingOnly()}
+     */
+    synchronized List<DecodeStrategy> orderAll(boolean isSupportLuminanceInvert, boolean isSupportVerticalCode,
+                                               boolean isRowDecodingOnly) {
+        List<DecodeStrategy> strategies = new ArrayList<>(STRATEGIES.length);
+        for (DecodeStrategy strategy : STRATEGIES) {
+            if (strategy == DecodeStrategy.INVERTED && !isSupportLuminanceInvert) {
+                continue;
+            }
+            if (strategy == DecodeStrategy.ROTATED && !isSupportVerticalCode) {
+                continue;
+            }
+            if (isRowDecodingOnly && !strategy.isRowDistinct()) {
+                continue;
+            }
+            strategies.add(strategy);
+        }
+        // Stable, so strategies that never won keep their declared order.
+        Collections.sort(strategies, (a, b) -> {
+            int recent = Integer.compare(windowWins[b.ordinal()], windowWins[a.ordinal()]);
+            return recent != 0 ? recent : Integer.compare(wins[b.ordinal()], wins[a.ordinal()]);
+        });
+        return strategies;
+    }
+
+    synchronized void save() {
+        if (prefs == null) {
+            return;
+        }
+        SharedPreferences.Editor editor = prefs.edit();
+        for (DecodeStrategy strategy : STRATEGIES) {
+            editor.putInt(KEY_ATTEMPTS + strategy.name(), attempts[strategy.ordinal()]);
+            editor.putInt(KEY_WINS + strategy.name(), wins[strategy.ordinal()]);
+        }
+        editor.apply();
+    }
+
+}
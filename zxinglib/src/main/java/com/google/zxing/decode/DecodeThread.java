@@ -18,26 +18,18 @@ package com.google.zxing.decode;
 
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.os.Handler;
 import android.os.Looper;
-import android.preference.PreferenceManager;
 
-import com.google.zxing.uitls.ConfigUtil;
-import com.google.zxing.uitls.LogUtil;
-import com.google.zxing.parse.BarcodeFormat;
 import com.google.zxing.parse.DecodeHintType;
-import com.google.zxing.parse.ResultPointCallback;
 import com.google.zxing.camera.CameraManager;
 
-import java.util.Collection;
-import java.util.EnumMap;
-import java.util.EnumSet;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 
 /**
- * This thread does all the heavy lifting of decoding the images.
+ * This thread does all the heavy lifting of decoding the images. One of the workers of a
+ * {@link DecodeThreadPool}.
  *
  * @author dswitkin@google.com (Daniel Switkin)
  */
@@ -51,55 +43,23 @@ final class DecodeThread extends Thread {
     private final Map<DecodeHintType,Object> hints;
     private Handler handler;
     private CaptureHandler captureHandler;
+    private final DecodeThreadPool pool;
+    private final int index;
     private final CountDownLatch handlerInitLatch;
 
     DecodeThread(Context context, CameraManager cameraManager,
                  CaptureHandler captureHandler,
-                 Collection<BarcodeFormat> decodeFormats,
-                 Map<DecodeHintType,Object> baseHints,
-                 String characterSet,
-                 ResultPointCallback resultPointCallback) {
-
+                 DecodeThreadPool pool,
+                 int index,
+                 Map<DecodeHintType,Object> hints) {
+        super("DecodeThread-" + index);
         this.context = context;
         this.cameraManager = cameraManager;
         this.captureHandler = captureHandler;
+        this.pool = pool;
+        this.index = index;
+        this.hints = hints;
         handlerInitLatch = new CountDownLatch(1);
-
-        hints = new EnumMap<>(DecodeHintType.class);
-        if (baseHints != null) {
-            hints.putAll(baseHints);
-        }
-
-        // The prefs can't change while the thread is running, so pick them up once here.
-        if (decodeFormats == null || decodeFormats.isEmpty()) {
-            SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(context);
-            decodeFormats = EnumSet.noneOf(BarcodeFormat.class);
-            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_1D_PRODUCT, true)) {
-                decodeFormats.addAll(DecodeFormatManager.PRODUCT_FORMATS);
-            }
-            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_1D_INDUSTRIAL, true)) {
-                decodeFormats.addAll(DecodeFormatManager.INDUSTRIAL_FORMATS);
-            }
-            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_QR, true)) {
-                decodeFormats.addAll(DecodeFormatManager.QR_CODE_FORMATS);
-            }
-            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_DATA_MATRIX, true)) {
-                decodeFormats.addAll(DecodeFormatManager.DATA_MATRIX_FORMATS);
-            }
-            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_AZTEC, false)) {
-                decodeFormats.addAll(DecodeFormatManager.AZTEC_FORMATS);
-            }
-            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_PDF417, false)) {
-                decodeFormats.addAll(DecodeFormatManager.PDF417_FORMATS);
-            }
-        }
-        hints.put(DecodeHintType.POSSIBLE_FORMATS, decodeFormats);
-
-        if (characterSet != null) {
-            hints.put(DecodeHintType.CHARACTER_SET, characterSet);
-        }
-        hints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, resultPointCallback);
-         LogUtil.i( "Hints: " + hints);
     }
 
     Handler getHandler() {
@@ -114,9 +74,9 @@ final class DecodeThread extends Thread {
     @Override
     public void run() {
         Looper.prepare();
-        handler = new DecodeHandler(context,cameraManager,captureHandler, hints);
+        handler = new DecodeHandler(context, cameraManager, captureHandler, pool, index, hints);
         handlerInitLatch.countDown();
         Looper.loop();
     }
 
-}
\ No newline at end of file
+}
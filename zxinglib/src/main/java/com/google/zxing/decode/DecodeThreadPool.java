@@ -0,0 +1,200 @@
+package com.google.zxing.decode;
+
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Message;
+import android.preference.PreferenceManager;
+
+import com.google.zxing.client.android.R;
+import com.google.zxing.uitls.ConfigUtil;
+import com.google.zxing.uitls.LogUtil;
+import com.google.zxing.parse.BarcodeFormat;
+import com.google.zxing.parse.DecodeHintType;
+import com.google.zxing.parse.ResultPointCallback;
+import com.google.zxing.camera.CameraManager;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed set of {@link DecodeThread} workers. Every worker owns its own {@link DecodeHandler} and
+ * therefore its own reader, so several preview frames can be decoded at once.
+ * <p>
+ * {@link CaptureHandler} keeps every idle worker fed with a frame. The first worker to decode
+ * one wins: the handler then calls {@link #cancel()}, which makes the other workers skip their
+ * remaining decode attempts and turns their late results stale. Results carry the generation
+ * they were decoded under in {@code arg1} and the worker index in {@code arg2}.
+ */
+final class DecodeThreadPool {
+
+    /**
+     * Leaves one core to the UI and camera threads.
+     */
+    static final int DEFAULT_THREAD_COUNT =
+            Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 4));
+
+    private final DecodeThread[] threads;
+    private final DecodeStrategyExecutor strategyExecutor;
+    private final RoiTracker roiTracker;
+    /**
+     * Only touched on the {@link CaptureHandler} thread.
+     */
+    private final boolean[] idle;
+    private final AtomicInteger generation = new AtomicInteger();
+    private long lastZoomTime;
+
+    DecodeThreadPool(Context context, CameraManager cameraManager,
+                     CaptureHandler captureHandler,
+                     int threadCount,
+                     Collection<BarcodeFormat> decodeFormats,
+                     Map<DecodeHintType,Object> baseHints,
+                     String characterSet,
+                     ResultPointCallback resultPointCallback) {
+
+        Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+        if (baseHints != null) {
+            hints.putAll(baseHints);
+        }
+
+        // The prefs can't change while the threads are running, so pick them up once here.
+        if (decodeFormats == null || decodeFormats.isEmpty()) {
+            SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(context);
+            decodeFormats = EnumSet.noneOf(BarcodeFormat.class);
+            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_1D_PRODUCT, true)) {
+                decodeFormats.addAll(DecodeFormatManager.PRODUCT_FORMATS);
+            }
+            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_1D_INDUSTRIAL, true)) {
+                decodeFormats.addAll(DecodeFormatManager.INDUSTRIAL_FORMATS);
+            }
+            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_QR, true)) {
+                decodeFormats.addAll(DecodeFormatManager.QR_CODE_FORMATS);
+            }
+            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_DATA_MATRIX, true)) {
+                decodeFormats.addAll(DecodeFormatManager.DATA_MATRIX_FORMATS);
+            }
+            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_AZTEC, false)) {
+                decodeFormats.addAll(DecodeFormatManager.AZTEC_FORMATS);
+            }
+            if (prefs.getBoolean(ConfigUtil.KEY_DECODE_PDF417, false)) {
+                decodeFormats.addAll(DecodeFormatManager.PDF417_FORMATS);
+            }
+        }
+        hints.put(DecodeHintType.POSSIBLE_FORMATS, decodeFormats);
+
+        if (characterSet != null) {
+            hints.put(DecodeHintType.CHARACTER_SET, characterSet);
+        }
+        // The tracker passes the points on to the given callback.
+        roiTracker = new RoiTracker(resultPointCallback);
+        hints.put(DecodeHintType.NEED_RESULT_POINT_CALLBACK, roiTracker);
+        LogUtil.i("Hints: " + hints + ", decode threads: " + threadCount);
+
+        // The readers only ever read the hints, so every worker can share the same map.
+        strategyExecutor = new DecodeStrategyExecutor(new DecodeStrategyStats(context), hints);
+        threads = new DecodeThread[Math.max(threadCount, 1)];
+        idle = new boolean[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new DecodeThread(context, cameraManager, captureHandler, this, i, hints);
+            idle[i] = true;
+        }
+    }
+
+    void start() {
+        for (DecodeThread thread : threads) {
+            thread.start();
+        }
+    }
+
+    int size() {
+        return threads.length;
+    }
+
+    Handler getHandler(int index) {
+        return threads[index].getHandler();
+    }
+
+    DecodeStrategyExecutor getStrategyExecutor() {
+        return strategyExecutor;
+    }
+
+    RoiTracker getRoiTracker() {
+        return roiTracker;
+    }
+
+    boolean isIdle(int index) {
+        return idle[index];
+    }
+
+    void setIdle(int index, boolean isIdle) {
+        idle[index] = isIdle;
+    }
+
+    int getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @return {@code true} if {@link #cancel()} was called since the given generation was read
+     */
+    boolean isCancelled(int generation) {
+        return this.generation.get() != generation;
+    }
+
+    /**
+     * Cancels the decodes currently running on every worker. Their results, if any, are reported
+     * with the old generation and ignored.
+     */
+    void cancel() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Auto zoom changes camera parameters, so the workers share a single rate limit for it.
+     */
+    synchronized long getLastZoomTime() {
+        return lastZoomTime;
+    }
+
+    synchronized void setLastZoomTime(long lastZoomTime) {
+        this.lastZoomTime = lastZoomTime;
+    }
+
+    void quitSynchronously(long millis) {
+        cancel();
+        for (DecodeThread thread : threads) {
+            Message quit = Message.obtain(thread.getHandler(), R.id.quit);
+            quit.sendToTarget();
+        }
+        long deadline = System.currentTimeMillis() + millis;
+        for (DecodeThread thread : threads) {
+            try {
+                thread.join(Math.max(deadline - System.currentTimeMillis(), 1L));
+            } catch (InterruptedException e) {
+                // continue
+            }
+        }
+        strategyExecutor.shutdown();
+    }
+
+}
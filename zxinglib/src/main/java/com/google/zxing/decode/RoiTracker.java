@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2026 ZXing authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.zxing.decode;
+
+import android.graphics.Rect;
+
+import com.google.zxing.parse.Result;
+import com.google.zxing.parse.ResultPoint;
+import com.google.zxing.parse.ResultPointCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remembers where the last barcode was seen, so the next preview frames can be decoded in a small
+ * region around it first. Positions come from the result points of a decode, or from a near miss:
+ * an attempt that failed after the detector reported at least {@link #MIN_NEAR_MISS_POINTS}
+ * possible result points, such as the three finder patterns of a QR code it could not read.
+ * <p>
+ * All positions are in the coordinates of the unrotated luminance source of the framing rect.
+ * Decode attempts tell the tracker how their bitmap maps onto that source with
+ * {@link #beginAttempt}; the tracker sits in the decode hints as the
+ * {@link ResultPointCallback}, so it sees the possible result points of every attempt and passes
+ * them on to the viewfinder.
+ * <p>
+ * The region is forgotten once a frame fails without a near miss, or after {@link #TTL_MILLIS}
+ * without an update.
+ */
+final class RoiTracker implements ResultPointCallback {
+
+    static final long TTL_MILLIS = 1500L;
+    static final int MIN_NEAR_MISS_POINTS = 3;
+    /**
+     * The smallest region worth decoding; also leaves room for the binarizer's 5x5 blocks.
+     */
+    private static final int MIN_REGION_SIZE = 96;
+    /**
+     * Margin around the points, relative to their extent. Finder pattern centers lie inside the
+     * symbol, and 1D result points on a single row.
+     */
+    private static final float MARGIN = 0.5f;
+    /**
+     * A region this much of the frame or more is decoded as the whole frame anyway.
+     */
+    private static final float MAX_AREA_RATIO = 0.6f;
+
+    private static final class Attempt {
+
+        final int offsetX;
+        final int offsetY;
+        final int viewWidth;
+        final boolean rotated;
+        final List<ResultPoint> points = new ArrayList<>();
+
+        Attempt(int offsetX, int offsetY, int viewWidth, boolean rotated) {
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.viewWidth = viewWidth;
+            this.rotated = rotated;
+        }
+
+        ResultPoint toFrame(ResultPoint point) {
+            float x = rotated ? viewWidth - 1 - point.getY() : point.getX();
+            float y = rotated ? point.getX() : point.getY();
+            return new ResultPoint(x + offsetX, y + offsetY);
+        }
+    }
+
+    private final ResultPointCallback delegate;
+    private final ThreadLocal<Attempt> attempts = new ThreadLocal<>();
+    private Rect region;
+    private int frameWidth;
+    private int frameHeight;
+    private long updateTime;
+
+    /**
+     * @param delegate receives every possible result point, or {@code null}
+     */
+    RoiTracker(ResultPointCallback delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the region to decode first in a frame of the given size, or {@code null} if there is
+     * none worth decoding on its own
+     */
+    synchronized Rect getRegion(int frameWidth, int frameHeight) {
+        if (region == null || frameWidth != this.frameWidth || frameHeight != this.frameHeight
+                || System.currentTimeMillis() - updateTime > TTL_MILLIS) {
+            return null;
+        }
+        if (region.width() * region.height() >= MAX_AREA_RATIO * frameWidth * frameHeight) {
+            return null;
+        }
+        return new Rect(region);
+    }
+
+    /**
+     * Starts collecting the possible result points reported on the calling thread.
+     *
+     * @param offsetX   left of the decoded region in the frame
+     * @param offsetY   top of the decoded region in the frame
+     * @param viewWidth width of the decoded region, before rotation
+     * @param rotated   whether the bitmap is the region rotated counterclockwise
+     */
+    void beginAttempt(int offsetX, int offsetY, int viewWidth, boolean rotated) {
+        attempts.set(new Attempt(offsetX, offsetY, viewWidth, rotated));
+    }
+
+    /**
+     * Ends the attempt begun on the calling thread, tracking its results or its near miss. The
+     * region of several results covers all of them.
+     *
+     * @param results the decoded results, or {@code null}
+     */
+    void endAttempt(Result[] results, int frameWidth, int frameHeight) {
+        Attempt attempt = attempts.get();
+        attempts.remove();
+        if (attempt == null) {
+            return;
+        }
+        List<ResultPoint> points = new ArrayList<>();
+        if (results != null) {
+            for (Result result : results) {
+                if (result.getResultPoints() != null) {
+                    for (ResultPoint point : result.getResultPoints()) {
+                        if (point != null) {
+                            points.add(attempt.toFrame(point));
+                        }
+                    }
+                }
+            }
+        }
+        if (points.isEmpty()) {
+            if (attempt.points.size() < MIN_NEAR_MISS_POINTS) {
+                return;
+            }
+            points = attempt.points;
+        }
+        update(points, frameWidth, frameHeight);
+    }
+
+    /**
+     * Forgets the region if nothing updated it since the given frame started.
+     */
+    synchronized void endFrame(long frameStartTime) {
+        if (updateTime < frameStartTime) {
+            region = null;
+        }
+    }
+
+    @Override
+    public void foundPossibleResultPoint(ResultPoint point) {
+        Attempt attempt = attempts.get();
+        if (attempt != null) {
+            ResultPoint framePoint = attempt.toFrame(point);
+            attempt.points.add(framePoint);
+            if (!attempt.rotated) {
+                // The viewfinder expects points of the whole framing rect.
+                point = framePoint;
+            }
+        }
+        if (delegate != null) {
+            delegate.foundPossibleResultPoint(point);
+        }
+    }
+
+    private synchronized void update(List<ResultPoint> points, int frameWidth, int frameHeight) {
+        if (points.isEmpty()) {
+            return;
+        }
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (ResultPoint point : points) {
+            minX = Math.min(minX, point.getX());
+            minY = Math.min(minY, point.getY());
+            maxX = Math.max(maxX, point.getX());
+            maxY = Math.max(maxY, point.getY());
+        }
+        float extent = Math.max(maxX - minX, maxY - minY);
+        int margin = Math.max((int) (extent * MARGIN), MIN_REGION_SIZE / 2);
+        Rect rect = new Rect((int) minX - margin, (int) minY - margin, (int) maxX + margin, (int) maxY + margin);
+        if (!rect.intersect(0, 0, frameWidth, frameHeight)
+                || rect.width() < MIN_REGION_SIZE || rect.height() < MIN_REGION_SIZE) {
+            return;
+        }
+        region = rect;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        updateTime = System.currentTimeMillis();
+    }
+
+}